@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link TrapezoidalRule} and {@link SimpsonsRule}
+ * across number of iterations and cost of the integrand.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumericalIntegrationBenchmark {
+
+    /**
+     * The rules of the benchmark.
+     */
+    public enum Rule {
+
+        TRAPEZOIDAL,
+
+        SIMPSONS_MAIN,
+
+        SIMPSONS_THREE_EIGHTHS
+
+    }
+
+    /**
+     * The integrands of the benchmark, from cheap to expensive.
+     */
+    public enum Integrand {
+
+        /** A polynomial. */
+        CHEAP(x -> x * (x - 2) * (x - 3)),
+
+        /** A composition of transcendental functions. */
+        TRANSCENDENTAL(x -> Math.exp(-x * x) * Math.sin(3 * x)),
+
+        /** The transcendental integrand compiled from its formula. */
+        COMPILED(Expression.compile("exp(-x^2) * sin(3*x)")),
+
+        /** A function that iterates a hundred times on each call. */
+        EXPENSIVE(x -> {
+            double result = x;
+            for (int i = 0; i < 100; i++)
+                result = Math.cos(result);
+            return result;
+        });
+
+        final Fdx function;
+
+        Integrand(Fdx function) {
+            this.function = function;
+        }
+
+    }
+
+    /** Divisible by the modulus of both composites of the Simpson's rule. */
+    @Param({"120", "12000", "1200000"})
+    public int iterations;
+
+    @Param
+    public Rule rule;
+
+    @Param
+    public Integrand integrand;
+
+    private RuleX solver;
+
+    private DefiniteIntegral integral;
+
+    @Setup
+    public void setUp() {
+        switch (rule) {
+            case TRAPEZOIDAL:
+                solver = new TrapezoidalRule(iterations);
+                break;
+            case SIMPSONS_MAIN:
+                solver = new SimpsonsRule(iterations, SimpsonsRule.Composite.MAIN);
+                break;
+            case SIMPSONS_THREE_EIGHTHS:
+                solver = new SimpsonsRule(iterations, SimpsonsRule.Composite.THREE_EIGHTHS);
+                break;
+        }
+        integral = new DefiniteIntegral(integrand.function, 0d, 5d);
+    }
+
+    @Benchmark
+    public double solve() {
+        return solver.solve(integral);
+    }
+
+    @Benchmark
+    public double solvePrimitive() {
+        return solver.solve(integrand.function, 0d, 5d);
+    }
+
+}
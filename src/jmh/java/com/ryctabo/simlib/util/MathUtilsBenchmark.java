@@ -0,0 +1,200 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link MathUtils} functions.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathUtilsBenchmark {
+
+    /**
+     * The values of the primality test.
+     */
+    @State(Scope.Benchmark)
+    public static class PrimeState {
+
+        /** Two primes, the worst case of the primality test, and a composite. */
+        @Param({"1000000007", "999999999989", "1000000000000"})
+        public long prime;
+
+    }
+
+    /**
+     * The values of the factorization of an {@code int}.
+     */
+    @State(Scope.Benchmark)
+    public static class IntFactorsState {
+
+        /** Composites with small prime factors, the trial division of a large prime is too slow. */
+        @Param({"1234567890", "2147483646"})
+        public int intFactors;
+
+    }
+
+    /**
+     * The values of the factorization of a {@code long}.
+     */
+    @State(Scope.Benchmark)
+    public static class LongFactorsState {
+
+        @Param({"600851475143", "1000000000000"})
+        public long longFactors;
+
+    }
+
+    /**
+     * The values of the factorial.
+     */
+    @State(Scope.Benchmark)
+    public static class FactorialState {
+
+        @Param({"20"})
+        public long factorial;
+
+    }
+
+    /**
+     * The values of the greatest common divisor.
+     */
+    @State(Scope.Benchmark)
+    public static class GcdState {
+
+        /** Two consecutive Fibonacci numbers, the worst case of the Euclidean algorithm. */
+        public int a = 1_836_311_903;
+
+        public int b = 1_134_903_170;
+
+    }
+
+    /**
+     * The arrays of the sum and average functions.
+     */
+    @State(Scope.Benchmark)
+    public static class Arrays {
+
+        @Param({"1000", "1000000"})
+        public int length;
+
+        public int[] ints;
+
+        public long[] longs;
+
+        public float[] floats;
+
+        public double[] doubles;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            ints = new int[length];
+            longs = new long[length];
+            floats = new float[length];
+            doubles = new double[length];
+            for (int i = 0; i < length; i++) {
+                ints[i] = random.nextInt(1000);
+                longs[i] = random.nextLong() >> 16;
+                floats[i] = random.nextFloat();
+                doubles[i] = random.nextDouble();
+            }
+        }
+
+    }
+
+    @Benchmark
+    public boolean isPrime(PrimeState state) {
+        return MathUtils.isPrime(state.prime);
+    }
+
+    @Benchmark
+    public int[] getPrimeFactorsInt(IntFactorsState state) {
+        return MathUtils.getPrimeFactors(state.intFactors);
+    }
+
+    @Benchmark
+    public long[] getPrimeFactorsLong(LongFactorsState state) {
+        return MathUtils.getPrimeFactors(state.longFactors);
+    }
+
+    @Benchmark
+    public int gcdInt(GcdState state) {
+        return MathUtils.gcd(state.a, state.b);
+    }
+
+    @Benchmark
+    public long gcdLong(GcdState state) {
+        return MathUtils.gcd((long) state.a, (long) state.b);
+    }
+
+    @Benchmark
+    public long fact(FactorialState state) {
+        return MathUtils.fact(state.factorial);
+    }
+
+    @Benchmark
+    public int plusInt(Arrays arrays) {
+        return MathUtils.plus(arrays.ints);
+    }
+
+    @Benchmark
+    public long plusLong(Arrays arrays) {
+        return MathUtils.plus(arrays.longs);
+    }
+
+    @Benchmark
+    public float plusFloat(Arrays arrays) {
+        return MathUtils.plus(arrays.floats);
+    }
+
+    @Benchmark
+    public double plusDouble(Arrays arrays) {
+        return MathUtils.plus(arrays.doubles);
+    }
+
+    @Benchmark
+    public double averageInt(Arrays arrays) {
+        return MathUtils.average(arrays.ints);
+    }
+
+    @Benchmark
+    public double averageDouble(Arrays arrays) {
+        return MathUtils.average(arrays.doubles);
+    }
+
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+/**
+ * The <strong>AdaptiveSimpsonsRule</strong> class represents to the
+ * implementation of the adaptive Simpson's method for approximating
+ * to {@link DefiniteIntegral}.
+ * <p>
+ * The interval is only subdivided where the local error estimate of the
+ * Simpson's rule is greater than the tolerance, and every subdivision
+ * reuses the values of the function that were already calculated, so
+ * each level of refinement needs only two new evaluations.
+ * <p>
+ * The refinement stops at the maximum depth or when the maximum number
+ * of evaluations is reached, in that case the best estimate is returned
+ * and the {@link IntegrationResult#getErrorEstimate() error estimate}
+ * can be greater than the tolerance.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Adaptive_Simpson%27s_method">Adaptive Simpson's method</a>
+ */
+public class AdaptiveSimpsonsRule implements RuleX {
+
+    /** The default maximum depth of the subdivisions. */
+    public static final int DEFAULT_MAX_DEPTH = 50;
+
+    /** The default maximum number of evaluations of the function. */
+    public static final int DEFAULT_MAX_EVALUATIONS = 1_000_000;
+
+    /** The absolute tolerance of the result. */
+    private final double tolerance;
+
+    /** The maximum depth of the subdivisions. */
+    private final int maxDepth;
+
+    /** The maximum number of evaluations of the function. */
+    private final int maxEvaluations;
+
+    /** The listener notified after each solve, {@code null} is disabled. */
+    private volatile IntegrationListener listener;
+
+    /**
+     * Create an instance of {@link AdaptiveSimpsonsRule} with the default
+     * maximum depth and maximum number of evaluations.
+     *
+     * @param tolerance the absolute tolerance of the result
+     */
+    public AdaptiveSimpsonsRule(double tolerance) {
+        this(tolerance, DEFAULT_MAX_DEPTH, DEFAULT_MAX_EVALUATIONS);
+    }
+
+    /**
+     * Create an instance of {@link AdaptiveSimpsonsRule} from the given
+     * parameters.
+     *
+     * @param tolerance      the absolute tolerance of the result
+     * @param maxDepth       the maximum depth of the subdivisions
+     * @param maxEvaluations the maximum number of evaluations of the function
+     *
+     * @throws IllegalArgumentException if the tolerance isn't positive, the
+     *                                  maximum depth is less than 1 or the
+     *                                  maximum number of evaluations is less
+     *                                  than 3
+     */
+    public AdaptiveSimpsonsRule(double tolerance, int maxDepth, int maxEvaluations) {
+        if (!(tolerance > 0))
+            throw new IllegalArgumentException("The tolerance has to be positive.");
+        if (maxDepth < 1)
+            throw new IllegalArgumentException("The maximum depth can't be less than 1.");
+        if (maxEvaluations < 3)
+            throw new IllegalArgumentException("The maximum number of evaluations can't be less than 3.");
+
+        this.tolerance = tolerance;
+        this.maxDepth = maxDepth;
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    /**
+     * Get the absolute tolerance of the result.
+     *
+     * @return the tolerance
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Get the maximum depth of the subdivisions.
+     *
+     * @return the maximum depth
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Get the maximum number of evaluations of the function.
+     *
+     * @return the maximum number of evaluations
+     */
+    public int getMaxEvaluations() {
+        return maxEvaluations;
+    }
+
+    /**
+     * Get the listener notified after each solve.
+     *
+     * @return the listener, or {@code null} if it is disabled
+     */
+    public IntegrationListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Set the listener notified after each solve.
+     *
+     * @param listener the listener, or {@code null} to disable it
+     */
+    public void setListener(IntegrationListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public double solve(DefiniteIntegral integral) {
+        return integrate(integral).getValue();
+    }
+
+    @Override
+    public double solve(Fdx fn, double lowerLimit, double upperLimit) {
+        return integrate(fn, lowerLimit, upperLimit).getValue();
+    }
+
+    /**
+     * Solve the definite integral and returns its value together with the
+     * error estimate and the number of evaluations of the function.
+     *
+     * @param integral Integral {@code f(x)} with an interval {@code [a,b]}.
+     *
+     * @return the result of the integral
+     */
+    public IntegrationResult integrate(DefiniteIntegral integral) {
+        return integrate(integral.getFunction(), integral.getLowerLimit(), integral.getUpperLimit());
+    }
+
+    /**
+     * Solve the integral of {@code f(x)} in the interval {@code [a,b]}
+     * without creating a {@link DefiniteIntegral}.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     *
+     * @return the result of the integral
+     *
+     * @throws IllegalArgumentException if the lower limit is greater than
+     *                                  upper limit.
+     */
+    public IntegrationResult integrate(Fdx fn, double lowerLimit, double upperLimit) {
+        DefiniteIntegral.validateLimits(lowerLimit, upperLimit);
+        IntegrationListener listener = this.listener;
+        if (listener == null)
+            return compute(fn, lowerLimit, upperLimit);
+
+        long start = System.nanoTime();
+        IntegrationResult result = compute(fn, lowerLimit, upperLimit);
+        long nanos = System.nanoTime() - start;
+        listener.onSolve(new IntegrationEvent(this, 0, Double.NaN,
+                result.getEvaluations(), nanos, result.getErrorEstimate()));
+        return result;
+    }
+
+    /**
+     * Solve the integral without notifying the listener.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     *
+     * @return the result of the integral
+     */
+    private IntegrationResult compute(Fdx fn, double lowerLimit, double upperLimit) {
+        if (fn instanceof IntegrableFdx)
+            return new IntegrationResult(((IntegrableFdx) fn).integrate(lowerLimit, upperLimit), 0d, 0L);
+        double a = lowerLimit;
+        double b = upperLimit;
+        if (a == b)
+            return new IntegrationResult(0d, 0d, 0L);
+
+        Evaluation evaluation = new Evaluation(fn);
+        double m = (a + b) / 2;
+        double fa = evaluation.calculate(a);
+        double fm = evaluation.calculate(m);
+        double fb = evaluation.calculate(b);
+        double whole = (b - a) / 6 * (fa + 4 * fm + fb);
+
+        double value = refine(evaluation, a, b, fa, fm, fb, whole, tolerance, Double.POSITIVE_INFINITY, 1);
+        return new IntegrationResult(value, evaluation.error, evaluation.count);
+    }
+
+    /**
+     * Apply the Simpson's rule to both halves of {@code [a, b]} and
+     * subdivide them while the local error estimate is greater than the
+     * tolerance.
+     *
+     * @param evaluation the evaluations of this call
+     * @param a          the lower limit of the subinterval
+     * @param b          the upper limit of the subinterval
+     * @param fa         the value of {@code f(a)}
+     * @param fm         the value of {@code f((a + b) / 2)}
+     * @param fb         the value of {@code f(b)}
+     * @param whole      the Simpson's rule of the whole subinterval
+     * @param tolerance  the tolerance of the subinterval
+     * @param error      the error estimate of {@code whole}
+     * @param depth      the depth of the subinterval
+     *
+     * @return the integral of the subinterval
+     */
+    private double refine(Evaluation evaluation, double a, double b, double fa, double fm,
+                          double fb, double whole, double tolerance, double error, int depth) {
+        double m = (a + b) / 2;
+        double lm = (a + m) / 2;
+        double rm = (m + b) / 2;
+        if (evaluation.count + 2 > maxEvaluations || !(a < lm && lm < m && m < rm && rm < b)) {
+            evaluation.error += error;
+            return whole;
+        }
+
+        double flm = evaluation.calculate(lm);
+        double frm = evaluation.calculate(rm);
+        double left = (m - a) / 6 * (fa + 4 * flm + fm);
+        double right = (b - m) / 6 * (fm + 4 * frm + fb);
+        double delta = left + right - whole;
+
+        if (depth >= maxDepth || Math.abs(delta) <= 15 * tolerance) {
+            evaluation.error += Math.abs(delta) / 15;
+            return left + right + delta / 15;
+        }
+
+        double halfError = Math.abs(delta) / 30;
+        return refine(evaluation, a, m, fa, flm, fm, left, tolerance / 2, halfError, depth + 1)
+                + refine(evaluation, m, b, fm, frm, fb, right, tolerance / 2, halfError, depth + 1);
+    }
+
+    /**
+     * The evaluations of the function and the error of one call.
+     */
+    private static final class Evaluation {
+
+        private final Fdx fn;
+
+        private long count;
+
+        private double error;
+
+        Evaluation(Fdx fn) {
+            this.fn = fn;
+        }
+
+        double calculate(double x) {
+            count++;
+            return fn.calculate(x);
+        }
+
+    }
+
+}
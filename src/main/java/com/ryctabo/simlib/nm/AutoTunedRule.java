@@ -0,0 +1,333 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The <strong>AutoTunedRule</strong> class chooses the number of
+ * iterations of a {@link NumericalIntegration} to reach an absolute or
+ * relative tolerance, instead of guessing it.
+ * <p>
+ * The number of iterations is doubled from a multiple of the modulus of
+ * the rule, so each count stays valid for its composite, until the
+ * Richardson estimate {@code |I(2n) - I(n)| / (2^p - 1)} of the error of
+ * {@code I(2n)} is below the tolerance, where {@code p} is the order of
+ * convergence of the rule. Then the smallest multiple of the modulus whose
+ * predicted error is below the tolerance is chosen, and the integral is
+ * solved with it.
+ * <p>
+ * The chosen number of iterations is cached by function and interval, so
+ * a repeated solve skips the tuning and evaluates the rule only once with
+ * the same result. The functions are compared with {@code equals}, which
+ * for a lambda is its identity. The cache keeps the functions reachable,
+ * it is cleared when it is full or with {@link #clearCache()}.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Richardson_extrapolation">Richardson extrapolation</a>
+ */
+public class AutoTunedRule implements RuleX {
+
+    /** The default maximum number of iterations. */
+    public static final int DEFAULT_MAX_ITERATIONS = 1 << 24;
+
+    /** The maximum number of entries of the cache, it is cleared when it is full. */
+    static final int CACHE_SIZE = 1024;
+
+    /** The number of moduli of the first count of the tuning. */
+    private static final int INITIAL_MODULI = 4;
+
+    /** The rule whose number of iterations is tuned. */
+    private final NumericalIntegration rule;
+
+    /** The absolute tolerance of the result. */
+    private final double absoluteTolerance;
+
+    /** The relative tolerance of the result. */
+    private final double relativeTolerance;
+
+    /** The maximum number of iterations. */
+    private final int maxIterations;
+
+    /** The tuned number of iterations by function and interval. */
+    private final ConcurrentMap<Key, Tuning> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Create an instance of {@link AutoTunedRule} with the default maximum
+     * number of iterations.
+     *
+     * @param rule              the rule whose number of iterations is tuned
+     * @param absoluteTolerance the absolute tolerance of the result
+     * @param relativeTolerance the relative tolerance of the result
+     */
+    public AutoTunedRule(NumericalIntegration rule, double absoluteTolerance, double relativeTolerance) {
+        this(rule, absoluteTolerance, relativeTolerance, DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Create an instance of {@link AutoTunedRule} from the given parameters.
+     * The result is accepted when its error is below any of the two
+     * tolerances, a zero tolerance is disabled.
+     *
+     * @param rule              the rule whose number of iterations is tuned
+     * @param absoluteTolerance the absolute tolerance of the result
+     * @param relativeTolerance the relative tolerance of the result
+     * @param maxIterations     the maximum number of iterations
+     *
+     * @throws NullPointerException     if the rule is null
+     * @throws IllegalArgumentException if a tolerance is negative or both
+     *                                  are zero, or the maximum number of
+     *                                  iterations is less than the first
+     *                                  count of the tuning
+     */
+    public AutoTunedRule(NumericalIntegration rule, double absoluteTolerance,
+                         double relativeTolerance, int maxIterations) {
+        if (rule == null)
+            throw new NullPointerException("The rule can't be null");
+        if (!(absoluteTolerance >= 0) || !(relativeTolerance >= 0))
+            throw new IllegalArgumentException("The tolerances can't be negative.");
+        if (absoluteTolerance == 0 && relativeTolerance == 0)
+            throw new IllegalArgumentException("One of the tolerances has to be positive.");
+        if (maxIterations < INITIAL_MODULI * rule.getModulus())
+            throw new IllegalArgumentException("The maximum number of iterations can't be less than "
+                    + INITIAL_MODULI * rule.getModulus() + ".");
+
+        this.rule = rule;
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Get the rule whose number of iterations is tuned.
+     *
+     * @return the rule
+     */
+    public NumericalIntegration getRule() {
+        return rule;
+    }
+
+    /**
+     * Get the absolute tolerance of the result.
+     *
+     * @return the absolute tolerance
+     */
+    public double getAbsoluteTolerance() {
+        return absoluteTolerance;
+    }
+
+    /**
+     * Get the relative tolerance of the result.
+     *
+     * @return the relative tolerance
+     */
+    public double getRelativeTolerance() {
+        return relativeTolerance;
+    }
+
+    /**
+     * Get the maximum number of iterations.
+     *
+     * @return the maximum number of iterations
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Get the tuned number of iterations of a function and interval.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     *
+     * @return the number of iterations, or {@code 0} if it isn't cached
+     */
+    public int getCachedIterations(Fdx fn, double lowerLimit, double upperLimit) {
+        Tuning tuning = cache.get(new Key(fn, lowerLimit, upperLimit));
+        return tuning == null ? 0 : tuning.iterations;
+    }
+
+    /**
+     * Remove all tuned numbers of iterations.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    @Override
+    public double solve(DefiniteIntegral integral) {
+        return integrate(integral).getValue();
+    }
+
+    @Override
+    public double solve(Fdx fn, double lowerLimit, double upperLimit) {
+        return integrate(fn, lowerLimit, upperLimit).getValue();
+    }
+
+    /**
+     * Solve the definite integral and returns its value together with the
+     * error estimate and the number of evaluations of the function.
+     *
+     * @param integral Integral {@code f(x)} with an interval {@code [a,b]}.
+     *
+     * @return the result of the integral
+     */
+    public IntegrationResult integrate(DefiniteIntegral integral) {
+        return integrate(integral.getFunction(), integral.getLowerLimit(), integral.getUpperLimit());
+    }
+
+    /**
+     * Solve the integral of {@code f(x)} in the interval {@code [a,b]}
+     * with the tuned number of iterations. The error estimate is the one
+     * of the tuning, when the tolerance couldn't be reached with the
+     * maximum number of iterations it is greater than the tolerance.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     *
+     * @return the result of the integral
+     *
+     * @throws IllegalArgumentException if the lower limit is greater than
+     *                                  upper limit.
+     */
+    public IntegrationResult integrate(Fdx fn, double lowerLimit, double upperLimit) {
+        DefiniteIntegral.validateLimits(lowerLimit, upperLimit);
+        if (fn instanceof IntegrableFdx)
+            return new IntegrationResult(((IntegrableFdx) fn).integrate(lowerLimit, upperLimit), 0d, 0L);
+
+        Key key = new Key(fn, lowerLimit, upperLimit);
+        Tuning tuning = cache.get(key);
+        if (tuning != null) {
+            double value = rule.solve(fn, lowerLimit, upperLimit, tuning.iterations);
+            return new IntegrationResult(value, tuning.errorEstimate, rule.getEvaluations(tuning.iterations));
+        }
+
+        return tune(fn, lowerLimit, upperLimit, key);
+    }
+
+    /**
+     * Tune the number of iterations of a function and interval, cache it
+     * and solve the integral with it.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     * @param key        the key of the cache
+     *
+     * @return the result of the integral
+     */
+    private IntegrationResult tune(Fdx fn, double lowerLimit, double upperLimit, Key key) {
+        int modulus = rule.getModulus();
+        int order = rule.getConvergenceOrder();
+        double reduction = Math.pow(2, order) - 1;
+
+        int initial = INITIAL_MODULI * modulus;
+        int iterations = initial;
+        double previous = rule.solve(fn, lowerLimit, upperLimit, iterations);
+        long evaluations = rule.getEvaluations(iterations);
+        double value = previous;
+        double error = Double.POSITIVE_INFINITY;
+        double tolerance = 0d;
+
+        while (iterations <= maxIterations / 2) {
+            iterations *= 2;
+            value = rule.solve(fn, lowerLimit, upperLimit, iterations);
+            evaluations += rule.getEvaluations(iterations);
+            error = Math.abs(value - previous) / reduction;
+            tolerance = Math.max(absoluteTolerance, relativeTolerance * Math.abs(value));
+            if (error <= tolerance || Double.isNaN(error))
+                break;
+            previous = value;
+        }
+
+        if (error <= tolerance) {
+            double required = iterations * Math.pow(error / tolerance, 1d / order);
+            int chosen = Math.max(initial, (int) Math.ceil(required / modulus) * modulus);
+            if (chosen < iterations) {
+                error *= Math.pow((double) iterations / chosen, order);
+                iterations = chosen;
+                value = rule.solve(fn, lowerLimit, upperLimit, iterations);
+                evaluations += rule.getEvaluations(iterations);
+            }
+        }
+
+        if (cache.size() >= CACHE_SIZE)
+            cache.clear();
+        cache.put(key, new Tuning(iterations, error));
+        return new IntegrationResult(value, error, evaluations);
+    }
+
+    /**
+     * The key of the cache, a function and an interval.
+     */
+    private static final class Key {
+
+        final Fdx function;
+
+        final double lowerLimit;
+
+        final double upperLimit;
+
+        Key(Fdx function, double lowerLimit, double upperLimit) {
+            this.function = function;
+            this.lowerLimit = lowerLimit;
+            this.upperLimit = upperLimit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return Double.compare(key.lowerLimit, lowerLimit) == 0
+                    && Double.compare(key.upperLimit, upperLimit) == 0
+                    && function.equals(key.function);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = function.hashCode();
+            result = 31 * result + Double.hashCode(lowerLimit);
+            result = 31 * result + Double.hashCode(upperLimit);
+            return result;
+        }
+
+    }
+
+    /**
+     * The tuned number of iterations and the error estimate of its result.
+     */
+    private static final class Tuning {
+
+        final int iterations;
+
+        final double errorEstimate;
+
+        Tuning(int iterations, double errorEstimate) {
+            this.iterations = iterations;
+            this.errorEstimate = errorEstimate;
+        }
+
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+/**
+ * Represents a function {@code f(x)} that is calculated over an array
+ * of real variables at once.
+ * <p>
+ * The {@link NumericalIntegration} rules detect this type and evaluate
+ * the abscissas in blocks of {@link NumericalIntegration#BLOCK_SIZE}
+ * values, instead of calling {@link #calculate(double)} once per abscissa.
+ * <p>
+ * This is a <a href="package-summary.html">functional interface</a>
+ * whose functional method is {@link #calculate(double[], double[], int)}.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @since 1.8
+ */
+@FunctionalInterface
+public interface BulkFdx extends Fdx {
+
+    /**
+     * Calculate the results of the function for the first {@code length}
+     * values of {@code x} and store them in {@code fx}.
+     *
+     * @param x      the {@code x} real variables
+     * @param fx     the array where the function results are stored
+     * @param length the number of values to calculate
+     */
+    void calculate(double[] x, double[] fx, int length);
+
+    /**
+     * Calculate the result of the function for a single value.
+     *
+     * @param x the {@code x} real variable
+     *
+     * @return the function result
+     */
+    @Override
+    default double calculate(double x) {
+        double[] fx = new double[1];
+        calculate(new double[]{x}, fx, 1);
+        return fx[0];
+    }
+
+    /**
+     * Returns a {@link BulkFdx} that calculates each value with the given
+     * function. If the function is already a {@link BulkFdx} it is returned.
+     *
+     * @param function the function {@code f(x)}
+     *
+     * @return the bulk function
+     */
+    static BulkFdx of(Fdx function) {
+        if (function == null)
+            throw new NullPointerException("The function can't be null");
+        if (function instanceof BulkFdx)
+            return (BulkFdx) function;
+
+        return new BulkFdx() {
+            @Override
+            public void calculate(double[] x, double[] fx, int length) {
+                for (int i = 0; i < length; i++)
+                    fx[i] = function.calculate(x[i]);
+            }
+
+            @Override
+            public double calculate(double x) {
+                return function.calculate(x);
+            }
+        };
+    }
+
+}
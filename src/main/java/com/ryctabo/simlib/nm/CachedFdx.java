@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+/**
+ * The <strong>CachedFdx</strong> class represents a function {@code f(x)}
+ * that remembers the results of an expensive function, so an abscissa
+ * that was already calculated isn't calculated again.
+ * <p>
+ * The cache is bounded, when it is full the least recently used entries
+ * are evicted with the <i>CLOCK</i> algorithm. The keys are the exact
+ * bits of {@code x}, stored in primitive arrays.
+ * <p>
+ * This class is not thread-safe, use {@link ConcurrentCachedFdx} to share
+ * a cache between threads or with a parallel {@link NumericalIntegration}.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class CachedFdx implements Fdx {
+
+    /** The function {@code f(x)} of a real variable {@code x}. */
+    private final Fdx function;
+
+    /** The cache of the results. */
+    private final DoubleCache cache;
+
+    /** The number of results found in the cache. */
+    private long hits;
+
+    /** The number of results calculated by the function. */
+    private long misses;
+
+    /**
+     * Create an instance of {@link CachedFdx}.
+     *
+     * @param function the function {@code f(x)}
+     * @param capacity the maximum number of results in the cache
+     *
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public CachedFdx(Fdx function, int capacity) {
+        if (function == null)
+            throw new NullPointerException("The function can't be null");
+
+        this.function = function;
+        this.cache = new DoubleCache(capacity);
+    }
+
+    @Override
+    public double calculate(double x) {
+        long key = Double.doubleToRawLongBits(x);
+        int slot = cache.find(key);
+        if (slot >= 0) {
+            hits++;
+            return cache.value(slot);
+        }
+
+        misses++;
+        double value = function.calculate(x);
+        cache.put(key, value);
+        return value;
+    }
+
+    /**
+     * Get the function that is cached.
+     *
+     * @return the function
+     */
+    public Fdx getFunction() {
+        return function;
+    }
+
+    /**
+     * Get the maximum number of results in the cache.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return cache.capacity();
+    }
+
+    /**
+     * Get the number of results in the cache.
+     *
+     * @return the size
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Get the number of results found in the cache.
+     *
+     * @return the hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of results calculated by the function.
+     *
+     * @return the misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Remove all results of the cache, the counters are not reset.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+}
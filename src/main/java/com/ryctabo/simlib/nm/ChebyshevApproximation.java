@@ -0,0 +1,397 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.Arrays;
+
+/**
+ * The <strong>ChebyshevApproximation</strong> class represents a cheap
+ * surrogate of a function {@code f(x)} in an interval {@code [a, b]}, the
+ * expansion {@code sum c_k T_k(t)} in Chebyshev polynomials of the mapped
+ * variable {@code t = (2x - a - b) / (b - a)}.
+ * <p>
+ * The expansion is fitted with {@link #fit(Fdx, double, double)}, that
+ * samples the function at {@code n + 1} Chebyshev points for
+ * {@code n = 16, 32, 64, ...}, reusing the points of the previous {@code n},
+ * and calculates the coefficients with the
+ * {@link FastFourierTransform#cosineTransform(double[]) cosine transform}.
+ * When the last coefficients are negligible relative to the largest one,
+ * the expansion is chopped at the last coefficient that isn't negligible.
+ * For a smooth function this reaches the machine precision with a few
+ * dozens of coefficients.
+ * <p>
+ * The surrogate is evaluated with the Clenshaw recurrence, and it is
+ * integrated and differentiated in closed form on its coefficients, so the
+ * rules return its integral without sampling it. It is
+ * immutable, so it can be shared by any number of threads. Outside of the
+ * interval the expansion is extrapolated, which isn't reliable.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Chebyshev_polynomials">Chebyshev polynomials</a>
+ */
+public final class ChebyshevApproximation implements BulkFdx, IntegrableFdx {
+
+    /** The default tolerance of the coefficients relative to the largest one. */
+    public static final double DEFAULT_TOLERANCE = 1e-15;
+
+    /** The default maximum degree of the expansion. */
+    public static final int DEFAULT_MAX_DEGREE = 1 << 16;
+
+    /** The degree of the first expansion of the fit. */
+    private static final int INITIAL_DEGREE = 16;
+
+    /** The lower limit of the interval. */
+    private final double lowerLimit;
+
+    /** The upper limit of the interval. */
+    private final double upperLimit;
+
+    /** The coefficients {@code c_k} of the expansion. */
+    private final double[] coefficients;
+
+    /** Whether the fit reached the tolerance. */
+    private final boolean converged;
+
+    /** The number of evaluations of the function of the fit. */
+    private final long evaluations;
+
+    /** The antiderivative, calculated the first time it is needed. */
+    private volatile ChebyshevApproximation antiderivative;
+
+    /**
+     * Create an instance of {@link ChebyshevApproximation} from its
+     * coefficients.
+     *
+     * @param lowerLimit   the lower limit of the interval
+     * @param upperLimit   the upper limit of the interval
+     * @param coefficients the coefficients of the expansion
+     *
+     * @throws IllegalArgumentException if the limits aren't finite, the lower
+     *                                  limit isn't less than the upper limit
+     *                                  or there are no coefficients
+     */
+    public ChebyshevApproximation(double lowerLimit, double upperLimit, double[] coefficients) {
+        this(lowerLimit, upperLimit, coefficients.clone(), true, 0L);
+    }
+
+    private ChebyshevApproximation(double lowerLimit, double upperLimit, double[] coefficients,
+                                   boolean converged, long evaluations) {
+        validateInterval(lowerLimit, upperLimit);
+        if (coefficients.length == 0)
+            throw new IllegalArgumentException("The expansion needs at least one coefficient.");
+
+        this.lowerLimit = lowerLimit;
+        this.upperLimit = upperLimit;
+        this.coefficients = coefficients;
+        this.converged = converged;
+        this.evaluations = evaluations;
+    }
+
+    /**
+     * Fit the expansion of a function in an interval with the default
+     * tolerance and maximum degree.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of the interval
+     * @param upperLimit the upper limit of the interval
+     *
+     * @return the surrogate of the function
+     *
+     * @see #fit(Fdx, double, double, double, int)
+     */
+    public static ChebyshevApproximation fit(Fdx fn, double lowerLimit, double upperLimit) {
+        return fit(fn, lowerLimit, upperLimit, DEFAULT_TOLERANCE, DEFAULT_MAX_DEGREE);
+    }
+
+    /**
+     * Fit the expansion of a function in an interval, doubling the degree
+     * until the last coefficients are below the tolerance relative to the
+     * largest one, or the maximum degree is reached.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of the interval
+     * @param upperLimit the upper limit of the interval
+     * @param tolerance  the tolerance of the coefficients relative to the
+     *                   largest one
+     * @param maxDegree  the maximum degree, rounded down to a power of two
+     *
+     * @return the surrogate of the function
+     *
+     * @throws NullPointerException     if the function is null
+     * @throws IllegalArgumentException if the limits aren't finite, the lower
+     *                                  limit isn't less than the upper limit,
+     *                                  the tolerance isn't positive, the
+     *                                  maximum degree is less than 16 or the
+     *                                  function isn't finite at a point
+     */
+    public static ChebyshevApproximation fit(Fdx fn, double lowerLimit, double upperLimit,
+                                             double tolerance, int maxDegree) {
+        if (fn == null)
+            throw new NullPointerException("The function can't be null");
+        validateInterval(lowerLimit, upperLimit);
+        if (!(tolerance > 0))
+            throw new IllegalArgumentException("The tolerance has to be positive.");
+        if (maxDegree < INITIAL_DEGREE)
+            throw new IllegalArgumentException("The maximum degree can't be less than " + INITIAL_DEGREE + ".");
+
+        double center = (lowerLimit + upperLimit) / 2;
+        double radius = (upperLimit - lowerLimit) / 2;
+        int limit = Integer.highestOneBit(maxDegree);
+
+        int n = INITIAL_DEGREE;
+        double[] fx = new double[n + 1];
+        for (int j = 0; j <= n; j++)
+            fx[j] = sample(fn, ClenshawCurtisRule.abscissa(center, radius, j, n));
+        long evaluations = n + 1;
+
+        while (true) {
+            double[] coefficients = FastFourierTransform.cosineTransform(fx);
+            for (int k = 0; k <= n; k++)
+                coefficients[k] *= 2d / n;
+            coefficients[0] /= 2;
+            coefficients[n] /= 2;
+
+            int degree = chop(coefficients, tolerance);
+            if (degree >= 0)
+                return new ChebyshevApproximation(lowerLimit, upperLimit,
+                        Arrays.copyOf(coefficients, degree + 1), true, evaluations);
+            if (n >= limit)
+                return new ChebyshevApproximation(lowerLimit, upperLimit, coefficients, false, evaluations);
+
+            double[] refined = new double[2 * n + 1];
+            for (int j = 0; j <= n; j++)
+                refined[2 * j] = fx[j];
+            for (int j = 1; j < 2 * n; j += 2)
+                refined[j] = sample(fn, ClenshawCurtisRule.abscissa(center, radius, j, 2 * n));
+            evaluations += n;
+            fx = refined;
+            n *= 2;
+        }
+    }
+
+    /**
+     * Find the degree of a converged expansion, the last coefficient that
+     * isn't negligible, if the last eighth of the coefficients is.
+     *
+     * @param coefficients the coefficients of the expansion
+     * @param tolerance    the tolerance relative to the largest coefficient
+     *
+     * @return the degree, or {@code -1} if the expansion didn't converge
+     */
+    private static int chop(double[] coefficients, double tolerance) {
+        double scale = 0d;
+        for (double coefficient : coefficients)
+            scale = Math.max(scale, Math.abs(coefficient));
+        double threshold = tolerance * scale;
+
+        int n = coefficients.length - 1;
+        int degree = n;
+        while (degree > 0 && Math.abs(coefficients[degree]) <= threshold)
+            degree--;
+        return degree <= n - Math.max(2, n / 8) ? degree : -1;
+    }
+
+    private static double sample(Fdx fn, double x) {
+        double value = fn.calculate(x);
+        if (Double.isNaN(value) || Double.isInfinite(value))
+            throw new IllegalArgumentException("The function isn't finite at x = " + x + ".");
+        return value;
+    }
+
+    private static void validateInterval(double lowerLimit, double upperLimit) {
+        if (Double.isNaN(lowerLimit) || Double.isInfinite(lowerLimit)
+                || Double.isNaN(upperLimit) || Double.isInfinite(upperLimit))
+            throw new IllegalArgumentException("The limits have to be finite.");
+        if (!(lowerLimit < upperLimit))
+            throw new IllegalArgumentException("The lower limit has to be less than upper limit.");
+    }
+
+    /**
+     * Get the lower limit of the interval.
+     *
+     * @return the lower limit
+     */
+    public double getLowerLimit() {
+        return lowerLimit;
+    }
+
+    /**
+     * Get the upper limit of the interval.
+     *
+     * @return the upper limit
+     */
+    public double getUpperLimit() {
+        return upperLimit;
+    }
+
+    /**
+     * Get the degree of the expansion.
+     *
+     * @return the degree
+     */
+    public int getDegree() {
+        return coefficients.length - 1;
+    }
+
+    /**
+     * Get a copy of the coefficients of the expansion.
+     *
+     * @return the coefficients {@code c_0, ..., c_n}
+     */
+    public double[] getCoefficients() {
+        return coefficients.clone();
+    }
+
+    /**
+     * Whether the fit reached the tolerance before the maximum degree. An
+     * expansion created from its coefficients is always converged.
+     *
+     * @return {@code true} if the fit converged
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    /**
+     * Get the number of evaluations of the function of the fit.
+     *
+     * @return the number of evaluations, zero if the expansion was created
+     * from its coefficients
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    @Override
+    public double calculate(double x) {
+        double t = (2 * x - lowerLimit - upperLimit) / (upperLimit - lowerLimit);
+        double t2 = 2 * t;
+        double b1 = 0d;
+        double b2 = 0d;
+        for (int k = coefficients.length - 1; k > 0; k--) {
+            double b0 = coefficients[k] + t2 * b1 - b2;
+            b2 = b1;
+            b1 = b0;
+        }
+        return coefficients[0] + t * b1 - b2;
+    }
+
+    @Override
+    public void calculate(double[] x, double[] fx, int length) {
+        for (int i = 0; i < length; i++)
+            fx[i] = calculate(x[i]);
+    }
+
+    /**
+     * Calculate the integral of the expansion in the whole interval, with
+     * the integral {@code 2 / (1 - k^2)} of each even polynomial.
+     *
+     * @return the integral in {@code [a, b]}
+     */
+    public double integrate() {
+        double summation = 0d;
+        for (int k = 0; k < coefficients.length; k += 2)
+            summation += coefficients[k] * 2d / (1 - (double) k * k);
+        return (upperLimit - lowerLimit) / 2 * summation;
+    }
+
+    /**
+     * Calculate the integral of the expansion in {@code [lower, upper]},
+     * the difference of its antiderivative.
+     *
+     * @param lower the lower limit of the integral
+     * @param upper the upper limit of the integral
+     *
+     * @return the integral
+     *
+     * @see #antiderivative()
+     */
+    @Override
+    public double integrate(double lower, double upper) {
+        ChebyshevApproximation antiderivative = antiderivative();
+        return antiderivative.calculate(upper) - antiderivative.calculate(lower);
+    }
+
+    /**
+     * Get the antiderivative of the expansion that is zero at the lower
+     * limit, with the coefficients
+     * {@code C_k = (c_(k-1) - c_(k+1)) / 2k}, where {@code c_0} counts twice.
+     * It is calculated once and shared by the following calls.
+     *
+     * @return the antiderivative, of one degree more
+     */
+    public ChebyshevApproximation antiderivative() {
+        ChebyshevApproximation antiderivative = this.antiderivative;
+        if (antiderivative == null) {
+            antiderivative = calculateAntiderivative();
+            this.antiderivative = antiderivative;
+        }
+        return antiderivative;
+    }
+
+    private ChebyshevApproximation calculateAntiderivative() {
+        int n = coefficients.length;
+        double radius = (upperLimit - lowerLimit) / 2;
+        double[] integral = new double[n + 1];
+        for (int k = 1; k <= n; k++) {
+            double previous = k == 1 ? 2 * coefficients[0] : coefficients[k - 1];
+            double next = k + 1 < n ? coefficients[k + 1] : 0d;
+            integral[k] = radius * (previous - next) / (2 * k);
+        }
+
+        double atLowerLimit = 0d;
+        for (int k = 1; k <= n; k++)
+            atLowerLimit += k % 2 == 0 ? integral[k] : -integral[k];
+        integral[0] = -atLowerLimit;
+        return new ChebyshevApproximation(lowerLimit, upperLimit, integral, converged, 0L);
+    }
+
+    /**
+     * Get the derivative of the expansion, with the backward recurrence
+     * {@code c'_(k-1) = c'_(k+1) + 2k c_k}, where {@code c'_0} is halved.
+     *
+     * @return the derivative, of one degree less
+     */
+    public ChebyshevApproximation derivative() {
+        int n = coefficients.length - 1;
+        if (n == 0)
+            return new ChebyshevApproximation(lowerLimit, upperLimit, new double[]{0d}, converged, 0L);
+
+        double scale = 2 / (upperLimit - lowerLimit);
+        double[] derivative = new double[n];
+        for (int k = n; k >= 1; k--) {
+            double next = k + 1 < n ? derivative[k + 1] : 0d;
+            derivative[k - 1] = next + 2 * k * coefficients[k];
+        }
+        derivative[0] /= 2;
+        for (int k = 0; k < n; k++)
+            derivative[k] *= scale;
+        return new ChebyshevApproximation(lowerLimit, upperLimit, derivative, converged, 0L);
+    }
+
+    @Override
+    public String toString() {
+        return "ChebyshevApproximation{" +
+                "lowerLimit=" + lowerLimit +
+                ", upperLimit=" + upperLimit +
+                ", degree=" + getDegree() +
+                ", converged=" + converged +
+                '}';
+    }
+
+}
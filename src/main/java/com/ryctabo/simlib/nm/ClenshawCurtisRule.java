@@ -0,0 +1,304 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The <strong>ClenshawCurtisRule</strong> class represents to the
+ * implementation of the Clenshaw-Curtis quadrature for approximating
+ * to {@link DefiniteIntegral}.
+ * <p>
+ * The function is interpolated at the {@code n + 1} Chebyshev points
+ * {@code cos(pi j / n)} and the interpolating polynomial is integrated,
+ * so the error decreases exponentially for analytic functions. The weights
+ * of each {@code n} are calculated once in {@code O(n log n)} with the
+ * {@link FastFourierTransform#cosineTransform(double[]) cosine transform}
+ * of the integrals of the Chebyshev polynomials, and they are shared by
+ * all instances.
+ * <p>
+ * The points of {@code n} are a subset of the points of {@code 2n}, so
+ * each level doubles {@code n} evaluating only the new points, from
+ * {@code n = 4}. The method stops when two successive levels agree to the
+ * tolerance, after at least two levels, or when the maximum number of
+ * levels is reached. The limits are evaluated, so the function has to be
+ * finite in the closed interval.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Clenshaw%E2%80%93Curtis_quadrature">Clenshaw-Curtis quadrature</a>
+ */
+public class ClenshawCurtisRule implements RuleX {
+
+    /** The default maximum number of levels. */
+    public static final int DEFAULT_MAX_LEVELS = 14;
+
+    /** The number of intervals {@code n} of the first level. */
+    private static final int INITIAL_POINTS = 4;
+
+    /** The weights of each number of intervals. */
+    private static final ConcurrentMap<Integer, double[]> WEIGHTS = new ConcurrentHashMap<>();
+
+    /** The absolute tolerance of the result. */
+    private final double tolerance;
+
+    /** The maximum number of levels. */
+    private final int maxLevels;
+
+    /** The listener notified after each solve, {@code null} is disabled. */
+    private volatile IntegrationListener listener;
+
+    /**
+     * Create an instance of {@link ClenshawCurtisRule} with the default
+     * maximum number of levels.
+     *
+     * @param tolerance the absolute tolerance of the result
+     */
+    public ClenshawCurtisRule(double tolerance) {
+        this(tolerance, DEFAULT_MAX_LEVELS);
+    }
+
+    /**
+     * Create an instance of {@link ClenshawCurtisRule} from the given
+     * parameters. The last level has {@code 2^(maxLevels + 2) + 1} points.
+     *
+     * @param tolerance the absolute tolerance of the result
+     * @param maxLevels the maximum number of levels
+     *
+     * @throws IllegalArgumentException if the tolerance isn't positive or the
+     *                                  maximum number of levels isn't
+     *                                  between 1 and 24
+     */
+    public ClenshawCurtisRule(double tolerance, int maxLevels) {
+        if (!(tolerance > 0))
+            throw new IllegalArgumentException("The tolerance has to be positive.");
+        if (maxLevels < 1 || maxLevels > 24)
+            throw new IllegalArgumentException("The maximum number of levels has to be between 1 and 24.");
+
+        this.tolerance = tolerance;
+        this.maxLevels = maxLevels;
+    }
+
+    /**
+     * Get the absolute tolerance of the result.
+     *
+     * @return the tolerance
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Get the maximum number of levels.
+     *
+     * @return the maximum number of levels
+     */
+    public int getMaxLevels() {
+        return maxLevels;
+    }
+
+    /**
+     * Get the listener notified after each solve.
+     *
+     * @return the listener, or {@code null} if it is disabled
+     */
+    public IntegrationListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Set the listener notified after each solve.
+     *
+     * @param listener the listener, or {@code null} to disable it
+     */
+    public void setListener(IntegrationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Get the weights of the rule of {@code n} intervals in {@code [-1, 1]}
+     * from the cache, they are calculated the first time.
+     * <p>
+     * The weight of the point {@code j} is
+     * {@code c_j (2 / n) sum'' m_k cos(pi j k / n)}, where {@code m_k} is
+     * the integral of the Chebyshev polynomial {@code T_k}, {@code 2 / (1 - k^2)}
+     * for an even {@code k} and zero otherwise, and {@code c_j} halves the
+     * limits.
+     *
+     * @param n the number of intervals, a power of two
+     *
+     * @return the {@code n + 1} weights
+     */
+    static double[] weights(int n) {
+        return WEIGHTS.computeIfAbsent(n, intervals -> {
+            double[] moments = new double[intervals + 1];
+            for (int k = 0; k <= intervals; k += 2)
+                moments[k] = 2d / (1 - (double) k * k);
+
+            double[] weights = FastFourierTransform.cosineTransform(moments);
+            for (int j = 0; j <= intervals; j++)
+                weights[j] *= 2d / intervals;
+            weights[0] /= 2;
+            weights[intervals] /= 2;
+            return weights;
+        });
+    }
+
+    @Override
+    public double solve(DefiniteIntegral integral) {
+        return integrate(integral).getValue();
+    }
+
+    @Override
+    public double solve(Fdx fn, double lowerLimit, double upperLimit) {
+        return integrate(fn, lowerLimit, upperLimit).getValue();
+    }
+
+    /**
+     * Solve the definite integral and returns its value together with the
+     * error estimate and the number of evaluations of the function.
+     *
+     * @param integral Integral {@code f(x)} with an interval {@code [a,b]}.
+     *
+     * @return the result of the integral
+     */
+    public IntegrationResult integrate(DefiniteIntegral integral) {
+        return integrate(integral.getFunction(), integral.getLowerLimit(), integral.getUpperLimit());
+    }
+
+    /**
+     * Solve the integral of {@code f(x)} in the interval {@code [a,b]}
+     * without creating a {@link DefiniteIntegral}.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     *
+     * @return the result of the integral
+     *
+     * @throws IllegalArgumentException if the lower limit is greater than
+     *                                  upper limit.
+     */
+    public IntegrationResult integrate(Fdx fn, double lowerLimit, double upperLimit) {
+        DefiniteIntegral.validateLimits(lowerLimit, upperLimit);
+        IntegrationListener listener = this.listener;
+        if (listener == null)
+            return compute(fn, lowerLimit, upperLimit);
+
+        long start = System.nanoTime();
+        IntegrationResult result = compute(fn, lowerLimit, upperLimit);
+        long nanos = System.nanoTime() - start;
+        listener.onSolve(new IntegrationEvent(this, 0, Double.NaN,
+                result.getEvaluations(), nanos, result.getErrorEstimate()));
+        return result;
+    }
+
+    /**
+     * Solve the integral without notifying the listener.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     *
+     * @return the result of the integral
+     */
+    private IntegrationResult compute(Fdx fn, double lowerLimit, double upperLimit) {
+        if (fn instanceof IntegrableFdx)
+            return new IntegrationResult(((IntegrableFdx) fn).integrate(lowerLimit, upperLimit), 0d, 0L);
+        double center = (lowerLimit + upperLimit) / 2;
+        double radius = (upperLimit - lowerLimit) / 2;
+
+        int n = INITIAL_POINTS;
+        double[] fx = new double[n + 1];
+        for (int j = 0; j <= n; j++)
+            fx[j] = fn.calculate(abscissa(center, radius, j, n));
+        double value = radius * weightedSum(fx, n);
+        double error = Double.POSITIVE_INFINITY;
+
+        for (int level = 1; level <= maxLevels; level++) {
+            double[] refined = new double[2 * n + 1];
+            for (int j = 0; j <= n; j++)
+                refined[2 * j] = fx[j];
+            evaluateMidpoints(fn, center, radius, refined, 2 * n);
+            fx = refined;
+            n *= 2;
+
+            double previous = value;
+            value = radius * weightedSum(fx, n);
+            error = Math.abs(value - previous);
+            if (level > 1 && error <= tolerance)
+                break;
+        }
+        return new IntegrationResult(value, error, n + 1L);
+    }
+
+    /**
+     * Evaluate the function at the odd points of {@code n} intervals, the
+     * points that aren't in {@code n / 2} intervals. A {@link BulkFdx} is
+     * evaluated in blocks of {@link NumericalIntegration#BLOCK_SIZE} points.
+     *
+     * @param fn     the function {@code f(x)}
+     * @param center the center of the interval
+     * @param radius the half-length of the interval
+     * @param fx     the values of the function at the points
+     * @param n      the number of intervals
+     */
+    private static void evaluateMidpoints(Fdx fn, double center, double radius, double[] fx, int n) {
+        if (!(fn instanceof BulkFdx)) {
+            for (int j = 1; j < n; j += 2)
+                fx[j] = fn.calculate(abscissa(center, radius, j, n));
+            return;
+        }
+
+        BulkFdx bulk = (BulkFdx) fn;
+        int points = n / 2;
+        int block = Math.min(points, NumericalIntegration.BLOCK_SIZE);
+        double[] x = new double[block];
+        double[] values = new double[block];
+        for (int start = 0; start < points; start += block) {
+            int length = Math.min(block, points - start);
+            for (int i = 0; i < length; i++)
+                x[i] = abscissa(center, radius, 2 * (start + i) + 1, n);
+            bulk.calculate(x, values, length);
+            for (int i = 0; i < length; i++)
+                fx[2 * (start + i) + 1] = values[i];
+        }
+    }
+
+    /**
+     * Calculate the Chebyshev point {@code j} of {@code n} intervals mapped
+     * to the interval, {@code cos(pi j / n)} written as a sine so the points
+     * are symmetric.
+     */
+    static double abscissa(double center, double radius, int j, int n) {
+        return center + radius * Math.sin(Math.PI * (n - 2 * j) / (2 * n));
+    }
+
+    /**
+     * Calculate the sum of the values weighted by the weights of {@code n}
+     * intervals.
+     */
+    private static double weightedSum(double[] fx, int n) {
+        double[] weights = weights(n);
+        double summation = 0d;
+        for (int j = 0; j <= n; j++)
+            summation += weights[j] * fx[j];
+        return summation;
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The <strong>ConcurrentCachedFdx</strong> class represents a thread-safe
+ * {@link CachedFdx}.
+ * <p>
+ * The cache is split in segments, each one with its own lock, and the
+ * function is calculated outside of the lock. So two threads can calculate
+ * the same abscissa at the same time, but they never block each other
+ * while the function is calculated.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class ConcurrentCachedFdx implements Fdx {
+
+    /** The function {@code f(x)} of a real variable {@code x}. */
+    private final Fdx function;
+
+    /** The segments of the cache, each one is its own lock. */
+    private final DoubleCache[] segments;
+
+    /** The shift of the hash that selects the segment from its highest bits. */
+    private final int shift;
+
+    /** The number of results found in the cache. */
+    private final LongAdder hits = new LongAdder();
+
+    /** The number of results calculated by the function. */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Create an instance of {@link ConcurrentCachedFdx} with four segments
+     * for each processor.
+     *
+     * @param function the function {@code f(x)}
+     * @param capacity the maximum number of results in the cache
+     *
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public ConcurrentCachedFdx(Fdx function, int capacity) {
+        this(function, capacity, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create an instance of {@link ConcurrentCachedFdx}.
+     *
+     * @param function the function {@code f(x)}
+     * @param capacity the maximum number of results in the cache
+     * @param segments the number of segments, rounded up to a power of two
+     *
+     * @throws IllegalArgumentException if the capacity or the number of
+     *                                  segments is less than 1
+     */
+    public ConcurrentCachedFdx(Fdx function, int capacity, int segments) {
+        if (function == null)
+            throw new NullPointerException("The function can't be null");
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity can't be less than 1.");
+        if (segments < 1)
+            throw new IllegalArgumentException("The number of segments can't be less than 1.");
+
+        int count = Math.min(Integer.highestOneBit(Math.min(segments, 1 << 16) * 2 - 1),
+                Integer.highestOneBit(capacity));
+
+        this.function = function;
+        this.segments = new DoubleCache[count];
+        this.shift = 32 - Integer.numberOfTrailingZeros(count);
+        for (int i = 0; i < count; i++)
+            this.segments[i] = new DoubleCache(capacity / count + (i < capacity % count ? 1 : 0));
+    }
+
+    @Override
+    public double calculate(double x) {
+        long key = Double.doubleToRawLongBits(x);
+        DoubleCache segment = segments[(DoubleCache.hash(key) >>> shift) & (segments.length - 1)];
+
+        synchronized (segment) {
+            int slot = segment.find(key);
+            if (slot >= 0) {
+                hits.increment();
+                return segment.value(slot);
+            }
+        }
+
+        misses.increment();
+        double value = function.calculate(x);
+        synchronized (segment) {
+            if (segment.find(key) < 0)
+                segment.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Get the function that is cached.
+     *
+     * @return the function
+     */
+    public Fdx getFunction() {
+        return function;
+    }
+
+    /**
+     * Get the maximum number of results in the cache, the capacity of the
+     * constructor split across the segments.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        int capacity = 0;
+        for (DoubleCache segment : segments)
+            capacity += segment.capacity();
+        return capacity;
+    }
+
+    /**
+     * Get the number of results in the cache.
+     *
+     * @return the size
+     */
+    public int size() {
+        int size = 0;
+        for (DoubleCache segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Get the number of results found in the cache.
+     *
+     * @return the hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of results calculated by the function.
+     *
+     * @return the misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Remove all results of the cache, the counters are not reset.
+     */
+    public void clear() {
+        for (DoubleCache segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+}
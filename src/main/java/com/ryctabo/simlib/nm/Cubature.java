@@ -0,0 +1,221 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The <strong>Cubature</strong> class represents the integration of
+ * functions of two and three real variables, as iterated integrals of
+ * one-dimensional rules. The {@code x} variable goes from {@code a} to
+ * {@code b}, the {@code y} variable from {@code c(x)} to {@code d(x)} and
+ * the {@code z} variable from {@code e(x, y)} to {@code f(x, y)}.
+ * <p>
+ * In a rectangular region the limits are constants and the result is the
+ * tensor product of the rules, for example {@code n x m} points of the
+ * trapezoidal rule. The limits that are functions describe regions bounded
+ * by curves and surfaces.
+ * <p>
+ * Each abscissa of the outer dimension costs a whole solve of the inner
+ * dimensions, so when a pool is assigned with {@link #setPool(ForkJoinPool)}
+ * the outer abscissas of a {@link NumericalIntegration} rule are evaluated
+ * in parallel, in the blocks of its {@link BulkFdx} path. The result is the
+ * same of the sequential solve.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Multiple_integral">Multiple integral</a>
+ */
+public class Cubature {
+
+    /** The rule of the {@code x} dimension, the outer dimension. */
+    private final RuleX xRule;
+
+    /** The rule of the {@code y} dimension. */
+    private final RuleX yRule;
+
+    /** The rule of the {@code z} dimension. */
+    private final RuleX zRule;
+
+    /** The pool used to solve the outer dimension in parallel, {@code null} is sequential. */
+    private volatile ForkJoinPool pool;
+
+    /**
+     * Create an instance of {@link Cubature} with a rule for the outer
+     * dimension and a rule for the inner dimensions.
+     *
+     * @param xRule     the rule of the {@code x} dimension
+     * @param innerRule the rule of the {@code y} and {@code z} dimensions
+     */
+    public Cubature(RuleX xRule, RuleX innerRule) {
+        this(xRule, innerRule, innerRule);
+    }
+
+    /**
+     * Create an instance of {@link Cubature} with a rule for each dimension.
+     *
+     * @param xRule the rule of the {@code x} dimension
+     * @param yRule the rule of the {@code y} dimension
+     * @param zRule the rule of the {@code z} dimension
+     *
+     * @throws NullPointerException if a rule is null
+     */
+    public Cubature(RuleX xRule, RuleX yRule, RuleX zRule) {
+        if (xRule == null || yRule == null || zRule == null)
+            throw new NullPointerException("The rules can't be null");
+        this.xRule = xRule;
+        this.yRule = yRule;
+        this.zRule = zRule;
+    }
+
+    /**
+     * Get the pool used to solve the outer dimension in parallel.
+     *
+     * @return the pool, or {@code null} if the solve is sequential
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Set the pool used to solve the outer dimension in parallel.
+     *
+     * @param pool the pool, or {@code null} to solve sequentially
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Solve the integral of {@code f(x, y)} in the rectangle
+     * {@code [a, b] x [c, d]}.
+     *
+     * @param fn the function {@code f(x, y)}
+     * @param a  the lower limit of {@code x}
+     * @param b  the upper limit of {@code x}
+     * @param c  the lower limit of {@code y}
+     * @param d  the upper limit of {@code y}
+     *
+     * @return the result of the integral
+     *
+     * @throws IllegalArgumentException if a lower limit is greater than its
+     *                                  upper limit
+     */
+    public double solve(Fdxy fn, double a, double b, double c, double d) {
+        DefiniteIntegral.validateLimits(c, d);
+        return solve(fn, a, b, x -> c, x -> d);
+    }
+
+    /**
+     * Solve the integral of {@code f(x, y)} in the region bounded by
+     * {@code a <= x <= b} and {@code c(x) <= y <= d(x)}.
+     *
+     * @param fn the function {@code f(x, y)}
+     * @param a  the lower limit of {@code x}
+     * @param b  the upper limit of {@code x}
+     * @param c  the lower limit of {@code y}, a function of {@code x}
+     * @param d  the upper limit of {@code y}, a function of {@code x}
+     *
+     * @return the result of the integral
+     *
+     * @throws IllegalArgumentException if a lower limit is greater than its
+     *                                  upper limit
+     */
+    public double solve(Fdxy fn, double a, double b, Fdx c, Fdx d) {
+        RuleX yRule = this.yRule;
+        Fdx outer = x -> yRule.solve(y -> fn.calculate(x, y), c.calculate(x), d.calculate(x));
+        return xRule.solve(parallel(outer), a, b);
+    }
+
+    /**
+     * Solve the integral of {@code f(x, y, z)} in the box
+     * {@code [a, b] x [c, d] x [e, f]}.
+     *
+     * @param fn the function {@code f(x, y, z)}
+     * @param a  the lower limit of {@code x}
+     * @param b  the upper limit of {@code x}
+     * @param c  the lower limit of {@code y}
+     * @param d  the upper limit of {@code y}
+     * @param e  the lower limit of {@code z}
+     * @param f  the upper limit of {@code z}
+     *
+     * @return the result of the integral
+     *
+     * @throws IllegalArgumentException if a lower limit is greater than its
+     *                                  upper limit
+     */
+    public double solve(Fdxyz fn, double a, double b, double c, double d, double e, double f) {
+        DefiniteIntegral.validateLimits(c, d);
+        DefiniteIntegral.validateLimits(e, f);
+        return solve(fn, a, b, x -> c, x -> d, (x, y) -> e, (x, y) -> f);
+    }
+
+    /**
+     * Solve the integral of {@code f(x, y, z)} in the region bounded by
+     * {@code a <= x <= b}, {@code c(x) <= y <= d(x)} and
+     * {@code e(x, y) <= z <= f(x, y)}.
+     *
+     * @param fn the function {@code f(x, y, z)}
+     * @param a  the lower limit of {@code x}
+     * @param b  the upper limit of {@code x}
+     * @param c  the lower limit of {@code y}, a function of {@code x}
+     * @param d  the upper limit of {@code y}, a function of {@code x}
+     * @param e  the lower limit of {@code z}, a function of {@code x} and {@code y}
+     * @param f  the upper limit of {@code z}, a function of {@code x} and {@code y}
+     *
+     * @return the result of the integral
+     *
+     * @throws IllegalArgumentException if a lower limit is greater than its
+     *                                  upper limit
+     */
+    public double solve(Fdxyz fn, double a, double b, Fdx c, Fdx d, Fdxy e, Fdxy f) {
+        RuleX yRule = this.yRule;
+        RuleX zRule = this.zRule;
+        Fdx outer = x -> yRule.solve(
+                y -> zRule.solve(z -> fn.calculate(x, y, z), e.calculate(x, y), f.calculate(x, y)),
+                c.calculate(x), d.calculate(x));
+        return xRule.solve(parallel(outer), a, b);
+    }
+
+    /**
+     * Returns the function of the outer dimension that evaluates the blocks
+     * of abscissas in the assigned pool, or the same function if the solve
+     * is sequential.
+     *
+     * @param outer the function of the outer dimension
+     *
+     * @return the function used by the rule of the outer dimension
+     */
+    private Fdx parallel(Fdx outer) {
+        ForkJoinPool pool = this.pool;
+        if (pool == null)
+            return outer;
+
+        return new BulkFdx() {
+            @Override
+            public void calculate(double[] x, double[] fx, int length) {
+                ParallelChunks.forEach(pool, length, i -> fx[i] = outer.calculate(x[i]));
+            }
+
+            @Override
+            public double calculate(double x) {
+                return outer.calculate(x);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The <strong>CumulativeIntegral</strong> class represents the table of
+ * the integral of a function {@code f(x)} from {@code a} to each point of
+ * a fixed grid of {@code [a, b]}.
+ * <p>
+ * The table is built once with the trapezoidal rule and stored as a prefix
+ * sum, then the integral of any subinterval of {@code [a, b]} is answered
+ * in constant time, interpolating the function linearly inside a panel.
+ * The queries at the grid points are equal to the {@link TrapezoidalRule}
+ * with the same step size.
+ * <p>
+ * Instances are immutable, so they can be queried by any number of threads.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class CumulativeIntegral {
+
+    /** The lower limit of the table. */
+    private final double lowerLimit;
+
+    /** The upper limit of the table. */
+    private final double upperLimit;
+
+    /** The number of panels of the grid. */
+    private final int iterations;
+
+    /** The step size of the grid. */
+    private final double stepSize;
+
+    /** The values of the function in each point of the grid. */
+    private final double[] values;
+
+    /** The integral from the lower limit to each point of the grid. */
+    private final double[] prefix;
+
+    /**
+     * Create an instance of {@link CumulativeIntegral}, the table is
+     * built sequentially.
+     *
+     * @param integral   Integral {@code f(x)} with an interval {@code [a,b]}.
+     * @param iterations number of panels of the grid
+     *
+     * @throws IllegalArgumentException if the number of iterations is less
+     *                                  than 1
+     */
+    public CumulativeIntegral(DefiniteIntegral integral, int iterations) {
+        this(integral, iterations, null);
+    }
+
+    /**
+     * Create an instance of {@link CumulativeIntegral}, the table is
+     * built in parallel in the given pool.
+     *
+     * @param integral   Integral {@code f(x)} with an interval {@code [a,b]}.
+     * @param iterations number of panels of the grid
+     * @param pool       the pool, or {@code null} to build the table sequentially
+     *
+     * @throws IllegalArgumentException if the number of iterations is less
+     *                                  than 1
+     */
+    public CumulativeIntegral(DefiniteIntegral integral, int iterations, ForkJoinPool pool) {
+        if (iterations < 1)
+            throw new IllegalArgumentException("The number of iterations can't be less than 1.");
+
+        this.lowerLimit = integral.getLowerLimit();
+        this.upperLimit = integral.getUpperLimit();
+        this.iterations = iterations;
+        this.stepSize = (upperLimit - lowerLimit) / iterations;
+        this.values = new double[iterations + 1];
+        this.prefix = new double[iterations + 1];
+        build(integral.getFunction(), pool);
+    }
+
+    /**
+     * Get the lower limit of the table.
+     *
+     * @return the lower limit
+     */
+    public double getLowerLimit() {
+        return lowerLimit;
+    }
+
+    /**
+     * Get the upper limit of the table.
+     *
+     * @return the upper limit
+     */
+    public double getUpperLimit() {
+        return upperLimit;
+    }
+
+    /**
+     * Get the number of panels of the grid.
+     *
+     * @return number of iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Returns the integral of the function from the lower limit of the
+     * table to {@code x}.
+     *
+     * @param x a point of the interval {@code [a, b]}
+     *
+     * @return the integral from {@code a} to {@code x}
+     *
+     * @throws IllegalArgumentException if {@code x} is out of the interval
+     */
+    public double valueAt(double x) {
+        if (!(lowerLimit <= x && x <= upperLimit))
+            throw new IllegalArgumentException("The value is out of the interval of the table.");
+        if (x == upperLimit)
+            return prefix[iterations];
+
+        int i = Math.min((int) ((x - lowerLimit) / stepSize), iterations - 1);
+        double t = x - (lowerLimit + i * stepSize);
+        double slope = (values[i + 1] - values[i]) / stepSize;
+        return prefix[i] + t * (values[i] + slope * t / 2);
+    }
+
+    /**
+     * Returns the integral of the function from {@code x1} to {@code x2}.
+     *
+     * @param x1 the lower limit of the subinterval
+     * @param x2 the upper limit of the subinterval
+     *
+     * @return the integral of the subinterval
+     *
+     * @throws IllegalArgumentException if the lower limit is greater than
+     *                                  upper limit, or the subinterval is
+     *                                  out of the interval of the table
+     */
+    public double integrate(double x1, double x2) {
+        if (x2 < x1)
+            throw new IllegalArgumentException("The lower limit can't be greater than upper limit.");
+        return valueAt(x2) - valueAt(x1);
+    }
+
+    /**
+     * Build the values and the prefix sum of the table. In parallel, the
+     * grid is split in chunks: the values of the chunks are calculated and
+     * summed independently, and then each chunk is shifted with the sum of
+     * the previous chunks.
+     *
+     * @param fn   the function {@code f(x)}
+     * @param pool the pool, or {@code null} to build the table sequentially
+     */
+    private void build(Fdx fn, ForkJoinPool pool) {
+        int size = pool == null ? iterations + 1 : NumericalIntegration.DEFAULT_THRESHOLD;
+        int chunks = (iterations + size) / size;
+        double[] totals = new double[chunks];
+
+        ParallelChunks.forEach(pool, chunks, c -> {
+            int from = c * size;
+            int to = Math.min(from + size, iterations + 1);
+            for (int i = from; i < to; i++)
+                values[i] = i == iterations ? fn.calculate(upperLimit) : fn.calculate(lowerLimit + i * stepSize);
+        });
+        ParallelChunks.forEach(pool, chunks, c -> {
+            int from = Math.max(1, c * size);
+            int to = Math.min(c * size + size, iterations + 1);
+            double summation = 0d;
+            for (int i = from; i < to; i++) {
+                summation += stepSize / 2 * (values[i - 1] + values[i]);
+                prefix[i] = summation;
+            }
+            totals[c] = summation;
+        });
+
+        for (int c = 1; c < chunks; c++)
+            totals[c] += totals[c - 1];
+
+        ParallelChunks.forEach(pool, chunks, c -> {
+            if (c == 0) return;
+            int from = c * size;
+            int to = Math.min(from + size, iterations + 1);
+            for (int i = from; i < to; i++)
+                prefix[i] += totals[c - 1];
+        });
+    }
+
+}
@@ -62,7 +62,7 @@ public class DefiniteIntegral {
      * @throws IllegalArgumentException if the lower limit is greater than
      *                                  upper limit.
      */
-    private void validateLimits(double lowerLimit, double upperLimit) {
+    static void validateLimits(double lowerLimit, double upperLimit) {
         if (upperLimit < lowerLimit) {
             throw new IllegalArgumentException("The lower limit can't " +
                     "be greater than upper limit.");
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.Arrays;
+
+/**
+ * The <strong>DoubleCache</strong> class represents a bounded map from the
+ * bits of a {@code double} key to a {@code double} value, stored in primitive
+ * arrays so the keys and values are never boxed.
+ * <p>
+ * The entries are stored in slots and indexed with an open addressing
+ * table. When the cache is full, the victim is chosen with the
+ * <i>CLOCK</i> algorithm, an approximation of the least recently used.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Page_replacement_algorithm#Clock">CLOCK</a>
+ */
+final class DoubleCache {
+
+    /** The key of each slot. */
+    private final long[] keys;
+
+    /** The value of each slot. */
+    private final double[] values;
+
+    /** The reference bit of each slot. */
+    private final boolean[] referenced;
+
+    /** The open addressing table, it stores the slot plus one or zero if empty. */
+    private final int[] table;
+
+    /** The number of used slots. */
+    private int size;
+
+    /** The hand of the clock. */
+    private int hand;
+
+    /**
+     * Create an instance of {@link DoubleCache}.
+     *
+     * @param capacity the maximum number of entries
+     *
+     * @throws IllegalArgumentException if the capacity is less than 1 or
+     *                                  too large
+     */
+    DoubleCache(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity can't be less than 1.");
+        if (capacity > 1 << 28)
+            throw new IllegalArgumentException("The capacity is too large.");
+
+        this.keys = new long[capacity];
+        this.values = new double[capacity];
+        this.referenced = new boolean[capacity];
+        this.table = new int[Integer.highestOneBit(capacity) << 2];
+    }
+
+    /**
+     * Get the maximum number of entries.
+     *
+     * @return the capacity
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return the size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Find the slot of the given key.
+     *
+     * @param key the bits of the key
+     *
+     * @return the slot, or {@code -1} if the key isn't in the cache
+     */
+    int find(long key) {
+        int mask = table.length - 1;
+        for (int i = hash(key) & mask; table[i] != 0; i = (i + 1) & mask) {
+            int slot = table[i] - 1;
+            if (keys[slot] == key)
+                return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the value of a slot and mark it as referenced.
+     *
+     * @param slot the slot
+     *
+     * @return the value
+     */
+    double value(int slot) {
+        referenced[slot] = true;
+        return values[slot];
+    }
+
+    /**
+     * Put a key that isn't in the cache, evicting an entry if it is full.
+     *
+     * @param key   the bits of the key
+     * @param value the value
+     */
+    void put(long key, double value) {
+        int slot;
+        if (size < keys.length) {
+            slot = size++;
+        } else {
+            while (referenced[hand]) {
+                referenced[hand] = false;
+                hand = (hand + 1) % keys.length;
+            }
+            slot = hand;
+            hand = (hand + 1) % keys.length;
+            remove(keys[slot]);
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        referenced[slot] = false;
+
+        int mask = table.length - 1;
+        int i = hash(key) & mask;
+        while (table[i] != 0)
+            i = (i + 1) & mask;
+        table[i] = slot + 1;
+    }
+
+    /**
+     * Remove all entries.
+     */
+    void clear() {
+        Arrays.fill(table, 0);
+        Arrays.fill(referenced, false);
+        size = 0;
+        hand = 0;
+    }
+
+    /**
+     * Remove a key from the open addressing table, shifting back the
+     * entries of the same cluster.
+     *
+     * @param key the bits of the key
+     */
+    private void remove(long key) {
+        int mask = table.length - 1;
+        int i = hash(key) & mask;
+        while (keys[table[i] - 1] != key)
+            i = (i + 1) & mask;
+
+        for (int j = (i + 1) & mask; table[j] != 0; j = (j + 1) & mask) {
+            int home = hash(keys[table[j] - 1]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                table[i] = table[j];
+                i = j;
+            }
+        }
+        table[i] = 0;
+    }
+
+    /**
+     * Spread the bits of a key.
+     *
+     * @param key the bits of the key
+     *
+     * @return the hash of the key
+     */
+    static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The <strong>FastFourierTransform</strong> class calculates the discrete
+ * Fourier transform of arrays of a power of two length in
+ * {@code O(n log n)}, with the iterative radix-2 Cooley-Tukey algorithm.
+ * <p>
+ * The complex values are stored in two arrays of primitives, the real and
+ * the imaginary parts, and they are transformed in place. The twiddle
+ * factors of each length are calculated once and shared by all calls.
+ * <p>
+ * The discrete cosine transform of type I, the real-to-real transform of
+ * the Chebyshev coefficients and the Clenshaw-Curtis weights, is calculated
+ * with the transform of the even extension of its values.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Cooley%E2%80%93Tukey_FFT_algorithm">Cooley-Tukey FFT algorithm</a>
+ */
+public final class FastFourierTransform {
+
+    /** The twiddle factors of each length, the cosines followed by the sines. */
+    private static final ConcurrentMap<Integer, double[]> TWIDDLES = new ConcurrentHashMap<>();
+
+    private FastFourierTransform() {
+    }
+
+    /**
+     * Calculate in place the forward transform
+     * {@code X[k] = sum x[j] * exp(-2 pi i j k / n)}.
+     *
+     * @param real      the real parts
+     * @param imaginary the imaginary parts
+     *
+     * @throws IllegalArgumentException if the arrays have different
+     *                                  lengths or the length isn't a power
+     *                                  of two
+     */
+    public static void transform(double[] real, double[] imaginary) {
+        transform(real, imaginary, false);
+    }
+
+    /**
+     * Calculate in place the inverse transform
+     * {@code x[j] = sum X[k] * exp(2 pi i j k / n) / n}.
+     *
+     * @param real      the real parts
+     * @param imaginary the imaginary parts
+     *
+     * @throws IllegalArgumentException if the arrays have different
+     *                                  lengths or the length isn't a power
+     *                                  of two
+     */
+    public static void inverseTransform(double[] real, double[] imaginary) {
+        transform(real, imaginary, true);
+        int n = real.length;
+        for (int i = 0; i < n; i++) {
+            real[i] /= n;
+            imaginary[i] /= n;
+        }
+    }
+
+    /**
+     * Calculate the discrete cosine transform of type I of {@code n + 1}
+     * values, where {@code n} is a power of two:
+     * <pre>
+     * X[k] = (x[0] + (-1)^k x[n]) / 2 + sum x[j] cos(pi j k / n), 0 &lt; j &lt; n
+     * </pre>
+     * The transform is its own inverse up to the factor {@code 2 / n}.
+     *
+     * @param values the {@code n + 1} values
+     *
+     * @return the {@code n + 1} transformed values
+     *
+     * @throws IllegalArgumentException if the number of values minus one
+     *                                  isn't a power of two
+     */
+    public static double[] cosineTransform(double[] values) {
+        int n = values.length - 1;
+        if (n < 1 || Integer.bitCount(n) != 1)
+            throw new IllegalArgumentException("The number of values has to be a power of two plus one.");
+
+        double[] real = new double[2 * n];
+        double[] imaginary = new double[2 * n];
+        System.arraycopy(values, 0, real, 0, n + 1);
+        for (int j = 1; j < n; j++)
+            real[2 * n - j] = values[j];
+        transform(real, imaginary, false);
+
+        double[] result = new double[n + 1];
+        for (int k = 0; k <= n; k++)
+            result[k] = real[k] / 2;
+        return result;
+    }
+
+    /**
+     * Calculate in place the forward or inverse transform, without the
+     * scale of the inverse.
+     *
+     * @param real      the real parts
+     * @param imaginary the imaginary parts
+     * @param inverse   whether the exponent is positive
+     */
+    private static void transform(double[] real, double[] imaginary, boolean inverse) {
+        int n = real.length;
+        if (imaginary.length != n)
+            throw new IllegalArgumentException("The real and imaginary parts have to have the same length.");
+        if (n == 0 || Integer.bitCount(n) != 1)
+            throw new IllegalArgumentException("The length has to be a power of two.");
+        if (n == 1)
+            return;
+
+        int shift = Integer.numberOfLeadingZeros(n) + 1;
+        for (int i = 0; i < n; i++) {
+            int j = Integer.reverse(i) >>> shift;
+            if (j > i) {
+                double temp = real[i];
+                real[i] = real[j];
+                real[j] = temp;
+                temp = imaginary[i];
+                imaginary[i] = imaginary[j];
+                imaginary[j] = temp;
+            }
+        }
+
+        double[] twiddles = twiddles(n);
+        int half = n / 2;
+        double sign = inverse ? 1d : -1d;
+        for (int size = 2; size <= n; size *= 2) {
+            int middle = size / 2;
+            int stride = n / size;
+            for (int start = 0; start < n; start += size) {
+                for (int k = 0; k < middle; k++) {
+                    double cos = twiddles[k * stride];
+                    double sin = sign * twiddles[half + k * stride];
+                    int even = start + k;
+                    int odd = even + middle;
+                    double oddReal = real[odd] * cos - imaginary[odd] * sin;
+                    double oddImaginary = real[odd] * sin + imaginary[odd] * cos;
+                    real[odd] = real[even] - oddReal;
+                    imaginary[odd] = imaginary[even] - oddImaginary;
+                    real[even] += oddReal;
+                    imaginary[even] += oddImaginary;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the twiddle factors of the given length from the cache, they are
+     * calculated the first time.
+     *
+     * @param n the length of the transform
+     *
+     * @return the {@code n / 2} values of {@code cos(2 pi k / n)} followed
+     * by the {@code n / 2} values of {@code sin(2 pi k / n)}
+     */
+    private static double[] twiddles(int n) {
+        return TWIDDLES.computeIfAbsent(n, length -> {
+            int half = length / 2;
+            double[] twiddles = new double[length];
+            for (int k = 0; k < half; k++) {
+                double angle = 2 * Math.PI * k / length;
+                twiddles[k] = Math.cos(angle);
+                twiddles[half + k] = Math.sin(angle);
+            }
+            return twiddles;
+        });
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+/**
+ * Represents a function {@code f(x, y)} of two real variables that
+ * produces a result.
+ * <p>
+ * <strong>For example:</strong>
+ * <p>
+ * <i>f(x, y) = x y</i> is equal to {@code (x, y) -> x * y}
+ * <p><p>
+ * This is a <a href="package-summary.html">functional interface</a>
+ * whose functional method is {@link #calculate(double, double)}.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see Cubature
+ * @since 1.8
+ */
+@FunctionalInterface
+public interface Fdxy {
+
+    /**
+     * Calculate the result of the function provided.
+     *
+     * @param x the {@code x} real variable
+     * @param y the {@code y} real variable
+     *
+     * @return the function result
+     */
+    double calculate(double x, double y);
+
+}
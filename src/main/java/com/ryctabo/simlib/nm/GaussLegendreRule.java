@@ -0,0 +1,265 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The <strong>GaussLegendreRule</strong> class represents to the
+ * implementation of the Gauss-Legendre quadrature for approximating
+ * to {@link DefiniteIntegral}.
+ * <p>
+ * The interval {@code [a, b]} is divided in {@code (n)} panels, the number
+ * of iterations, and the {@code m}-point rule is applied to each panel. An
+ * {@code m}-point rule is exact for polynomials of degree {@code 2m - 1}.
+ * <p>
+ * The nodes and weights of each order are calculated once, with the Newton's
+ * method on the Legendre polynomials, and they are shared by all instances.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Gaussian_quadrature">Gaussian quadrature</a>
+ */
+public class GaussLegendreRule extends NumericalIntegration {
+
+    /** The nodes and weights of each order. */
+    private static final ConcurrentMap<Integer, Nodes> CACHE = new ConcurrentHashMap<>();
+
+    /** The nodes and weights of this rule. */
+    private final Nodes nodes;
+
+    /**
+     * Create an instance of {@link GaussLegendreRule} that applies the
+     * rule to the whole interval.
+     *
+     * @param order the number of points of the rule
+     */
+    public GaussLegendreRule(int order) {
+        this(order, 1);
+    }
+
+    /**
+     * Create an instance of {@link GaussLegendreRule} that applies the
+     * rule to each panel of the interval.
+     *
+     * @param order  the number of points of the rule
+     * @param panels the number of panels, the number of iterations
+     *
+     * @throws IllegalArgumentException if the order is less than 1
+     */
+    public GaussLegendreRule(int order, int panels) {
+        super(panels);
+        this.nodes = nodes(order);
+    }
+
+    /**
+     * Get the number of points of the rule.
+     *
+     * @return the order
+     */
+    public int getOrder() {
+        return nodes.abscissas.length;
+    }
+
+    /**
+     * Get the nodes and weights of the given order from the cache, they
+     * are calculated the first time.
+     *
+     * @param order the number of points of the rule
+     *
+     * @return the nodes and weights
+     *
+     * @throws IllegalArgumentException if the order is less than 1
+     */
+    static Nodes nodes(int order) {
+        if (order < 1)
+            throw new IllegalArgumentException("The order can't be less than 1.");
+        return CACHE.computeIfAbsent(order, Nodes::new);
+    }
+
+    /**
+     * Implementation of {@link GaussLegendreRule} method.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     * @param iterations number of iterations
+     * @param stepSize   step size
+     *
+     * @return {@code double} value, result of applying the implementation
+     * of Gauss-Legendre quadrature.
+     */
+    @Override
+    protected double solveImplementation(Fdx fn, double lowerLimit, double upperLimit,
+                                         int iterations, double stepSize) {
+        double summation = summation(fn, lowerLimit, stepSize, 0, iterations);
+        return stepSize / 2 * summation;
+    }
+
+    @Override
+    protected void solveImplementation(VectorFdx fn, double lowerLimit, double upperLimit,
+                                       int iterations, double stepSize, double[] result) {
+        double[] summation = summation(fn, lowerLimit, stepSize, 0, iterations, result.length);
+        for (int j = 0; j < result.length; j++)
+            result[j] = stepSize / 2 * summation[j];
+    }
+
+    /**
+     * The error decreases as {@code h^2m} for an {@code m}-point rule.
+     */
+    @Override
+    protected int getConvergenceOrder() {
+        return 2 * nodes.abscissas.length;
+    }
+
+    /**
+     * Get the number of evaluations of a solve, the order by each panel.
+     */
+    @Override
+    protected long getEvaluations(int iterations) {
+        return (long) iterations * nodes.abscissas.length;
+    }
+
+    /**
+     * Calculate the weighted sum of the panels in {@code [from, to)}, where
+     * the {@code i} panel is {@code [a + i * stepSize, a + (i + 1) * stepSize]}.
+     */
+    @Override
+    protected double partialSum(Fdx fn, double lowerLimit, double stepSize, int from, int to) {
+        if (fn instanceof BulkFdx)
+            return bulkPartialSum((BulkFdx) fn, lowerLimit, stepSize, from, to);
+
+        double[] abscissas = nodes.abscissas;
+        double[] weights = nodes.weights;
+        double half = stepSize / 2;
+
+        double summation = 0d;
+        for (int i = from; i < to; i++) {
+            double center = lowerLimit + i * stepSize + half;
+            for (int k = 0; k < abscissas.length; k++) {
+                summation += weights[k] * fn.calculate(center + half * abscissas[k]);
+            }
+        }
+        return summation;
+    }
+
+    @Override
+    protected void partialSum(VectorFdx fn, double lowerLimit, double stepSize, int from, int to, double[] sums) {
+        double[] abscissas = nodes.abscissas;
+        double[] weights = nodes.weights;
+        double half = stepSize / 2;
+        double[] fx = new double[sums.length];
+
+        for (int i = from; i < to; i++) {
+            double center = lowerLimit + i * stepSize + half;
+            for (int k = 0; k < abscissas.length; k++) {
+                fn.calculate(center + half * abscissas[k], fx);
+                for (int j = 0; j < sums.length; j++)
+                    sums[j] += weights[k] * fx[j];
+            }
+        }
+    }
+
+    /**
+     * Calculate the weighted sum of the panels in {@code [from, to)}
+     * evaluating the function in blocks of whole panels.
+     *
+     * @param fn         the bulk function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param stepSize   the step size
+     * @param from       the first panel, inclusive
+     * @param to         the last panel, exclusive
+     *
+     * @return the weighted sum of the given panels
+     */
+    private double bulkPartialSum(BulkFdx fn, double lowerLimit, double stepSize, int from, int to) {
+        double[] abscissas = nodes.abscissas;
+        double[] weights = nodes.weights;
+        double half = stepSize / 2;
+        int order = abscissas.length;
+        int panelsPerBlock = Math.max(1, BLOCK_SIZE / order);
+        double[] x = new double[panelsPerBlock * order];
+        double[] fx = new double[x.length];
+
+        double summation = 0d;
+        for (int start = from; start < to; start += panelsPerBlock) {
+            int panels = Math.min(panelsPerBlock, to - start);
+            for (int p = 0; p < panels; p++) {
+                double center = lowerLimit + (start + p) * stepSize + half;
+                for (int k = 0; k < order; k++)
+                    x[p * order + k] = center + half * abscissas[k];
+            }
+
+            fn.calculate(x, fx, panels * order);
+            for (int p = 0; p < panels; p++) {
+                for (int k = 0; k < order; k++)
+                    summation += weights[k] * fx[p * order + k];
+            }
+        }
+        return summation;
+    }
+
+    /**
+     * The nodes and weights of a Gauss-Legendre rule in {@code [-1, 1]}.
+     */
+    static final class Nodes {
+
+        /** The roots of the Legendre polynomial. */
+        final double[] abscissas;
+
+        /** The weights of each root. */
+        final double[] weights;
+
+        /**
+         * Calculate the nodes and weights of the given order.
+         *
+         * @param order the number of points of the rule
+         */
+        Nodes(int order) {
+            this.abscissas = new double[order];
+            this.weights = new double[order];
+
+            for (int i = 0; i < (order + 1) / 2; i++) {
+                double x = Math.cos(Math.PI * (i + 0.75) / (order + 0.5));
+                double derivative;
+                double delta;
+                int steps = 0;
+                do {
+                    double p0 = 1d;
+                    double p1 = x;
+                    for (int k = 2; k <= order; k++) {
+                        double p2 = ((2 * k - 1) * x * p1 - (k - 1) * p0) / k;
+                        p0 = p1;
+                        p1 = p2;
+                    }
+                    derivative = order * (x * p1 - p0) / (x * x - 1);
+                    delta = p1 / derivative;
+                    x -= delta;
+                } while (Math.abs(delta) > 1e-15 && ++steps < 100);
+
+                double weight = 2 / ((1 - x * x) * derivative * derivative);
+                abscissas[i] = -x;
+                abscissas[order - 1 - i] = x;
+                weights[i] = weight;
+                weights[order - 1 - i] = weight;
+            }
+        }
+
+    }
+
+}
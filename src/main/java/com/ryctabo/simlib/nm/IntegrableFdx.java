@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+/**
+ * Represents a function {@code f(x)} whose integral is known in closed
+ * form, like a {@link Polynomial}, a {@link PiecewisePolynomial} or a
+ * {@link ChebyshevApproximation}.
+ * <p>
+ * The rules of this package detect this type and return the difference of
+ * its antiderivative instead of sampling the function.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @since 1.8
+ */
+public interface IntegrableFdx extends Fdx {
+
+    /**
+     * Calculate the integral of the function in {@code [a, b]}.
+     *
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     *
+     * @return the integral of the function
+     */
+    double integrate(double lowerLimit, double upperLimit);
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+/**
+ * The <strong>IntegrationEvent</strong> class represents the metrics of
+ * a solve of a rule, that are sent to an {@link IntegrationListener}.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public final class IntegrationEvent {
+
+    /** The rule that solved the integral. */
+    private final RuleX rule;
+
+    /** The number of iterations, or zero if the rule doesn't use a fixed number. */
+    private final int iterations;
+
+    /** The step size, or {@code NaN} if the rule doesn't use a fixed step. */
+    private final double stepSize;
+
+    /** The number of evaluations of the function. */
+    private final long evaluations;
+
+    /** The wall time of the solve in nanoseconds. */
+    private final long nanos;
+
+    /** The estimate of the absolute error, or {@code NaN} if there isn't one. */
+    private final double errorEstimate;
+
+    /**
+     * Create an instance of {@link IntegrationEvent}.
+     *
+     * @param rule          the rule that solved the integral
+     * @param iterations    the number of iterations, or zero
+     * @param stepSize      the step size, or {@code NaN}
+     * @param evaluations   the number of evaluations of the function
+     * @param nanos         the wall time of the solve in nanoseconds
+     * @param errorEstimate the estimate of the absolute error, or {@code NaN}
+     */
+    public IntegrationEvent(RuleX rule, int iterations, double stepSize,
+                            long evaluations, long nanos, double errorEstimate) {
+        this.rule = rule;
+        this.iterations = iterations;
+        this.stepSize = stepSize;
+        this.evaluations = evaluations;
+        this.nanos = nanos;
+        this.errorEstimate = errorEstimate;
+    }
+
+    /**
+     * Get the rule that solved the integral.
+     *
+     * @return the rule
+     */
+    public RuleX getRule() {
+        return rule;
+    }
+
+    /**
+     * Get the number of iterations.
+     *
+     * @return the number of iterations, or zero if the rule doesn't use a
+     * fixed number
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Get the step size.
+     *
+     * @return the step size, or {@code NaN} if the rule doesn't use a
+     * fixed step
+     */
+    public double getStepSize() {
+        return stepSize;
+    }
+
+    /**
+     * Get the number of evaluations of the function {@code f(x)}.
+     *
+     * @return the number of evaluations
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Get the wall time of the solve.
+     *
+     * @return the wall time in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Get the estimate of the absolute error.
+     *
+     * @return the error estimate, or {@code NaN} if the rule doesn't
+     * estimate it
+     */
+    public double getErrorEstimate() {
+        return errorEstimate;
+    }
+
+    @Override
+    public String toString() {
+        return "IntegrationEvent{" +
+                "rule=" + rule.getClass().getSimpleName() +
+                ", iterations=" + iterations +
+                ", stepSize=" + stepSize +
+                ", evaluations=" + evaluations +
+                ", nanos=" + nanos +
+                ", errorEstimate=" + errorEstimate +
+                '}';
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+/**
+ * Represents a listener that is notified after each solve of a rule,
+ * with the metrics of that solve.
+ * <p>
+ * A rule without a listener doesn't measure anything, so the listener
+ * has no cost when it is disabled.
+ * <p>
+ * This is a <a href="package-summary.html">functional interface</a>
+ * whose functional method is {@link #onSolve(IntegrationEvent)}.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see IntegrationMetrics
+ * @since 1.8
+ */
+@FunctionalInterface
+public interface IntegrationListener {
+
+    /**
+     * Receive the metrics of a solve. It is called by the thread that
+     * solved the integral, so the implementations have to be thread-safe
+     * if the rule is shared.
+     *
+     * @param event the metrics of the solve
+     */
+    void onSolve(IntegrationEvent event);
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The <strong>IntegrationMetrics</strong> class represents the default
+ * {@link IntegrationListener}, it accumulates the metrics of all the
+ * solves without locks, so it can be shared by many rules and threads.
+ * <p>
+ * The wall times are counted in a histogram of 64 buckets, where the
+ * {@code i} bucket counts the solves that took less than {@code 2^i}
+ * nanoseconds and at least {@code 2^(i-1)}. The slowest solve is kept,
+ * with its rule and number of iterations.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class IntegrationMetrics implements IntegrationListener {
+
+    /** The number of buckets of the histogram. */
+    public static final int BUCKETS = 64;
+
+    /** The number of solves. */
+    private final LongAdder solves = new LongAdder();
+
+    /** The number of evaluations of the function. */
+    private final LongAdder evaluations = new LongAdder();
+
+    /** The wall time of all solves in nanoseconds. */
+    private final LongAdder nanos = new LongAdder();
+
+    /** The histogram of the wall times. */
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    /** The number of solves of each type of rule. */
+    private final ConcurrentHashMap<Class<?>, LongAdder> solvesByRule = new ConcurrentHashMap<>();
+
+    /** The slowest solve. */
+    private final AtomicReference<IntegrationEvent> slowest = new AtomicReference<>();
+
+    @Override
+    public void onSolve(IntegrationEvent event) {
+        solves.increment();
+        evaluations.add(event.getEvaluations());
+        nanos.add(event.getNanos());
+        histogram.incrementAndGet(bucket(event.getNanos()));
+        solvesByRule.computeIfAbsent(event.getRule().getClass(), type -> new LongAdder()).increment();
+
+        IntegrationEvent current = slowest.get();
+        while (current == null || current.getNanos() < event.getNanos()) {
+            if (slowest.compareAndSet(current, event))
+                break;
+            current = slowest.get();
+        }
+    }
+
+    /**
+     * Get the bucket of the histogram of a wall time.
+     *
+     * @param nanos the wall time in nanoseconds
+     *
+     * @return the bucket
+     */
+    static int bucket(long nanos) {
+        return Math.min(BUCKETS - 1, BUCKETS - Long.numberOfLeadingZeros(Math.max(0L, nanos)));
+    }
+
+    /**
+     * Get the number of solves.
+     *
+     * @return the number of solves
+     */
+    public long getSolves() {
+        return solves.sum();
+    }
+
+    /**
+     * Get the number of evaluations of the function of all solves.
+     *
+     * @return the number of evaluations
+     */
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    /**
+     * Get the wall time of all solves.
+     *
+     * @return the wall time in nanoseconds
+     */
+    public long getTotalNanos() {
+        return nanos.sum();
+    }
+
+    /**
+     * Get a copy of the histogram of the wall times.
+     *
+     * @return the count of each bucket
+     */
+    public long[] getHistogram() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            counts[i] = histogram.get(i);
+        return counts;
+    }
+
+    /**
+     * Get an upper bound of the wall time of the given fraction of the
+     * solves, from the histogram.
+     *
+     * @param quantile the fraction of the solves, in {@code [0, 1]}
+     *
+     * @return the upper bound of the bucket in nanoseconds, or zero if there
+     * aren't solves
+     *
+     * @throws IllegalArgumentException if the quantile is out of {@code [0, 1]}
+     */
+    public long getQuantileNanos(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1))
+            throw new IllegalArgumentException("The quantile has to be in [0, 1].");
+
+        long[] counts = getHistogram();
+        long total = 0L;
+        for (long count : counts)
+            total += count;
+        if (total == 0)
+            return 0L;
+
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long accumulated = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            accumulated += counts[i];
+            if (accumulated >= rank)
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Get the number of solves of each type of rule.
+     *
+     * @return a copy of the number of solves by type of rule
+     */
+    public Map<Class<?>, Long> getSolvesByRule() {
+        Map<Class<?>, Long> copy = new ConcurrentHashMap<>();
+        solvesByRule.forEach((type, count) -> copy.put(type, count.sum()));
+        return copy;
+    }
+
+    /**
+     * Get the slowest solve.
+     *
+     * @return the slowest solve, or {@code null} if there aren't solves
+     */
+    public IntegrationEvent getSlowest() {
+        return slowest.get();
+    }
+
+}
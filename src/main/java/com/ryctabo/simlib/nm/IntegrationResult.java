@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+/**
+ * The <strong>IntegrationResult</strong> class represents the value of
+ * a {@link DefiniteIntegral} together with an estimate of its absolute
+ * error and the number of evaluations of the function {@code f(x)} that
+ * were needed to calculate it.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public final class IntegrationResult {
+
+    /** The value of the integral. */
+    private final double value;
+
+    /** The estimate of the absolute error. */
+    private final double errorEstimate;
+
+    /** The number of evaluations of the function. */
+    private final long evaluations;
+
+    /**
+     * Create an instance of {@link IntegrationResult}.
+     *
+     * @param value         the value of the integral
+     * @param errorEstimate the estimate of the absolute error
+     * @param evaluations   the number of evaluations of the function
+     */
+    public IntegrationResult(double value, double errorEstimate, long evaluations) {
+        this.value = value;
+        this.errorEstimate = errorEstimate;
+        this.evaluations = evaluations;
+    }
+
+    /**
+     * Get the value of the integral.
+     *
+     * @return the value
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Get the estimate of the absolute error of the value.
+     *
+     * @return the error estimate
+     */
+    public double getErrorEstimate() {
+        return errorEstimate;
+    }
+
+    /**
+     * Get the number of evaluations of the function {@code f(x)}.
+     *
+     * @return the number of evaluations
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    @Override
+    public String toString() {
+        return "IntegrationResult{" +
+                "value=" + value +
+                ", errorEstimate=" + errorEstimate +
+                ", evaluations=" + evaluations +
+                '}';
+    }
+
+}
@@ -0,0 +1,534 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import com.ryctabo.simlib.util.MathUtils;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The <strong>MonteCarloIntegration</strong> class represents the
+ * estimation of integrals in a box of {@code n} dimensions by the mean of
+ * the function at sampled points, for high-dimensional and non-smooth
+ * integrands.
+ * <p>
+ * The samples are split in blocks of {@link #SAMPLES_PER_BLOCK} points.
+ * In the {@link Sequence#PSEUDO_RANDOM} mode each block has its own
+ * {@link SplittableRandom} split from the seed in the order of the blocks,
+ * and the {@link Sequence#HALTON} and {@link Sequence#SOBOL} modes take a
+ * fixed range of indexes of the low-discrepancy sequence. The mean and
+ * variance of a block are accumulated with the Welford's method and the
+ * blocks are combined in their order, so the result for a fixed seed is the
+ * same for any number of threads.
+ * <p>
+ * The blocks are solved in rounds of {@link #getBlocksPerRound()} blocks,
+ * in parallel if a pool was assigned. After each round the half-width of
+ * the confidence interval is compared with the tolerance, and the sampling
+ * stops when it is reached or when the maximum number of samples is used.
+ * In the quasi-random modes the half-width is the one of a random sampling,
+ * which overestimates the error, so the stop is conservative.
+ * <p>
+ * An instance only holds its configuration, so it can be shared by any
+ * number of threads.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Monte_Carlo_integration">Monte Carlo integration</a>
+ */
+public class MonteCarloIntegration implements RuleX {
+
+    /** The number of samples of a block. */
+    public static final int SAMPLES_PER_BLOCK = 4096;
+
+    /** The default number of blocks of a round. */
+    public static final int DEFAULT_BLOCKS_PER_ROUND = 64;
+
+    /** The default confidence level of the half-width. */
+    public static final double DEFAULT_CONFIDENCE = 0.95;
+
+    /**
+     * The sequences of points of the sampling.
+     */
+    public enum Sequence {
+
+        /** Independent uniform points of {@link SplittableRandom} streams. */
+        PSEUDO_RANDOM,
+
+        /** The Halton sequence, with a prime base by dimension. */
+        HALTON,
+
+        /** The Sobol sequence, up to {@code 16} dimensions. */
+        SOBOL
+
+    }
+
+    /** The sequence of points. */
+    private final Sequence sequence;
+
+    /** The maximum number of samples. */
+    private final long maxSamples;
+
+    /** The seed of the pseudo-random streams. */
+    private volatile long seed;
+
+    /** The absolute tolerance of the half-width, zero uses all samples. */
+    private volatile double tolerance;
+
+    /** The confidence level of the half-width. */
+    private volatile double confidence = DEFAULT_CONFIDENCE;
+
+    /** The number of blocks between two checks of the tolerance. */
+    private volatile int blocksPerRound = DEFAULT_BLOCKS_PER_ROUND;
+
+    /** The pool used to solve the blocks in parallel, {@code null} is sequential. */
+    private volatile ForkJoinPool pool;
+
+    /**
+     * Create an instance of {@link MonteCarloIntegration} that uses all
+     * samples, with the seed zero.
+     *
+     * @param sequence   the sequence of points
+     * @param maxSamples the maximum number of samples
+     *
+     * @throws NullPointerException     if the sequence is null
+     * @throws IllegalArgumentException if the maximum number of samples is
+     *                                  less than 2, or too big for the
+     *                                  Sobol sequence
+     */
+    public MonteCarloIntegration(Sequence sequence, long maxSamples) {
+        if (sequence == null)
+            throw new NullPointerException("The sequence can't be null");
+        if (maxSamples < 2)
+            throw new IllegalArgumentException("The maximum number of samples can't be less than 2.");
+        if (sequence == Sequence.SOBOL && maxSamples >= 1L << SobolSequence.BITS)
+            throw new IllegalArgumentException("The maximum number of samples of the Sobol sequence " +
+                    "has to be less than 2^32.");
+        this.sequence = sequence;
+        this.maxSamples = maxSamples;
+    }
+
+    /**
+     * Get the sequence of points.
+     *
+     * @return the sequence
+     */
+    public Sequence getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Get the maximum number of samples.
+     *
+     * @return the maximum number of samples
+     */
+    public long getMaxSamples() {
+        return maxSamples;
+    }
+
+    /**
+     * Get the seed of the pseudo-random streams.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Set the seed of the pseudo-random streams. It isn't used by the
+     * quasi-random sequences.
+     *
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Get the absolute tolerance of the half-width.
+     *
+     * @return the tolerance
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Set the absolute tolerance of the half-width of the confidence
+     * interval, the sampling stops when it is reached.
+     *
+     * @param tolerance the tolerance, zero to use all samples
+     *
+     * @throws IllegalArgumentException if the tolerance is negative
+     */
+    public void setTolerance(double tolerance) {
+        if (!(tolerance >= 0))
+            throw new IllegalArgumentException("The tolerance can't be negative.");
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Get the confidence level of the half-width.
+     *
+     * @return the confidence level
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+
+    /**
+     * Set the confidence level of the half-width, for example {@code 0.95}.
+     *
+     * @param confidence the confidence level
+     *
+     * @throws IllegalArgumentException if the confidence level is out of
+     *                                  {@code (0, 1)}
+     */
+    public void setConfidence(double confidence) {
+        if (!(confidence > 0 && confidence < 1))
+            throw new IllegalArgumentException("The confidence has to be in (0, 1).");
+        this.confidence = confidence;
+    }
+
+    /**
+     * Get the number of blocks between two checks of the tolerance.
+     *
+     * @return the number of blocks of a round
+     */
+    public int getBlocksPerRound() {
+        return blocksPerRound;
+    }
+
+    /**
+     * Set the number of blocks between two checks of the tolerance, the
+     * blocks of a round are solved in parallel. The result depends on this
+     * value when the tolerance is used, but not on the number of threads.
+     *
+     * @param blocksPerRound the number of blocks of a round
+     *
+     * @throws IllegalArgumentException if the number of blocks is less than 1
+     */
+    public void setBlocksPerRound(int blocksPerRound) {
+        if (blocksPerRound < 1)
+            throw new IllegalArgumentException("The number of blocks can't be less than 1.");
+        this.blocksPerRound = blocksPerRound;
+    }
+
+    /**
+     * Get the pool used to solve the blocks in parallel.
+     *
+     * @return the pool, or {@code null} if the solve is sequential
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Set the pool used to solve the blocks in parallel.
+     *
+     * @param pool the pool, or {@code null} to solve sequentially
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public double solve(DefiniteIntegral integral) {
+        return solve(integral.getFunction(), integral.getLowerLimit(), integral.getUpperLimit());
+    }
+
+    @Override
+    public double solve(Fdx fn, double lowerLimit, double upperLimit) {
+        return integrate(fn, lowerLimit, upperLimit).getValue();
+    }
+
+    /**
+     * Estimate the integral of {@code f(x)} in the interval {@code [a,b]}.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     *
+     * @return the estimate of the integral
+     *
+     * @throws IllegalArgumentException if the lower limit is greater than
+     *                                  upper limit.
+     */
+    public MonteCarloResult integrate(Fdx fn, double lowerLimit, double upperLimit) {
+        return integrate(x -> fn.calculate(x[0]), new double[]{lowerLimit}, new double[]{upperLimit});
+    }
+
+    /**
+     * Estimate the integral of {@code f(x1, ..., xn)} in the box
+     * {@code [lowerLimits[0], upperLimits[0]] x ... x [lowerLimits[n-1], upperLimits[n-1]]}.
+     *
+     * @param fn          the function {@code f(x1, ..., xn)}
+     * @param lowerLimits the lower limit of each dimension
+     * @param upperLimits the upper limit of each dimension
+     *
+     * @return the estimate of the integral
+     *
+     * @throws IllegalArgumentException if the arrays are empty or have
+     *                                  different lengths, a lower limit is
+     *                                  greater than its upper limit, or the
+     *                                  Sobol sequence has not enough
+     *                                  dimensions
+     */
+    public MonteCarloResult integrate(MultivariateFdx fn, double[] lowerLimits, double[] upperLimits) {
+        int dimensions = lowerLimits.length;
+        if (dimensions == 0 || dimensions != upperLimits.length)
+            throw new IllegalArgumentException("The number of lower and upper limits has to be equal " +
+                    "and greater than 0.");
+
+        double[] lower = lowerLimits.clone();
+        double[] widths = new double[dimensions];
+        double volume = 1d;
+        for (int j = 0; j < dimensions; j++) {
+            DefiniteIntegral.validateLimits(lower[j], upperLimits[j]);
+            widths[j] = upperLimits[j] - lower[j];
+            volume *= widths[j];
+        }
+
+        Sampler sampler = new Sampler(sequence, dimensions, fn, lower, widths, volume);
+        double tolerance = this.tolerance;
+        double z = normalQuantile(0.5 + this.confidence / 2);
+        int blocksPerRound = this.blocksPerRound;
+        ForkJoinPool pool = this.pool;
+        SplittableRandom root = new SplittableRandom(this.seed);
+
+        long totalBlocks = (maxSamples + SAMPLES_PER_BLOCK - 1) / SAMPLES_PER_BLOCK;
+        Moments total = new Moments();
+        for (long first = 0; first < totalBlocks; first += blocksPerRound) {
+            int blocks = (int) Math.min(blocksPerRound, totalBlocks - first);
+            Moments[] moments = new Moments[blocks];
+            SplittableRandom[] randoms = new SplittableRandom[blocks];
+            for (int b = 0; b < blocks; b++)
+                randoms[b] = sequence == Sequence.PSEUDO_RANDOM ? root.split() : null;
+
+            long start = first;
+            ParallelChunks.forEach(pool, blocks, b -> {
+                long from = (start + b) * SAMPLES_PER_BLOCK;
+                long to = Math.min(from + SAMPLES_PER_BLOCK, maxSamples);
+                moments[b] = sampler.sample(from, to, randoms[b]);
+            });
+            for (Moments m : moments)
+                total.merge(m);
+
+            double halfWidth = z * Math.sqrt(total.variance() / total.count);
+            if (tolerance > 0 && halfWidth <= tolerance)
+                return new MonteCarloResult(total.mean, total.variance(), total.count, halfWidth, true);
+        }
+        double halfWidth = z * Math.sqrt(total.variance() / total.count);
+        return new MonteCarloResult(total.mean, total.variance(), total.count, halfWidth, false);
+    }
+
+    /**
+     * Calculate the quantile of the standard normal distribution with the
+     * rational approximation of Acklam, with a relative error less than
+     * {@code 1.15e-9}.
+     *
+     * @param p a probability in {@code (0, 1)}
+     *
+     * @return the value {@code z} with {@code P(Z <= z) = p}
+     */
+    static double normalQuantile(double p) {
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final double low = 0.02425;
+
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low)
+            return -normalQuantile(1 - p);
+
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    /**
+     * The count, mean and sum of squared deviations of a set of samples.
+     */
+    private static final class Moments {
+
+        long count;
+
+        double mean;
+
+        double m2;
+
+        /**
+         * Add a sample with the Welford's method.
+         *
+         * @param value the sample
+         */
+        void add(double value) {
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        }
+
+        /**
+         * Combine the moments of other set of samples.
+         *
+         * @param other the other moments
+         */
+        void merge(Moments other) {
+            if (other.count == 0)
+                return;
+            long n = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / n;
+            m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+            count = n;
+        }
+
+        /**
+         * Get the unbiased variance of the samples.
+         *
+         * @return the variance
+         */
+        double variance() {
+            return count > 1 ? m2 / (count - 1) : Double.POSITIVE_INFINITY;
+        }
+
+    }
+
+    /**
+     * The sampling of a function in a box with a sequence of points.
+     */
+    private static final class Sampler {
+
+        private final Sequence sequence;
+
+        private final int dimensions;
+
+        private final MultivariateFdx fn;
+
+        private final double[] lower;
+
+        private final double[] widths;
+
+        private final double volume;
+
+        private final SobolSequence sobol;
+
+        private final int[] primes;
+
+        Sampler(Sequence sequence, int dimensions, MultivariateFdx fn,
+                double[] lower, double[] widths, double volume) {
+            this.sequence = sequence;
+            this.dimensions = dimensions;
+            this.fn = fn;
+            this.lower = lower;
+            this.widths = widths;
+            this.volume = volume;
+            this.sobol = sequence == Sequence.SOBOL ? new SobolSequence(dimensions) : null;
+            this.primes = sequence == Sequence.HALTON ? primes(dimensions) : null;
+        }
+
+        /**
+         * Sample the points with indexes in {@code [from, to)}. The first
+         * point of the quasi-random sequences, the origin, is skipped.
+         *
+         * @param from   the first index, inclusive
+         * @param to     the last index, exclusive
+         * @param random the stream of the block in the pseudo-random mode
+         *
+         * @return the moments of the samples
+         */
+        Moments sample(long from, long to, SplittableRandom random) {
+            Moments moments = new Moments();
+            double[] x = new double[dimensions];
+            int[] state = sobol == null ? null : new int[dimensions];
+            if (sobol != null)
+                sobol.seek(from + 1, state);
+
+            for (long i = from; i < to; i++) {
+                for (int j = 0; j < dimensions; j++) {
+                    double u;
+                    switch (sequence) {
+                        case HALTON:
+                            u = radicalInverse(i + 1, primes[j]);
+                            break;
+                        case SOBOL:
+                            u = SobolSequence.toDouble(state[j]);
+                            break;
+                        default:
+                            u = random.nextDouble();
+                            break;
+                    }
+                    x[j] = lower[j] + u * widths[j];
+                }
+                moments.add(volume * fn.calculate(x));
+                if (sobol != null)
+                    sobol.next(i + 1, state);
+            }
+            return moments;
+        }
+
+        /**
+         * Calculate the radical inverse of an index in the given base.
+         *
+         * @param index the index
+         * @param base  the base
+         *
+         * @return the digits of the index reflected about the radix point
+         */
+        private static double radicalInverse(long index, int base) {
+            double inverse = 0d;
+            double factor = 1d / base;
+            while (index > 0) {
+                inverse += (index % base) * factor;
+                index /= base;
+                factor /= base;
+            }
+            return inverse;
+        }
+
+        /**
+         * Get the first prime numbers.
+         *
+         * @param count the number of primes
+         *
+         * @return the primes
+         */
+        private static int[] primes(int count) {
+            int[] primes = new int[count];
+            int value = 2;
+            for (int i = 0; i < count; value++) {
+                if (MathUtils.isPrime(value))
+                    primes[i++] = value;
+            }
+            return primes;
+        }
+
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+/**
+ * The <strong>MonteCarloResult</strong> class represents the estimate
+ * of an integral by {@link MonteCarloIntegration}, together with the
+ * variance of the samples and the half-width of its confidence interval.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public final class MonteCarloResult {
+
+    /** The estimate of the integral, the mean of the samples. */
+    private final double value;
+
+    /** The variance of the samples. */
+    private final double variance;
+
+    /** The number of samples. */
+    private final long samples;
+
+    /** The half-width of the confidence interval. */
+    private final double halfWidth;
+
+    /** If the half-width reached the tolerance. */
+    private final boolean converged;
+
+    /**
+     * Create an instance of {@link MonteCarloResult}.
+     *
+     * @param value     the estimate of the integral
+     * @param variance  the variance of the samples
+     * @param samples   the number of samples
+     * @param halfWidth the half-width of the confidence interval
+     * @param converged if the half-width reached the tolerance
+     */
+    public MonteCarloResult(double value, double variance, long samples, double halfWidth, boolean converged) {
+        this.value = value;
+        this.variance = variance;
+        this.samples = samples;
+        this.halfWidth = halfWidth;
+        this.converged = converged;
+    }
+
+    /**
+     * Get the estimate of the integral.
+     *
+     * @return the value
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Get the unbiased variance of the samples.
+     *
+     * @return the variance
+     */
+    public double getVariance() {
+        return variance;
+    }
+
+    /**
+     * Get the standard error of the estimate, {@code sqrt(variance / n)}.
+     *
+     * @return the standard error
+     */
+    public double getStandardError() {
+        return Math.sqrt(variance / samples);
+    }
+
+    /**
+     * Get the number of samples, the number of evaluations of the function.
+     *
+     * @return the number of samples
+     */
+    public long getSamples() {
+        return samples;
+    }
+
+    /**
+     * Get the half-width of the confidence interval of the estimate.
+     *
+     * @return the half-width
+     */
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    /**
+     * Returns if the sampling stopped because the half-width reached
+     * the tolerance, instead of the maximum number of samples.
+     *
+     * @return {@code true} if it converged
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    @Override
+    public String toString() {
+        return "MonteCarloResult{" +
+                "value=" + value +
+                ", variance=" + variance +
+                ", samples=" + samples +
+                ", halfWidth=" + halfWidth +
+                ", converged=" + converged +
+                '}';
+    }
+
+}
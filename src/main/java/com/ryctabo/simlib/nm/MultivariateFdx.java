@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+/**
+ * Represents a function {@code f(x1, ..., xn)} of {@code n} real
+ * variables that produces a result.
+ * <p>
+ * <strong>For example:</strong>
+ * <p>
+ * <i>f(x) = x1 x2 x3</i> is equal to {@code x -> x[0] * x[1] * x[2]}
+ * <p><p>
+ * This is a <a href="package-summary.html">functional interface</a>
+ * whose functional method is {@link #calculate(double[])}.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see MonteCarloIntegration
+ * @since 1.8
+ */
+@FunctionalInterface
+public interface MultivariateFdx {
+
+    /**
+     * Calculate the result of the function provided. The array is reused
+     * between calls, so the implementations must not keep it.
+     *
+     * @param x the real variables
+     *
+     * @return the function result
+     */
+    double calculate(double[] x);
+
+}
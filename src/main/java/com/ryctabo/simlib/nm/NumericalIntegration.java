@@ -16,32 +16,94 @@
 
 package com.ryctabo.simlib.nm;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
 /**
  * The <strong>NumericalIntegration</strong> class represents a family
  * of algorithms for calculating the numerical value of a {@link DefiniteIntegral}.
+ * <p>
+ * By default the summation of a rule runs sequentially. When a
+ * {@link ForkJoinPool} is assigned with {@link #setPool(ForkJoinPool)} and
+ * the number of iterations is greater than the {@link #getThreshold() threshold},
+ * the summation is split in chunks that are solved in the pool and the partial
+ * sums are combined. The abscissas are the same in both modes, only the order
+ * of the additions changes, so the parallel result agrees with the sequential
+ * one within a relative error of order {@code n * 2^-53}.
+ * <p>
+ * With the {@link Summation#COMPENSATED} strategy the summation is split in
+ * fixed leaves of about {@link #BLOCK_SIZE} indexes, whatever the pool and
+ * the threshold, and the leaves are combined by a fixed pairwise tree with
+ * compensated additions. The result is the same, bit for bit, sequentially
+ * and in parallel. Each leaf is still summed naively, so the rounding error
+ * is bounded by the error of a leaf plus a pairwise term that grows with
+ * {@code log(n / BLOCK_SIZE)}.
+ * <p>
+ * An instance only holds its configuration, the step size and any other
+ * state of a solve are local to the call. So a configured rule can be
+ * shared and reused by any number of threads without synchronization.
+ * <p>
+ * When an {@link IntegrationListener} is assigned with
+ * {@link #setListener(IntegrationListener)}, each solve is timed and the
+ * listener receives its metrics. Without a listener nothing is measured.
+ * <p>
+ * A batch of intervals is solved in a single pass with
+ * {@link #solve(Fdx, double[])} or {@link #solve(Fdx, double[], double[])}:
+ * the intervals are merged in one grid and the limits that are shared by
+ * adjacent intervals are evaluated once.
+ * <p>
+ * A {@link VectorFdx} of {@code k} functions is solved in a single pass
+ * with {@link #solve(VectorFdx, double, double, double[])}, accumulating the
+ * {@code k} weighted sums at each abscissa. Each component has the same
+ * result as the solve of that function alone.
+ * <p>
+ * An {@link IntegrableFdx}, like a {@link Polynomial}, isn't sampled: the
+ * solves return the difference of its antiderivative.
  *
  * @author Gustavo Pacheco (ryctabo at gmail.com)
  * @version 1.0-SNAPSHOT
  */
 public abstract class NumericalIntegration implements RuleX {
 
+    /** The default number of iterations below which the summation is sequential. */
+    public static final int DEFAULT_THRESHOLD = 10_000;
+
+    /** The number of abscissas of a block evaluated by a {@link BulkFdx}. */
+    public static final int BLOCK_SIZE = 256;
+
     /**
-     * Number of iterations.
-     * <p>
-     * Represented in formulas of numerical methods such as {@code (n)}
+     * The strategies of the summation of a rule.
      */
-    protected int iterations;
+    public enum Summation {
+
+        /** A running sum, the order of the additions depends on the chunks of the pool. */
+        NAIVE,
+
+        /** A fixed tree of compensated additions, reproducible in any pool. */
+        COMPENSATED
+
+    }
 
     /**
-     * Result of an operation where:
-     * <p>
-     * - Integral <i>f(x)</i> with interval {@code [a,b]} and number of iterations {@code (n)}.
-     * <p>
-     * Is equal to:
+     * Number of iterations.
      * <p>
-     * - {@code stepSize = (b - a) / n }
+     * Represented in formulas of numerical methods such as {@code (n)}
      */
-    private double stepSize;
+    protected volatile int iterations;
+
+    /** The pool used to solve the summation in parallel, {@code null} is sequential. */
+    private volatile ForkJoinPool pool;
+
+    /** Number of iterations of a chunk that is solved without splitting it. */
+    private volatile int threshold = DEFAULT_THRESHOLD;
+
+    /** The listener notified after each solve, {@code null} is disabled. */
+    private volatile IntegrationListener listener;
+
+    /** The strategy of the summation. */
+    private volatile Summation summation = Summation.NAIVE;
 
     /**
      * Create an instance of {@link NumericalIntegration}.
@@ -71,39 +133,979 @@ public abstract class NumericalIntegration implements RuleX {
     }
 
     /**
-     * Get step size property.
+     * Get the pool used to solve the summation in parallel.
+     *
+     * @return the pool, or {@code null} if the summation is sequential
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Set the pool used to solve the summation in parallel.
+     *
+     * @param pool the pool, or {@code null} to solve the summation sequentially
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Get the number of iterations of a chunk that is solved without
+     * splitting it.
+     *
+     * @return the threshold
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Set the number of iterations of a chunk that is solved without
+     * splitting it. A summation with less iterations than the threshold
+     * is solved sequentially even if a pool was assigned.
+     *
+     * @param threshold the threshold
+     *
+     * @throws IllegalArgumentException if the threshold is less than 1
+     */
+    public void setThreshold(int threshold) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("The threshold can't be less than 1.");
+        this.threshold = threshold;
+    }
+
+    /**
+     * Get the listener notified after each solve.
+     *
+     * @return the listener, or {@code null} if it is disabled
+     */
+    public IntegrationListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Set the listener notified after each solve.
+     *
+     * @param listener the listener, or {@code null} to disable it
+     */
+    public void setListener(IntegrationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Get the strategy of the summation.
+     *
+     * @return the strategy
+     */
+    public Summation getSummation() {
+        return summation;
+    }
+
+    /**
+     * Set the strategy of the summation.
+     *
+     * @param summation the strategy
+     *
+     * @throws NullPointerException if the strategy is null
+     */
+    public void setSummation(Summation summation) {
+        if (summation == null)
+            throw new NullPointerException("The summation can't be null");
+        this.summation = summation;
+    }
+
+    /**
+     * Get the number of indexes of a leaf of the compensated summation,
+     * the block size rounded up to a multiple of the modulus.
      *
-     * @return step size
+     * @return the number of indexes of a leaf
      */
-    protected double getStepSize() {
-        return stepSize;
+    private int getLeafSize() {
+        int modulus = getModulus();
+        return (BLOCK_SIZE + modulus - 1) / modulus * modulus;
     }
 
     /**
-     * Assign the value resulting from the operation: {@code (b-a)/n}
-     * to the property {@code stepSize} for user.
+     * Calculate the step size of an integral, the result of the
+     * operation: {@code (b-a)/n}.
      *
      * @param lowerLimit the lower limit of an integral
      * @param upperLimit the upper limit of an integral
+     * @param iterations number of iterations
+     *
+     * @return the step size
      */
-    private void calculateStepSize(double lowerLimit, double upperLimit) {
-        this.stepSize = (upperLimit - lowerLimit) / (double) iterations;
+    protected static double calculateStepSize(double lowerLimit, double upperLimit, int iterations) {
+        return (upperLimit - lowerLimit) / (double) iterations;
     }
 
     @Override
     public double solve(DefiniteIntegral integral) {
-        this.calculateStepSize(integral.getLowerLimit(), integral.getUpperLimit());
-        return this.solveImplementation(integral);
+        return solve(integral.getFunction(), integral.getLowerLimit(), integral.getUpperLimit());
+    }
+
+    /**
+     * Solve the integral of {@code f(x)} in the interval {@code [a,b]}.
+     * A sequential solve of a plain {@link Fdx} with the
+     * {@link Summation#NAIVE} strategy doesn't allocate any object.
+     */
+    @Override
+    public double solve(Fdx fn, double lowerLimit, double upperLimit) {
+        return solve(fn, lowerLimit, upperLimit, this.iterations);
+    }
+
+    /**
+     * Solve the integral of {@code f(x)} in the interval {@code [a,b]}
+     * with the given number of iterations instead of the configured one,
+     * so the rule can be shared while the number of iterations varies.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     * @param iterations number of iterations, a multiple of the modulus
+     *
+     * @return result to solve the definite integral.
+     */
+    double solve(Fdx fn, double lowerLimit, double upperLimit, int iterations) {
+        DefiniteIntegral.validateLimits(lowerLimit, upperLimit);
+        double stepSize = calculateStepSize(lowerLimit, upperLimit, iterations);
+        boolean exact = fn instanceof IntegrableFdx;
+        IntegrationListener listener = this.listener;
+        if (listener == null) {
+            return exact ? ((IntegrableFdx) fn).integrate(lowerLimit, upperLimit)
+                    : this.solveImplementation(fn, lowerLimit, upperLimit, iterations, stepSize);
+        }
+
+        long start = System.nanoTime();
+        double value = exact ? ((IntegrableFdx) fn).integrate(lowerLimit, upperLimit)
+                : this.solveImplementation(fn, lowerLimit, upperLimit, iterations, stepSize);
+        long nanos = System.nanoTime() - start;
+        listener.onSolve(new IntegrationEvent(this, iterations, stepSize,
+                exact ? 0L : getEvaluations(iterations), nanos, exact ? 0d : Double.NaN));
+        return value;
+    }
+
+    /**
+     * Solve the integral of each function of a {@link VectorFdx} in the
+     * interval {@code [a,b]}.
+     *
+     * @param fn         the functions {@code f1(x), ..., fk(x)}
+     * @param components the number {@code k} of functions
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     *
+     * @return the integral of each function
+     *
+     * @throws IllegalArgumentException if the lower limit is greater than
+     *                                  upper limit
+     * @see #solve(VectorFdx, double, double, double[])
+     */
+    public double[] solve(VectorFdx fn, int components, double lowerLimit, double upperLimit) {
+        double[] result = new double[components];
+        solve(fn, lowerLimit, upperLimit, result);
+        return result;
+    }
+
+    /**
+     * Solve the integral of each function of a {@link VectorFdx} in the
+     * interval {@code [a,b]} in one pass over the grid, and store the
+     * results in the given array. The number {@code k} of functions is the
+     * length of the array.
+     *
+     * @param fn         the functions {@code f1(x), ..., fk(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     * @param result     the array where the {@code k} integrals are stored
+     *
+     * @throws IllegalArgumentException if the lower limit is greater than
+     *                                  upper limit
+     */
+    public void solve(VectorFdx fn, double lowerLimit, double upperLimit, double[] result) {
+        DefiniteIntegral.validateLimits(lowerLimit, upperLimit);
+        int iterations = this.iterations;
+        double stepSize = calculateStepSize(lowerLimit, upperLimit, iterations);
+        IntegrationListener listener = this.listener;
+        if (listener == null) {
+            this.solveImplementation(fn, lowerLimit, upperLimit, iterations, stepSize, result);
+            return;
+        }
+
+        long start = System.nanoTime();
+        this.solveImplementation(fn, lowerLimit, upperLimit, iterations, stepSize, result);
+        long nanos = System.nanoTime() - start;
+        listener.onSolve(new IntegrationEvent(this, iterations, stepSize,
+                getEvaluations(iterations), nanos, Double.NaN));
+    }
+
+    /**
+     * Solve the integral of each interval between two consecutive
+     * breakpoints, the {@code i} result is the integral in
+     * {@code [breakpoints[i], breakpoints[i + 1]]}.
+     * <p>
+     * Each interval is solved with the number of iterations of the rule,
+     * with the same result of {@link #solve(Fdx, double, double)}, but the
+     * breakpoints are evaluated once. If a pool was assigned and the batch
+     * has more evaluations than the threshold, the intervals are solved in
+     * parallel.
+     *
+     * @param fn          the function {@code f(x)}
+     * @param breakpoints the sorted breakpoints
+     *
+     * @return the integral of each interval, empty if there are less than
+     * two breakpoints
+     *
+     * @throws IllegalArgumentException if the breakpoints aren't sorted
+     */
+    public double[] solve(Fdx fn, double[] breakpoints) {
+        for (int i = 1; i < breakpoints.length; i++) {
+            if (!(breakpoints[i - 1] <= breakpoints[i]))
+                throw new IllegalArgumentException("The breakpoints have to be sorted.");
+        }
+        if (breakpoints.length < 2)
+            return new double[0];
+
+        IntegrationListener listener = this.listener;
+        if (listener == null)
+            return solveBatch(fn, breakpoints, this.iterations);
+
+        int iterations = this.iterations;
+        long start = System.nanoTime();
+        double[] results = solveBatch(fn, breakpoints, iterations);
+        long nanos = System.nanoTime() - start;
+        int intervals = breakpoints.length - 1;
+        long evaluations = fn instanceof IntegrableFdx ? 0L
+                : intervals * getEvaluations(iterations) - (evaluatesLimits() ? intervals - 1 : 0);
+        listener.onSolve(new IntegrationEvent(this, iterations, Double.NaN, evaluations, nanos, Double.NaN));
+        return results;
+    }
+
+    /**
+     * Solve the integral of each interval {@code [lowerLimits[i], upperLimits[i]]},
+     * the intervals can overlap and be in any order.
+     * <p>
+     * The limits of all intervals are merged in one sorted grid, each
+     * segment of the grid is solved once with {@link #solve(Fdx, double[])}
+     * and the result of an interval is the sum of its segments. So an
+     * interval that covers {@code k} segments is solved with {@code k} times
+     * the number of iterations of the rule.
+     *
+     * @param fn          the function {@code f(x)}
+     * @param lowerLimits the lower limit of each interval
+     * @param upperLimits the upper limit of each interval
+     *
+     * @return the integral of each interval
+     *
+     * @throws IllegalArgumentException if the arrays have different lengths,
+     *                                  or a lower limit is greater than its
+     *                                  upper limit
+     */
+    public double[] solve(Fdx fn, double[] lowerLimits, double[] upperLimits) {
+        if (lowerLimits.length != upperLimits.length)
+            throw new IllegalArgumentException("The number of lower and upper limits has to be equal.");
+        for (int i = 0; i < lowerLimits.length; i++)
+            DefiniteIntegral.validateLimits(lowerLimits[i], upperLimits[i]);
+
+        double[] grid = new double[2 * lowerLimits.length];
+        System.arraycopy(lowerLimits, 0, grid, 0, lowerLimits.length);
+        System.arraycopy(upperLimits, 0, grid, lowerLimits.length, upperLimits.length);
+        Arrays.sort(grid);
+
+        int size = 0;
+        for (double limit : grid) {
+            if (size == 0 || Double.compare(grid[size - 1], limit) != 0)
+                grid[size++] = limit;
+        }
+        grid = Arrays.copyOf(grid, size);
+
+        double[] segments = solve(fn, grid);
+        double[] results = new double[lowerLimits.length];
+        for (int i = 0; i < results.length; i++) {
+            int from = Arrays.binarySearch(grid, lowerLimits[i]);
+            int to = Arrays.binarySearch(grid, upperLimits[i]);
+            double summation = 0d;
+            for (int k = from; k < to; k++)
+                summation += segments[k];
+            results[i] = summation;
+        }
+        return results;
+    }
+
+    /**
+     * Solve the intervals of the sorted breakpoints, in chunks of
+     * intervals with about {@link #getThreshold() threshold} evaluations.
+     *
+     * @param fn          the function {@code f(x)}
+     * @param breakpoints the sorted breakpoints
+     * @param iterations  number of iterations of each interval
+     *
+     * @return the integral of each interval
+     */
+    private double[] solveBatch(Fdx fn, double[] breakpoints, int iterations) {
+        int intervals = breakpoints.length - 1;
+        if (fn instanceof IntegrableFdx) {
+            double[] results = new double[intervals];
+            for (int i = 0; i < intervals; i++)
+                results[i] = ((IntegrableFdx) fn).integrate(breakpoints[i], breakpoints[i + 1]);
+            return results;
+        }
+
+        ForkJoinPool pool = (long) intervals * iterations > this.threshold ? this.pool : null;
+        int size = pool == null ? intervals + 1 : Math.max(1, this.threshold / Math.max(1, iterations));
+        double[] limits = new double[breakpoints.length];
+        double[] results = new double[intervals];
+
+        if (evaluatesLimits()) {
+            int chunks = (breakpoints.length + size - 1) / size;
+            ParallelChunks.forEach(pool, chunks, c -> {
+                int from = c * size;
+                int to = Math.min(from + size, breakpoints.length);
+                for (int i = from; i < to; i++) {
+                    limits[i] = i > from && Double.compare(breakpoints[i], breakpoints[i - 1]) == 0
+                            ? limits[i - 1] : fn.calculate(breakpoints[i]);
+                }
+            });
+        } else {
+            Arrays.fill(limits, Double.NaN);
+        }
+
+        int chunks = (intervals + size - 1) / size;
+        ParallelChunks.forEach(pool, chunks, c -> {
+            int from = c * size;
+            int to = Math.min(from + size, intervals);
+            for (int i = from; i < to; i++) {
+                double stepSize = calculateStepSize(breakpoints[i], breakpoints[i + 1], iterations);
+                results[i] = solveImplementation(fn, breakpoints[i], breakpoints[i + 1],
+                        limits[i], limits[i + 1], iterations, stepSize);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Get the number of evaluations of the function of a solve with the
+     * given number of iterations.
+     *
+     * @param iterations number of iterations of the solve
+     *
+     * @return the number of evaluations, {@code n + 1} by default
+     */
+    protected long getEvaluations(int iterations) {
+        return iterations + 1L;
     }
 
     /**
      * Implements a numerical integration method.
      *
-     * @param di definite integral
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     * @param iterations number of iterations of this call
+     * @param stepSize   step size of this call
+     *
+     * @return {@code double} value, result of applying an implementation
+     * of a numerical integration rule.
+     */
+    protected abstract double solveImplementation(Fdx fn, double lowerLimit, double upperLimit,
+                                                  int iterations, double stepSize);
+
+    /**
+     * Implements a numerical integration method with the values of the
+     * function at the limits already calculated, so a batch of adjacent
+     * intervals evaluates each shared limit once.
+     * <p>
+     * By default the values are ignored and the rule is solved with
+     * {@link #solveImplementation(Fdx, double, double, int, double)}, the
+     * rules that evaluate the limits override this method and
+     * {@link #evaluatesLimits()}.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     * @param fdx0       the value of the function at the lower limit
+     * @param fdxN       the value of the function at the upper limit
+     * @param iterations number of iterations of this call
+     * @param stepSize   step size of this call
      *
      * @return {@code double} value, result of applying an implementation
      * of a numerical integration rule.
      */
-    protected abstract double solveImplementation(DefiniteIntegral di);
+    protected double solveImplementation(Fdx fn, double lowerLimit, double upperLimit,
+                                         double fdx0, double fdxN, int iterations, double stepSize) {
+        return solveImplementation(fn, lowerLimit, upperLimit, iterations, stepSize);
+    }
+
+    /**
+     * Implements a numerical integration method for the functions of a
+     * {@link VectorFdx}, the result of each component has to be the same
+     * of {@link #solveImplementation(Fdx, double, double, int, double)}.
+     * <p>
+     * By default each component is solved with the scalar implementation,
+     * so the functions are calculated {@code k} times at each abscissa. The
+     * rules of this package override it to solve them in one pass.
+     *
+     * @param fn         the functions {@code f1(x), ..., fk(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     * @param iterations number of iterations of this call
+     * @param stepSize   step size of this call
+     * @param result     the array where the {@code k} integrals are stored
+     */
+    protected void solveImplementation(VectorFdx fn, double lowerLimit, double upperLimit,
+                                       int iterations, double stepSize, double[] result) {
+        for (int j = 0; j < result.length; j++) {
+            result[j] = solveImplementation(new Component(fn, result.length, j),
+                    lowerLimit, upperLimit, iterations, stepSize);
+        }
+    }
+
+    /**
+     * Returns if the rule evaluates the function at the limits of the
+     * integral.
+     *
+     * @return {@code false} by default
+     */
+    protected boolean evaluatesLimits() {
+        return false;
+    }
+
+    /**
+     * Get the order of convergence of the rule, the error of a smooth
+     * function decreases as {@code h^order} with the step size {@code h}.
+     * The default order is the most pessimistic.
+     *
+     * @return the order of convergence
+     */
+    protected int getConvergenceOrder() {
+        return 1;
+    }
+
+    /**
+     * Get the modulus of the chunk boundaries. The summation is only split
+     * on indexes that are multiples of this value, so the weights of a rule
+     * that depends on the index stay correct.
+     *
+     * @return the modulus of the chunk boundaries
+     */
+    protected int getModulus() {
+        return 1;
+    }
+
+    /**
+     * Calculate the weighted sum of the function for the indexes in
+     * {@code [from, to)}, where the {@code i} index represents the
+     * abscissa {@code lowerLimit + i * stepSize}.
+     * <p>
+     * If the function is a {@link BulkFdx} the implementations evaluate
+     * the abscissas in blocks of {@link #BLOCK_SIZE} values.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param stepSize   the step size
+     * @param from       the first index, inclusive
+     * @param to         the last index, exclusive
+     *
+     * @return the weighted sum of the given indexes
+     */
+    protected abstract double partialSum(Fdx fn, double lowerLimit, double stepSize, int from, int to);
+
+    /**
+     * Calculate the weighted sum of the function for the indexes in
+     * {@code [from, to)}, sequentially or in the assigned pool.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param stepSize   the step size
+     * @param from       the first index, inclusive
+     * @param to         the last index, exclusive
+     *
+     * @return the weighted sum of the given indexes
+     *
+     * @see #partialSum(Fdx, double, double, int, int)
+     */
+    protected final double summation(Fdx fn, double lowerLimit, double stepSize, int from, int to) {
+        ForkJoinPool pool = this.pool;
+        if (this.summation == Summation.COMPENSATED) {
+            int leafSize = getLeafSize();
+            int leaves = (int) (((long) to - from + leafSize - 1) / leafSize);
+            if (pool == null || to - from <= this.threshold) {
+                double[] compensation = new double[1];
+                double sum = compensatedSum(fn, lowerLimit, stepSize, from, to, leafSize, 0, leaves, compensation);
+                return sum + compensation[0];
+            }
+            CompensatedTask task = new CompensatedTask(this, fn, lowerLimit, stepSize, from, to,
+                    leafSize, 0, leaves, this.threshold);
+            pool.invoke(task);
+            return task.sum + task.compensation;
+        }
+        if (pool == null || to - from <= this.threshold)
+            return partialSum(fn, lowerLimit, stepSize, from, to);
+        return pool.invoke(new SummationTask(this, fn, lowerLimit, stepSize, from, to, this.threshold));
+    }
+
+    /**
+     * Add the weighted sums of the functions for the indexes in
+     * {@code [from, to)} to {@code sums}, with the weights of
+     * {@link #partialSum(Fdx, double, double, int, int)}.
+     * <p>
+     * By default the weighted sum of each component is calculated with the
+     * scalar implementation, so the functions are calculated {@code k}
+     * times at each abscissa.
+     *
+     * @param fn         the functions {@code f1(x), ..., fk(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param stepSize   the step size
+     * @param from       the first index, inclusive
+     * @param to         the last index, exclusive
+     * @param sums       the {@code k} weighted sums, initially zero
+     */
+    protected void partialSum(VectorFdx fn, double lowerLimit, double stepSize, int from, int to, double[] sums) {
+        for (int j = 0; j < sums.length; j++)
+            sums[j] += partialSum(new Component(fn, sums.length, j), lowerLimit, stepSize, from, to);
+    }
+
+    /**
+     * Calculate the weighted sums of the functions for the indexes in
+     * {@code [from, to)}, sequentially or in the assigned pool. The chunks
+     * are the same of the scalar summation, so each component has the same
+     * result.
+     *
+     * @param fn         the functions {@code f1(x), ..., fk(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param stepSize   the step size
+     * @param from       the first index, inclusive
+     * @param to         the last index, exclusive
+     * @param components the number {@code k} of functions
+     *
+     * @return the {@code k} weighted sums of the given indexes
+     *
+     * @see #partialSum(VectorFdx, double, double, int, int, double[])
+     */
+    protected final double[] summation(VectorFdx fn, double lowerLimit, double stepSize,
+                                       int from, int to, int components) {
+        ForkJoinPool pool = this.pool;
+        if (this.summation == Summation.COMPENSATED) {
+            int leafSize = getLeafSize();
+            int leaves = (int) (((long) to - from + leafSize - 1) / leafSize);
+            double[] sums;
+            double[] compensations;
+            if (pool == null || to - from <= this.threshold) {
+                sums = new double[components];
+                compensations = new double[components];
+                compensatedSum(fn, lowerLimit, stepSize, from, to, leafSize, 0, leaves,
+                        sums, compensations, new double[2 * components * depth(leaves)], 0);
+            } else {
+                CompensatedVectorTask task = new CompensatedVectorTask(this, fn, lowerLimit, stepSize, from, to,
+                        leafSize, 0, leaves, this.threshold, components);
+                pool.invoke(task);
+                sums = task.sums;
+                compensations = task.compensations;
+            }
+            for (int j = 0; j < components; j++)
+                sums[j] += compensations[j];
+            return sums;
+        }
+        if (pool == null || to - from <= this.threshold) {
+            double[] sums = new double[components];
+            partialSum(fn, lowerLimit, stepSize, from, to, sums);
+            return sums;
+        }
+        return pool.invoke(new VectorSummationTask(this, fn, lowerLimit, stepSize,
+                from, to, this.threshold, components));
+    }
+
+    /**
+     * One of the functions of a {@link VectorFdx}, for the rules that
+     * don't solve the vector in one pass. The functions are calculated in
+     * an array of each thread, so it can be evaluated in a pool.
+     */
+    private static final class Component implements Fdx {
+
+        private final VectorFdx fn;
+
+        private final int index;
+
+        private final ThreadLocal<double[]> values;
+
+        Component(VectorFdx fn, int components, int index) {
+            this.fn = fn;
+            this.index = index;
+            this.values = ThreadLocal.withInitial(() -> new double[components]);
+        }
+
+        @Override
+        public double calculate(double x) {
+            double[] fx = values.get();
+            fn.calculate(x, fx);
+            return fx[index];
+        }
+
+    }
+
+    /**
+     * Task that splits a summation in two halves until the chunks are
+     * less than the threshold.
+     */
+    private static final class SummationTask extends RecursiveTask<Double> {
+
+        private final NumericalIntegration rule;
+
+        private final Fdx fn;
+
+        private final double lowerLimit;
+
+        private final double stepSize;
+
+        private final int from;
+
+        private final int to;
+
+        private final int threshold;
+
+        SummationTask(NumericalIntegration rule, Fdx fn, double lowerLimit,
+                      double stepSize, int from, int to, int threshold) {
+            this.rule = rule;
+            this.fn = fn;
+            this.lowerLimit = lowerLimit;
+            this.stepSize = stepSize;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Double compute() {
+            int modulus = rule.getModulus();
+            int middle = from + (to - from) / 2;
+            middle -= middle % modulus;
+            if (to - from <= threshold || middle <= from)
+                return rule.partialSum(fn, lowerLimit, stepSize, from, to);
+
+            SummationTask left = new SummationTask(rule, fn, lowerLimit, stepSize, from, middle, threshold);
+            SummationTask right = new SummationTask(rule, fn, lowerLimit, stepSize, middle, to, threshold);
+            left.fork();
+            double summation = right.compute();
+            return left.join() + summation;
+        }
+
+    }
+
+    /**
+     * Task that splits a vector summation in two halves until the chunks
+     * are less than the threshold, with the same chunks of {@link SummationTask}.
+     */
+    private static final class VectorSummationTask extends RecursiveTask<double[]> {
+
+        private final NumericalIntegration rule;
+
+        private final VectorFdx fn;
+
+        private final double lowerLimit;
+
+        private final double stepSize;
+
+        private final int from;
+
+        private final int to;
+
+        private final int threshold;
+
+        private final int components;
+
+        VectorSummationTask(NumericalIntegration rule, VectorFdx fn, double lowerLimit,
+                            double stepSize, int from, int to, int threshold, int components) {
+            this.rule = rule;
+            this.fn = fn;
+            this.lowerLimit = lowerLimit;
+            this.stepSize = stepSize;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.components = components;
+        }
+
+        @Override
+        protected double[] compute() {
+            int modulus = rule.getModulus();
+            int middle = from + (to - from) / 2;
+            middle -= middle % modulus;
+            if (to - from <= threshold || middle <= from) {
+                double[] sums = new double[components];
+                rule.partialSum(fn, lowerLimit, stepSize, from, to, sums);
+                return sums;
+            }
+
+            VectorSummationTask left = new VectorSummationTask(rule, fn, lowerLimit, stepSize,
+                    from, middle, threshold, components);
+            VectorSummationTask right = new VectorSummationTask(rule, fn, lowerLimit, stepSize,
+                    middle, to, threshold, components);
+            left.fork();
+            double[] summation = right.compute();
+            double[] sums = left.join();
+            for (int j = 0; j < components; j++)
+                sums[j] += summation[j];
+            return sums;
+        }
+
+    }
+
+    /**
+     * Task of the compensated summation of the leaves in {@code [first, last)},
+     * the halves are always split at the middle leaf and combined with an
+     * exact addition, so the tree doesn't depend on the pool. After the
+     * computation the result is {@code sum + compensation}.
+     */
+    private static final class CompensatedTask extends RecursiveAction {
+
+        private final NumericalIntegration rule;
+
+        private final Fdx fn;
+
+        private final double lowerLimit;
+
+        private final double stepSize;
+
+        private final int from;
+
+        private final int to;
+
+        private final int leafSize;
+
+        private final int first;
+
+        private final int last;
+
+        private final int threshold;
+
+        double sum;
+
+        double compensation;
+
+        CompensatedTask(NumericalIntegration rule, Fdx fn, double lowerLimit, double stepSize,
+                        int from, int to, int leafSize, int first, int last, int threshold) {
+            this.rule = rule;
+            this.fn = fn;
+            this.lowerLimit = lowerLimit;
+            this.stepSize = stepSize;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.first = first;
+            this.last = last;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first < 2 || (long) (last - first) * leafSize <= threshold) {
+                double[] node = new double[1];
+                sum = rule.compensatedSum(fn, lowerLimit, stepSize, from, to, leafSize, first, last, node);
+                compensation = node[0];
+                return;
+            }
+
+            int middle = first + (last - first) / 2;
+            CompensatedTask left = new CompensatedTask(rule, fn, lowerLimit, stepSize, from, to,
+                    leafSize, first, middle, threshold);
+            CompensatedTask right = new CompensatedTask(rule, fn, lowerLimit, stepSize, from, to,
+                    leafSize, middle, last, threshold);
+            left.fork();
+            right.compute();
+            left.join();
+
+            sum = left.sum + right.sum;
+            compensation = left.compensation + right.compensation + twoSumError(left.sum, right.sum, sum);
+        }
+
+    }
+
+    /**
+     * Task of the compensated summation of a vector, with the same tree of
+     * {@link CompensatedTask}, so each component has the same result.
+     */
+    private static final class CompensatedVectorTask extends RecursiveAction {
+
+        private final NumericalIntegration rule;
+
+        private final VectorFdx fn;
+
+        private final double lowerLimit;
+
+        private final double stepSize;
+
+        private final int from;
+
+        private final int to;
+
+        private final int leafSize;
+
+        private final int first;
+
+        private final int last;
+
+        private final int threshold;
+
+        final double[] sums;
+
+        final double[] compensations;
+
+        CompensatedVectorTask(NumericalIntegration rule, VectorFdx fn, double lowerLimit, double stepSize,
+                              int from, int to, int leafSize, int first, int last, int threshold, int components) {
+            this.rule = rule;
+            this.fn = fn;
+            this.lowerLimit = lowerLimit;
+            this.stepSize = stepSize;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.first = first;
+            this.last = last;
+            this.threshold = threshold;
+            this.sums = new double[components];
+            this.compensations = new double[components];
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first < 2 || (long) (last - first) * leafSize <= threshold) {
+                rule.compensatedSum(fn, lowerLimit, stepSize, from, to, leafSize, first, last,
+                        sums, compensations, new double[2 * sums.length * depth(last - first)], 0);
+                return;
+            }
+
+            int middle = first + (last - first) / 2;
+            CompensatedVectorTask left = new CompensatedVectorTask(rule, fn, lowerLimit, stepSize, from, to,
+                    leafSize, first, middle, threshold, sums.length);
+            CompensatedVectorTask right = new CompensatedVectorTask(rule, fn, lowerLimit, stepSize, from, to,
+                    leafSize, middle, last, threshold, sums.length);
+            left.fork();
+            right.compute();
+            left.join();
+
+            for (int j = 0; j < sums.length; j++) {
+                sums[j] = left.sums[j] + right.sums[j];
+                compensations[j] = left.compensations[j] + right.compensations[j]
+                        + twoSumError(left.sums[j], right.sums[j], sums[j]);
+            }
+        }
+
+    }
+
+    /**
+     * Calculate the compensated summation of the leaves in
+     * {@code [first, last)} sequentially, with the tree of
+     * {@link CompensatedTask} but without creating its nodes, so the result
+     * is the same bit for bit.
+     *
+     * @param fn           the function {@code f(x)}
+     * @param lowerLimit   the lower limit of an integral
+     * @param stepSize     the step size
+     * @param from         the first index of the summation, inclusive
+     * @param to           the last index of the summation, exclusive
+     * @param leafSize     the number of indexes of a leaf
+     * @param first        the first leaf, inclusive
+     * @param last         the last leaf, exclusive
+     * @param compensation the array where the compensation of the node is stored
+     *
+     * @return the sum of the node, without its compensation
+     */
+    private double compensatedSum(Fdx fn, double lowerLimit, double stepSize, int from, int to,
+                                  int leafSize, int first, int last, double[] compensation) {
+        compensation[0] = 0d;
+        if (last <= first)
+            return 0d;
+        if (last - first == 1) {
+            int start = from + first * leafSize;
+            return partialSum(fn, lowerLimit, stepSize, start, (int) Math.min(to, (long) start + leafSize));
+        }
+
+        int middle = first + (last - first) / 2;
+        double left = compensatedSum(fn, lowerLimit, stepSize, from, to, leafSize, first, middle, compensation);
+        double leftCompensation = compensation[0];
+        double right = compensatedSum(fn, lowerLimit, stepSize, from, to, leafSize, middle, last, compensation);
+        double sum = left + right;
+        compensation[0] = leftCompensation + compensation[0] + twoSumError(left, right, sum);
+        return sum;
+    }
+
+    /**
+     * Calculate the compensated summation of the leaves in
+     * {@code [first, last)} of a vector sequentially, with the tree of
+     * {@link CompensatedVectorTask} but without creating its nodes. The
+     * left half of each level is kept in the workspace while the right one
+     * is calculated.
+     *
+     * @param fn            the functions {@code f1(x), ..., fk(x)}
+     * @param lowerLimit    the lower limit of an integral
+     * @param stepSize      the step size
+     * @param from          the first index of the summation, inclusive
+     * @param to            the last index of the summation, exclusive
+     * @param leafSize      the number of indexes of a leaf
+     * @param first         the first leaf, inclusive
+     * @param last          the last leaf, exclusive
+     * @param sums          the array where the sums of the node are stored
+     * @param compensations the array where the compensations of the node are stored
+     * @param workspace     the {@code 2 * k} values of each level of the tree
+     * @param level         the level of the node
+     */
+    private void compensatedSum(VectorFdx fn, double lowerLimit, double stepSize, int from, int to,
+                                int leafSize, int first, int last, double[] sums, double[] compensations,
+                                double[] workspace, int level) {
+        int components = sums.length;
+        if (last - first < 2) {
+            Arrays.fill(sums, 0d);
+            Arrays.fill(compensations, 0d);
+            if (last > first) {
+                int start = from + first * leafSize;
+                partialSum(fn, lowerLimit, stepSize, start, (int) Math.min(to, (long) start + leafSize), sums);
+            }
+            return;
+        }
+
+        int middle = first + (last - first) / 2;
+        int offset = 2 * components * level;
+        compensatedSum(fn, lowerLimit, stepSize, from, to, leafSize, first, middle,
+                sums, compensations, workspace, level + 1);
+        System.arraycopy(sums, 0, workspace, offset, components);
+        System.arraycopy(compensations, 0, workspace, offset + components, components);
+        compensatedSum(fn, lowerLimit, stepSize, from, to, leafSize, middle, last,
+                sums, compensations, workspace, level + 1);
+        for (int j = 0; j < components; j++) {
+            double left = workspace[offset + j];
+            double sum = left + sums[j];
+            compensations[j] = workspace[offset + components + j] + compensations[j]
+                    + twoSumError(left, sums[j], sum);
+            sums[j] = sum;
+        }
+    }
+
+    /**
+     * Get the number of levels of the internal nodes of the tree of the
+     * given number of leaves.
+     *
+     * @param leaves the number of leaves
+     *
+     * @return the number of levels, at least 1
+     */
+    private static int depth(int leaves) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(leaves));
+    }
+
+    /**
+     * Calculate the rounding error of the addition {@code sum = a + b},
+     * so {@code a + b} is exactly {@code sum + error}.
+     *
+     * @param a   the first addend
+     * @param b   the second addend
+     * @param sum the rounded sum {@code a + b}
+     *
+     * @return the rounding error of the addition
+     * @see <a href="https://en.wikipedia.org/wiki/2Sum">2Sum</a>
+     */
+    private static double twoSumError(double a, double b, double sum) {
+        double bVirtual = sum - a;
+        double aVirtual = sum - bVirtual;
+        return (a - aVirtual) + (b - bVirtual);
+    }
 
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * The <strong>ParallelChunks</strong> class runs an action for each
+ * chunk of a range, sequentially or in a {@link ForkJoinPool}.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+final class ParallelChunks {
+
+    private ParallelChunks() {
+    }
+
+    /**
+     * Run the action for each chunk, sequentially or in the given pool.
+     *
+     * @param pool   the pool, or {@code null} to run sequentially
+     * @param chunks the number of chunks
+     * @param action the action of each chunk
+     */
+    static void forEach(ForkJoinPool pool, int chunks, IntConsumer action) {
+        if (pool == null || chunks == 1) {
+            for (int c = 0; c < chunks; c++)
+                action.accept(c);
+        } else if (chunks > 1) {
+            pool.invoke(new ChunkAction(action, 0, chunks));
+        }
+    }
+
+    /**
+     * Task that splits a range of chunks in two halves until a single
+     * chunk is left.
+     */
+    private static final class ChunkAction extends RecursiveAction {
+
+        private final IntConsumer action;
+
+        private final int from;
+
+        private final int to;
+
+        ChunkAction(IntConsumer action, int from, int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                action.accept(from);
+            } else {
+                int middle = from + (to - from) / 2;
+                invokeAll(new ChunkAction(action, from, middle), new ChunkAction(action, middle, to));
+            }
+        }
+
+    }
+
+}
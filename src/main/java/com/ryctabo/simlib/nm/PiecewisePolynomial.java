@@ -0,0 +1,240 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.Arrays;
+
+/**
+ * The <strong>PiecewisePolynomial</strong> class represents a function
+ * defined by a polynomial in each segment {@code [x_i, x_(i+1)]} of a
+ * sorted array of breakpoints, in the local form
+ * {@code c_i0 + c_i1 (x - x_i) + ... + c_id (x - x_i)^d}.
+ * <p>
+ * The coefficients of all segments are stored in a flat array, the
+ * {@code d + 1} coefficients of the segment {@code i} from the index
+ * {@code i (d + 1)}. The segment of a value is looked up with a binary
+ * search, and the values before the first breakpoint or after the last one
+ * are extrapolated with the first or the last segment.
+ * <p>
+ * The integrals from the first breakpoint to each breakpoint are calculated
+ * once, so an integral is exact and costs two lookups. A natural cubic
+ * spline is created with {@link #cubicSpline(double[], double[])}. It is
+ * immutable, so it can be shared by any number of threads.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Spline_(mathematics)">Spline</a>
+ */
+public final class PiecewisePolynomial implements IntegrableFdx {
+
+    /** The sorted breakpoints {@code x_0, ..., x_m}. */
+    private final double[] breakpoints;
+
+    /** The degree of the polynomials. */
+    private final int degree;
+
+    /** The coefficients of the segments. */
+    private final double[] coefficients;
+
+    /** The integrals from the first breakpoint to each breakpoint. */
+    private final double[] cumulative;
+
+    /**
+     * Create an instance of {@link PiecewisePolynomial} from the given
+     * parameters.
+     *
+     * @param breakpoints  the {@code m + 1} sorted breakpoints
+     * @param degree       the degree {@code d} of the polynomials
+     * @param coefficients the {@code m (d + 1)} coefficients of the segments
+     *
+     * @throws IllegalArgumentException if there are less than two
+     *                                  breakpoints, they aren't finite and
+     *                                  strictly increasing, the degree is
+     *                                  negative or the number of coefficients
+     *                                  isn't {@code m (d + 1)}
+     */
+    public PiecewisePolynomial(double[] breakpoints, int degree, double[] coefficients) {
+        validateBreakpoints(breakpoints);
+        if (degree < 0)
+            throw new IllegalArgumentException("The degree can't be negative.");
+        int segments = breakpoints.length - 1;
+        if (coefficients.length != (long) segments * (degree + 1))
+            throw new IllegalArgumentException("The number of coefficients has to be "
+                    + (long) segments * (degree + 1) + ".");
+
+        this.breakpoints = breakpoints.clone();
+        this.degree = degree;
+        this.coefficients = coefficients.clone();
+        this.cumulative = new double[breakpoints.length];
+        for (int i = 0; i < segments; i++) {
+            double width = this.breakpoints[i + 1] - this.breakpoints[i];
+            cumulative[i + 1] = cumulative[i]
+                    + Polynomial.antiderivative(this.coefficients, i * (degree + 1), degree + 1, width);
+        }
+    }
+
+    /**
+     * Create the natural cubic spline that interpolates the given points,
+     * the second derivative is zero at both ends.
+     *
+     * @param x the sorted abscissas
+     * @param y the ordinates
+     *
+     * @return the cubic spline
+     *
+     * @throws IllegalArgumentException if the arrays have different lengths,
+     *                                  there are less than two points or the
+     *                                  abscissas aren't finite and strictly
+     *                                  increasing
+     * @see <a href="https://en.wikipedia.org/wiki/Spline_interpolation">Spline interpolation</a>
+     */
+    public static PiecewisePolynomial cubicSpline(double[] x, double[] y) {
+        if (x.length != y.length)
+            throw new IllegalArgumentException("The abscissas and the ordinates have to have the same length.");
+        validateBreakpoints(x);
+
+        int segments = x.length - 1;
+        double[] widths = new double[segments];
+        double[] slopes = new double[segments];
+        for (int i = 0; i < segments; i++) {
+            widths[i] = x[i + 1] - x[i];
+            slopes[i] = (y[i + 1] - y[i]) / widths[i];
+        }
+
+        // the second derivatives of the inner points, with the Thomas algorithm
+        double[] secondDerivatives = new double[x.length];
+        double[] diagonal = new double[x.length];
+        double[] right = new double[x.length];
+        for (int i = 1; i < segments; i++) {
+            diagonal[i] = 2 * (widths[i - 1] + widths[i]);
+            right[i] = 6 * (slopes[i] - slopes[i - 1]);
+            if (i > 1) {
+                double factor = widths[i - 1] / diagonal[i - 1];
+                diagonal[i] -= factor * widths[i - 1];
+                right[i] -= factor * right[i - 1];
+            }
+        }
+        for (int i = segments - 1; i >= 1; i--)
+            secondDerivatives[i] = (right[i] - widths[i] * secondDerivatives[i + 1]) / diagonal[i];
+
+        double[] coefficients = new double[4 * segments];
+        for (int i = 0; i < segments; i++) {
+            double h = widths[i];
+            coefficients[4 * i] = y[i];
+            coefficients[4 * i + 1] = slopes[i] - h * (2 * secondDerivatives[i] + secondDerivatives[i + 1]) / 6;
+            coefficients[4 * i + 2] = secondDerivatives[i] / 2;
+            coefficients[4 * i + 3] = (secondDerivatives[i + 1] - secondDerivatives[i]) / (6 * h);
+        }
+        return new PiecewisePolynomial(x, 3, coefficients);
+    }
+
+    private static void validateBreakpoints(double[] breakpoints) {
+        if (breakpoints.length < 2)
+            throw new IllegalArgumentException("There have to be at least two breakpoints.");
+        for (int i = 0; i < breakpoints.length; i++) {
+            if (Double.isNaN(breakpoints[i]) || Double.isInfinite(breakpoints[i]))
+                throw new IllegalArgumentException("The breakpoints have to be finite.");
+            if (i > 0 && !(breakpoints[i - 1] < breakpoints[i]))
+                throw new IllegalArgumentException("The breakpoints have to be strictly increasing.");
+        }
+    }
+
+    /**
+     * Get the number of segments.
+     *
+     * @return the number of segments
+     */
+    public int getSegments() {
+        return breakpoints.length - 1;
+    }
+
+    /**
+     * Get the degree of the polynomials.
+     *
+     * @return the degree
+     */
+    public int getDegree() {
+        return degree;
+    }
+
+    /**
+     * Get a copy of the breakpoints.
+     *
+     * @return the breakpoints
+     */
+    public double[] getBreakpoints() {
+        return breakpoints.clone();
+    }
+
+    /**
+     * Get a copy of the coefficients of the segments.
+     *
+     * @return the coefficients
+     */
+    public double[] getCoefficients() {
+        return coefficients.clone();
+    }
+
+    /**
+     * Find the segment of a value with a binary search, the first or the
+     * last one outside of the breakpoints.
+     *
+     * @param x the value
+     *
+     * @return the index of the segment
+     */
+    int segment(double x) {
+        int index = Arrays.binarySearch(breakpoints, x);
+        if (index < 0)
+            index = -index - 2;
+        return Math.max(0, Math.min(index, breakpoints.length - 2));
+    }
+
+    @Override
+    public double calculate(double x) {
+        int i = segment(x);
+        return Polynomial.horner(coefficients, i * (degree + 1), degree + 1, x - breakpoints[i]);
+    }
+
+    /**
+     * Calculate the integral exactly, the difference of the antiderivative.
+     */
+    @Override
+    public double integrate(double lowerLimit, double upperLimit) {
+        return antiderivative(upperLimit) - antiderivative(lowerLimit);
+    }
+
+    /**
+     * Calculate the integral from the first breakpoint to the given value.
+     */
+    private double antiderivative(double x) {
+        int i = segment(x);
+        return cumulative[i]
+                + Polynomial.antiderivative(coefficients, i * (degree + 1), degree + 1, x - breakpoints[i]);
+    }
+
+    @Override
+    public String toString() {
+        return "PiecewisePolynomial{" +
+                "segments=" + getSegments() +
+                ", degree=" + degree +
+                ", lowerLimit=" + breakpoints[0] +
+                ", upperLimit=" + breakpoints[breakpoints.length - 1] +
+                '}';
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.Arrays;
+
+/**
+ * The <strong>Polynomial</strong> class represents a polynomial
+ * {@code c_0 + c_1 x + ... + c_n x^n} with its coefficients in a flat array.
+ * <p>
+ * The polynomial is evaluated with the Horner's method, and it is
+ * integrated and differentiated exactly on its coefficients. It is
+ * immutable, so it can be shared by any number of threads.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Horner%27s_method">Horner's method</a>
+ */
+public final class Polynomial implements IntegrableFdx {
+
+    /** The coefficients in ascending order of the powers. */
+    private final double[] coefficients;
+
+    /**
+     * Create an instance of {@link Polynomial} from its coefficients in
+     * ascending order of the powers, without coefficients it is zero.
+     *
+     * @param coefficients the coefficients {@code c_0, ..., c_n}
+     */
+    public Polynomial(double... coefficients) {
+        this.coefficients = coefficients.length == 0 ? new double[1] : coefficients.clone();
+    }
+
+    /**
+     * Get the degree of the polynomial, the number of coefficients minus one.
+     *
+     * @return the degree
+     */
+    public int getDegree() {
+        return coefficients.length - 1;
+    }
+
+    /**
+     * Get a copy of the coefficients of the polynomial.
+     *
+     * @return the coefficients {@code c_0, ..., c_n}
+     */
+    public double[] getCoefficients() {
+        return coefficients.clone();
+    }
+
+    @Override
+    public double calculate(double x) {
+        return horner(coefficients, 0, coefficients.length, x);
+    }
+
+    /**
+     * Calculate the integral exactly, the difference of the antiderivative.
+     */
+    @Override
+    public double integrate(double lowerLimit, double upperLimit) {
+        return antiderivative(coefficients, 0, coefficients.length, upperLimit)
+                - antiderivative(coefficients, 0, coefficients.length, lowerLimit);
+    }
+
+    /**
+     * Get the antiderivative of the polynomial that is zero at zero.
+     *
+     * @return the antiderivative, of one degree more
+     */
+    public Polynomial antiderivative() {
+        double[] integral = new double[coefficients.length + 1];
+        for (int k = 0; k < coefficients.length; k++)
+            integral[k + 1] = coefficients[k] / (k + 1);
+        return new Polynomial(integral);
+    }
+
+    /**
+     * Get the derivative of the polynomial.
+     *
+     * @return the derivative, of one degree less
+     */
+    public Polynomial derivative() {
+        double[] derivative = new double[Math.max(1, coefficients.length - 1)];
+        for (int k = 1; k < coefficients.length; k++)
+            derivative[k - 1] = k * coefficients[k];
+        return new Polynomial(derivative);
+    }
+
+    /**
+     * Evaluate the polynomial of the coefficients in
+     * {@code [offset, offset + length)} with the Horner's method.
+     */
+    static double horner(double[] coefficients, int offset, int length, double x) {
+        double result = 0d;
+        for (int k = offset + length - 1; k >= offset; k--)
+            result = result * x + coefficients[k];
+        return result;
+    }
+
+    /**
+     * Evaluate the antiderivative, zero at zero, of the polynomial of the
+     * coefficients in {@code [offset, offset + length)} with the Horner's
+     * method.
+     */
+    static double antiderivative(double[] coefficients, int offset, int length, double x) {
+        double result = 0d;
+        for (int k = length - 1; k >= 0; k--)
+            result = result * x + coefficients[offset + k] / (k + 1);
+        return result * x;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof Polynomial))
+            return false;
+        return Arrays.equals(coefficients, ((Polynomial) o).coefficients);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(coefficients);
+    }
+
+    @Override
+    public String toString() {
+        return "Polynomial" + Arrays.toString(coefficients);
+    }
+
+}
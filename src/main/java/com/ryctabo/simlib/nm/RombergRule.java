@@ -0,0 +1,224 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+/**
+ * The <strong>RombergRule</strong> class represents to the implementation
+ * of the Romberg's method for approximating to {@link DefiniteIntegral}.
+ * <p>
+ * Each level doubles the number of panels of the {@link TrapezoidalRule},
+ * evaluating only the new midpoints, and applies the Richardson
+ * extrapolation to the previous levels. The method stops when two
+ * successive diagonal entries agree to the tolerance, after at least two
+ * levels, or when the maximum number of levels is reached.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Romberg%27s_method">Romberg's method</a>
+ */
+public class RombergRule implements RuleX {
+
+    /** The default maximum number of levels. */
+    public static final int DEFAULT_MAX_LEVELS = 20;
+
+    /** The absolute tolerance of the result. */
+    private final double tolerance;
+
+    /** The maximum number of levels. */
+    private final int maxLevels;
+
+    /** The trapezoidal rule of the first level. */
+    private final TrapezoidalRule trapezoidalRule;
+
+    /** The listener notified after each solve, {@code null} is disabled. */
+    private volatile IntegrationListener listener;
+
+    /**
+     * Create an instance of {@link RombergRule} with the default maximum
+     * number of levels and one panel in the first level.
+     *
+     * @param tolerance the absolute tolerance of the result
+     */
+    public RombergRule(double tolerance) {
+        this(tolerance, DEFAULT_MAX_LEVELS, 1);
+    }
+
+    /**
+     * Create an instance of {@link RombergRule} from the given parameters.
+     *
+     * @param tolerance     the absolute tolerance of the result
+     * @param maxLevels     the maximum number of levels
+     * @param initialPanels the number of panels of the first level
+     *
+     * @throws IllegalArgumentException if the tolerance isn't positive, the
+     *                                  maximum number of levels is less than
+     *                                  1, the number of panels is less than 1
+     *                                  or the panels of the last level
+     *                                  overflow an {@code int}
+     */
+    public RombergRule(double tolerance, int maxLevels, int initialPanels) {
+        if (!(tolerance > 0))
+            throw new IllegalArgumentException("The tolerance has to be positive.");
+        if (maxLevels < 1)
+            throw new IllegalArgumentException("The maximum number of levels can't be less than 1.");
+        if (initialPanels < 1)
+            throw new IllegalArgumentException("The number of panels can't be less than 1.");
+        if (maxLevels > 30 || ((long) initialPanels << maxLevels) > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("The number of panels of the last level is too large.");
+
+        this.tolerance = tolerance;
+        this.maxLevels = maxLevels;
+        this.trapezoidalRule = new TrapezoidalRule(initialPanels);
+    }
+
+    /**
+     * Get the absolute tolerance of the result.
+     *
+     * @return the tolerance
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Get the maximum number of levels.
+     *
+     * @return the maximum number of levels
+     */
+    public int getMaxLevels() {
+        return maxLevels;
+    }
+
+    /**
+     * Get the number of panels of the first level.
+     *
+     * @return the number of panels
+     */
+    public int getInitialPanels() {
+        return trapezoidalRule.getIterations();
+    }
+
+    /**
+     * Get the listener notified after each solve.
+     *
+     * @return the listener, or {@code null} if it is disabled
+     */
+    public IntegrationListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Set the listener notified after each solve.
+     *
+     * @param listener the listener, or {@code null} to disable it
+     */
+    public void setListener(IntegrationListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public double solve(DefiniteIntegral integral) {
+        return integrate(integral).getValue();
+    }
+
+    @Override
+    public double solve(Fdx fn, double lowerLimit, double upperLimit) {
+        return integrate(fn, lowerLimit, upperLimit).getValue();
+    }
+
+    /**
+     * Solve the definite integral and returns its value together with the
+     * error estimate and the number of evaluations of the function.
+     *
+     * @param integral Integral {@code f(x)} with an interval {@code [a,b]}.
+     *
+     * @return the result of the integral
+     */
+    public IntegrationResult integrate(DefiniteIntegral integral) {
+        return integrate(integral.getFunction(), integral.getLowerLimit(), integral.getUpperLimit());
+    }
+
+    /**
+     * Solve the integral of {@code f(x)} in the interval {@code [a,b]}
+     * without creating a {@link DefiniteIntegral}.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     *
+     * @return the result of the integral
+     *
+     * @throws IllegalArgumentException if the lower limit is greater than
+     *                                  upper limit.
+     */
+    public IntegrationResult integrate(Fdx fn, double lowerLimit, double upperLimit) {
+        DefiniteIntegral.validateLimits(lowerLimit, upperLimit);
+        IntegrationListener listener = this.listener;
+        if (listener == null)
+            return compute(fn, lowerLimit, upperLimit);
+
+        long start = System.nanoTime();
+        IntegrationResult result = compute(fn, lowerLimit, upperLimit);
+        long nanos = System.nanoTime() - start;
+        listener.onSolve(new IntegrationEvent(this, 0, Double.NaN,
+                result.getEvaluations(), nanos, result.getErrorEstimate()));
+        return result;
+    }
+
+    /**
+     * Solve the integral without notifying the listener.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     *
+     * @return the result of the integral
+     */
+    private IntegrationResult compute(Fdx fn, double lowerLimit, double upperLimit) {
+        if (fn instanceof IntegrableFdx)
+            return new IntegrationResult(((IntegrableFdx) fn).integrate(lowerLimit, upperLimit), 0d, 0L);
+        int panels = trapezoidalRule.getIterations();
+        double[] previous = new double[maxLevels + 1];
+        double[] current = new double[maxLevels + 1];
+
+        current[0] = trapezoidalRule.solve(fn, lowerLimit, upperLimit);
+        long evaluations = panels + 1;
+        double error = Double.POSITIVE_INFINITY;
+
+        for (int level = 1; level <= maxLevels; level++) {
+            double[] row = previous;
+            previous = current;
+            current = row;
+
+            current[0] = trapezoidalRule.refine(fn, lowerLimit, upperLimit, panels, previous[0]);
+            evaluations += panels;
+            panels *= 2;
+
+            double factor = 1d;
+            for (int k = 1; k <= level; k++) {
+                factor *= 4;
+                current[k] = current[k - 1] + (current[k - 1] - previous[k - 1]) / (factor - 1);
+            }
+
+            error = Math.abs(current[level] - previous[level - 1]);
+            if (level > 1 && error <= tolerance)
+                return new IntegrationResult(current[level], error, evaluations);
+        }
+        return new IntegrationResult(current[maxLevels], error, evaluations);
+    }
+
+}
@@ -41,4 +41,27 @@ public interface RuleX {
      */
     double solve(DefiniteIntegral integral);
 
+    /**
+     * Returns a {@code double} value that represents the result of
+     * solving the integral of {@code f(x)} in the interval {@code [a,b]},
+     * without creating a {@link DefiniteIntegral}.
+     * <p>
+     * The default implementation creates the {@link DefiniteIntegral},
+     * the rules of this package override it to solve the integral
+     * without allocating objects, with the same result of
+     * {@link #solve(DefiniteIntegral)}.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     *
+     * @return result to solve the definite integral.
+     *
+     * @throws IllegalArgumentException if the lower limit is greater than
+     *                                  upper limit.
+     */
+    default double solve(Fdx fn, double lowerLimit, double upperLimit) {
+        return solve(new DefiniteIntegral(fn, lowerLimit, upperLimit));
+    }
+
 }
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static com.ryctabo.simlib.nm.StreamingIntegrator.Rule.SIMPSONS;
+import static com.ryctabo.simlib.nm.StreamingIntegrator.Rule.TRAPEZOIDAL;
+
+/**
+ * The <strong>SampledIntegration</strong> class contains the trapezoidal
+ * and Simpson's rules for sampled data, where the function {@code f(x)}
+ * is only known in a set of points.
+ * <p>
+ * The samples can be uniform, with a constant step between them, or
+ * non-uniform, with an array of abscissas. They are read from arrays,
+ * from {@link DoubleBuffer}s or from files of {@code double} values that
+ * are mapped in windows, so a file larger than the heap is integrated
+ * without copying it and with constant memory.
+ * <p>
+ * The samples are accumulated by a {@link StreamingIntegrator}, one by
+ * one with constant memory.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Simpson%27s_rule#Composite_Simpson's_rule_for_irregularly_spaced_data">
+ * Composite Simpson's rule for irregularly spaced data</a>
+ */
+public final class SampledIntegration {
+
+    /** The number of bytes of a window of a mapped file. */
+    static final int WINDOW_SIZE = 1 << 27;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private SampledIntegration() {
+        throw new UnsupportedOperationException("This class is not instantiable.");
+    }
+
+    /**
+     * Apply the trapezoidal rule to uniform samples.
+     *
+     * @param y        the values of the function
+     * @param stepSize the step between two samples
+     *
+     * @return the integral of the samples
+     */
+    public static double trapezoidal(double[] y, double stepSize) {
+        return trapezoidal(DoubleBuffer.wrap(y), stepSize);
+    }
+
+    /**
+     * Apply the trapezoidal rule to non-uniform samples.
+     *
+     * @param x the abscissas of the samples, in order
+     * @param y the values of the function
+     *
+     * @return the integral of the samples
+     *
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static double trapezoidal(double[] x, double[] y) {
+        return trapezoidal(DoubleBuffer.wrap(x), DoubleBuffer.wrap(y));
+    }
+
+    /**
+     * Apply the Simpson's rule to uniform samples.
+     *
+     * @param y        the values of the function
+     * @param stepSize the step between two samples
+     *
+     * @return the integral of the samples
+     */
+    public static double simpsons(double[] y, double stepSize) {
+        return simpsons(DoubleBuffer.wrap(y), stepSize);
+    }
+
+    /**
+     * Apply the Simpson's rule to non-uniform samples.
+     *
+     * @param x the abscissas of the samples, in order
+     * @param y the values of the function
+     *
+     * @return the integral of the samples
+     *
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static double simpsons(double[] x, double[] y) {
+        return simpsons(DoubleBuffer.wrap(x), DoubleBuffer.wrap(y));
+    }
+
+    /**
+     * Apply the trapezoidal rule to the remaining uniform samples of a
+     * buffer. The position of the buffer is not modified.
+     *
+     * @param y        the values of the function
+     * @param stepSize the step between two samples
+     *
+     * @return the integral of the samples
+     */
+    public static double trapezoidal(DoubleBuffer y, double stepSize) {
+        StreamingIntegrator integrator = new StreamingIntegrator(TRAPEZOIDAL);
+        accumulate(integrator, null, y, stepSize);
+        return integrator.result();
+    }
+
+    /**
+     * Apply the trapezoidal rule to the remaining non-uniform samples of
+     * two buffers. The positions of the buffers are not modified.
+     *
+     * @param x the abscissas of the samples, in order
+     * @param y the values of the function
+     *
+     * @return the integral of the samples
+     *
+     * @throws IllegalArgumentException if the buffers have different
+     *                                  remaining samples
+     */
+    public static double trapezoidal(DoubleBuffer x, DoubleBuffer y) {
+        StreamingIntegrator integrator = new StreamingIntegrator(TRAPEZOIDAL);
+        accumulate(integrator, x, y, 0d);
+        return integrator.result();
+    }
+
+    /**
+     * Apply the Simpson's rule to the remaining uniform samples of a
+     * buffer. The position of the buffer is not modified.
+     *
+     * @param y        the values of the function
+     * @param stepSize the step between two samples
+     *
+     * @return the integral of the samples
+     */
+    public static double simpsons(DoubleBuffer y, double stepSize) {
+        StreamingIntegrator integrator = new StreamingIntegrator(SIMPSONS);
+        accumulate(integrator, null, y, stepSize);
+        return integrator.result();
+    }
+
+    /**
+     * Apply the Simpson's rule to the remaining non-uniform samples of
+     * two buffers. The positions of the buffers are not modified.
+     *
+     * @param x the abscissas of the samples, in order
+     * @param y the values of the function
+     *
+     * @return the integral of the samples
+     *
+     * @throws IllegalArgumentException if the buffers have different
+     *                                  remaining samples
+     */
+    public static double simpsons(DoubleBuffer x, DoubleBuffer y) {
+        StreamingIntegrator integrator = new StreamingIntegrator(SIMPSONS);
+        accumulate(integrator, x, y, 0d);
+        return integrator.result();
+    }
+
+    /**
+     * Apply the trapezoidal rule to a file of uniform samples, stored as
+     * {@code double} values with the given byte order.
+     *
+     * @param y        the channel of the values of the function
+     * @param order    the byte order of the file
+     * @param stepSize the step between two samples
+     *
+     * @return the integral of the samples
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public static double trapezoidal(FileChannel y, ByteOrder order, double stepSize) throws IOException {
+        return trapezoidal(y, order, stepSize, WINDOW_SIZE);
+    }
+
+    /**
+     * Apply the trapezoidal rule to two files of non-uniform samples,
+     * stored as {@code double} values with the given byte order.
+     *
+     * @param x     the channel of the abscissas of the samples, in order
+     * @param y     the channel of the values of the function
+     * @param order the byte order of the files
+     *
+     * @return the integral of the samples
+     *
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if the files have different sizes
+     */
+    public static double trapezoidal(FileChannel x, FileChannel y, ByteOrder order) throws IOException {
+        StreamingIntegrator integrator = new StreamingIntegrator(TRAPEZOIDAL);
+        accumulate(integrator, x, y, order, 0d, WINDOW_SIZE);
+        return integrator.result();
+    }
+
+    /**
+     * Apply the Simpson's rule to a file of uniform samples, stored as
+     * {@code double} values with the given byte order.
+     *
+     * @param y        the channel of the values of the function
+     * @param order    the byte order of the file
+     * @param stepSize the step between two samples
+     *
+     * @return the integral of the samples
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public static double simpsons(FileChannel y, ByteOrder order, double stepSize) throws IOException {
+        StreamingIntegrator integrator = new StreamingIntegrator(SIMPSONS);
+        accumulate(integrator, null, y, order, stepSize, WINDOW_SIZE);
+        return integrator.result();
+    }
+
+    /**
+     * Apply the Simpson's rule to two files of non-uniform samples,
+     * stored as {@code double} values with the given byte order.
+     *
+     * @param x     the channel of the abscissas of the samples, in order
+     * @param y     the channel of the values of the function
+     * @param order the byte order of the files
+     *
+     * @return the integral of the samples
+     *
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if the files have different sizes
+     */
+    public static double simpsons(FileChannel x, FileChannel y, ByteOrder order) throws IOException {
+        return simpsons(x, y, order, WINDOW_SIZE);
+    }
+
+    /**
+     * Apply the trapezoidal rule to a file of uniform samples, mapped in
+     * windows of the given size.
+     *
+     * @param y          the channel of the values of the function
+     * @param order      the byte order of the file
+     * @param stepSize   the step between two samples
+     * @param windowSize the number of bytes of a window, a multiple of 8
+     *
+     * @return the integral of the samples
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    static double trapezoidal(FileChannel y, ByteOrder order, double stepSize, int windowSize) throws IOException {
+        StreamingIntegrator integrator = new StreamingIntegrator(TRAPEZOIDAL);
+        accumulate(integrator, null, y, order, stepSize, windowSize);
+        return integrator.result();
+    }
+
+    /**
+     * Apply the Simpson's rule to two files of non-uniform samples, mapped
+     * in windows of the given size.
+     *
+     * @param x          the channel of the abscissas of the samples, in order
+     * @param y          the channel of the values of the function
+     * @param order      the byte order of the files
+     * @param windowSize the number of bytes of a window, a multiple of 8
+     *
+     * @return the integral of the samples
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    static double simpsons(FileChannel x, FileChannel y, ByteOrder order, int windowSize) throws IOException {
+        StreamingIntegrator integrator = new StreamingIntegrator(SIMPSONS);
+        accumulate(integrator, x, y, order, 0d, windowSize);
+        return integrator.result();
+    }
+
+    /**
+     * Accumulate the remaining samples of the buffers.
+     *
+     * @param integrator  the integrator of the rule
+     * @param x           the abscissas, or {@code null} for uniform samples
+     * @param y           the values of the function
+     * @param stepSize    the step between two uniform samples
+     */
+    private static void accumulate(StreamingIntegrator integrator, DoubleBuffer x, DoubleBuffer y, double stepSize) {
+        int start = y.position();
+        int length = y.remaining();
+        if (x == null) {
+            long offset = integrator.getCount();
+            for (int i = 0; i < length; i++)
+                integrator.accept((offset + i) * stepSize, y.get(start + i));
+        } else {
+            if (x.remaining() != length)
+                throw new IllegalArgumentException("The abscissas and values have different lengths.");
+            int xStart = x.position();
+            for (int i = 0; i < length; i++)
+                integrator.accept(x.get(xStart + i), y.get(start + i));
+        }
+    }
+
+    /**
+     * Accumulate the samples of the files, mapping them in windows.
+     *
+     * @param integrator  the integrator of the rule
+     * @param x           the abscissas, or {@code null} for uniform samples
+     * @param y           the values of the function
+     * @param order       the byte order of the files
+     * @param stepSize    the step between two uniform samples
+     * @param windowSize  the number of bytes of a window
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private static void accumulate(StreamingIntegrator integrator, FileChannel x, FileChannel y,
+                                   ByteOrder order, double stepSize, int windowSize) throws IOException {
+        long size = y.size() - y.size() % Double.BYTES;
+        if (x != null && x.size() - x.size() % Double.BYTES != size)
+            throw new IllegalArgumentException("The abscissas and values have different lengths.");
+
+        for (long position = 0; position < size; position += windowSize) {
+            long length = Math.min(windowSize, size - position);
+            DoubleBuffer values = map(y, position, length, order);
+            DoubleBuffer abscissas = x == null ? null : map(x, position, length, order);
+            accumulate(integrator, abscissas, values, stepSize);
+        }
+    }
+
+    /**
+     * Map a window of a file as a buffer of {@code double} values.
+     *
+     * @param channel  the channel of the file
+     * @param position the position of the window
+     * @param length   the length of the window
+     * @param order    the byte order of the file
+     *
+     * @return the buffer of the window
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private static DoubleBuffer map(FileChannel channel, long position, long length,
+                                    ByteOrder order) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        return buffer.order(order).asDoubleBuffer();
+    }
+
+}
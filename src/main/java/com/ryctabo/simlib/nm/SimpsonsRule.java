@@ -63,7 +63,7 @@ public class SimpsonsRule extends NumericalIntegration {
     }
 
     /** The composite of Simpson's rule. */
-    private Composite composite = Composite.MAIN;
+    private final Composite composite;
 
     /**
      * Create an instance of {@link SimpsonsRule} from the given
@@ -72,8 +72,7 @@ public class SimpsonsRule extends NumericalIntegration {
      * @param iterations number of iterations
      */
     public SimpsonsRule(int iterations) {
-        super(iterations);
-        validateIterations();
+        this(iterations, Composite.MAIN);
     }
 
     /**
@@ -90,7 +89,7 @@ public class SimpsonsRule extends NumericalIntegration {
             throw new NullPointerException("The composite can't be null");
 
         this.composite = composite;
-        validateIterations();
+        validateIterations(iterations);
     }
 
     /**
@@ -104,19 +103,21 @@ public class SimpsonsRule extends NumericalIntegration {
 
     @Override
     public void setIterations(int iterations) {
+        validateIterations(iterations);
         super.setIterations(iterations);
-        validateIterations();
     }
 
     /**
      * Validate if the number of iterations is valid for
      * apply the Simpson's rule.
      *
+     * @param iterations number of iterations
+     *
      * @throws ArithmeticException if the number of iterations are invalid to
      *                             apply the Simpson's rule
      */
-    private void validateIterations() {
-        if (this.iterations % this.composite.modulus != 0) {
+    private void validateIterations(int iterations) {
+        if (iterations % this.composite.modulus != 0) {
             final String formatter = "The number of iterations has to bea module of %d";
             throw new ArithmeticException(String.format(formatter, this.composite.modulus));
         }
@@ -125,34 +126,142 @@ public class SimpsonsRule extends NumericalIntegration {
     /**
      * Implementation of {@link SimpsonsRule} method.
      *
-     * @param di definite integral
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     * @param iterations number of iterations
+     * @param stepSize   step size
      *
      * @return {@code double} value, result of applying the implementation
      * of Simpson's rule.
      */
     @Override
-    protected double solveImplementation(DefiniteIntegral di) {
-        Fdx fn = di.getFunction();
+    protected double solveImplementation(Fdx fn, double lowerLimit, double upperLimit,
+                                         int iterations, double stepSize) {
+        double fdx0 = fn.calculate(lowerLimit);
+        double fdxN = fn.calculate(upperLimit);
+        return solveImplementation(fn, lowerLimit, upperLimit, fdx0, fdxN, iterations, stepSize);
+    }
 
-        double summation = 0d;
-        for (int i = 1; i <= this.iterations - 1; i++) {
-            int multiplier = i % this.composite.modulus == 0 ? this.composite.m2 : this.composite.m1;
-            summation += multiplier * fn.calculate(di.getLowerLimit() + i * getStepSize());
+    @Override
+    protected double solveImplementation(Fdx fn, double lowerLimit, double upperLimit,
+                                         double fdx0, double fdxN, int iterations, double stepSize) {
+        double summation = summation(fn, lowerLimit, stepSize, 1, iterations);
+
+        double multiplier = 0d;
+        switch (this.composite) {
+            case MAIN:
+                multiplier = stepSize / 3;
+                break;
+            case THREE_EIGHTHS:
+                multiplier = 3 * stepSize / 8;
+                break;
         }
+        return multiplier * (fdx0 + summation + fdxN);
+    }
 
-        double fdx0 = fn.calculate(di.getLowerLimit());
-        double fdxN = fn.calculate(di.getUpperLimit());
+    @Override
+    protected void solveImplementation(VectorFdx fn, double lowerLimit, double upperLimit,
+                                       int iterations, double stepSize, double[] result) {
+        int components = result.length;
+        double[] summation = summation(fn, lowerLimit, stepSize, 1, iterations, components);
+
+        double[] fdx0 = new double[components];
+        double[] fdxN = new double[components];
+        fn.calculate(lowerLimit, fdx0);
+        fn.calculate(upperLimit, fdxN);
 
         double multiplier = 0d;
         switch (this.composite) {
             case MAIN:
-                multiplier = getStepSize() / 3;
+                multiplier = stepSize / 3;
                 break;
             case THREE_EIGHTHS:
-                multiplier = 3 * getStepSize() / 8;
+                multiplier = 3 * stepSize / 8;
                 break;
         }
-        return multiplier * (fdx0 + summation + fdxN);
+        for (int j = 0; j < components; j++)
+            result[j] = multiplier * (fdx0[j] + summation[j] + fdxN[j]);
+    }
+
+    /**
+     * The chunks of a parallel summation are aligned to the modulus of
+     * the composite, so each chunk keeps the weights of the sequential
+     * summation.
+     *
+     * @return the modulus of the composite
+     */
+    @Override
+    protected int getModulus() {
+        return this.composite.modulus;
+    }
+
+    /**
+     * The error decreases as {@code h^4}.
+     */
+    @Override
+    protected int getConvergenceOrder() {
+        return 4;
+    }
+
+    @Override
+    protected boolean evaluatesLimits() {
+        return true;
+    }
+
+    @Override
+    protected double partialSum(Fdx fn, double lowerLimit, double stepSize, int from, int to) {
+        if (fn instanceof BulkFdx)
+            return bulkPartialSum((BulkFdx) fn, lowerLimit, stepSize, from, to);
+
+        double summation = 0d;
+        for (int i = from; i < to; i++) {
+            int multiplier = i % this.composite.modulus == 0 ? this.composite.m2 : this.composite.m1;
+            summation += multiplier * fn.calculate(lowerLimit + i * stepSize);
+        }
+        return summation;
+    }
+
+    @Override
+    protected void partialSum(VectorFdx fn, double lowerLimit, double stepSize, int from, int to, double[] sums) {
+        double[] fx = new double[sums.length];
+        for (int i = from; i < to; i++) {
+            int multiplier = i % this.composite.modulus == 0 ? this.composite.m2 : this.composite.m1;
+            fn.calculate(lowerLimit + i * stepSize, fx);
+            for (int j = 0; j < sums.length; j++)
+                sums[j] += multiplier * fx[j];
+        }
+    }
+
+    /**
+     * Calculate the weighted sum of the indexes in {@code [from, to)}
+     * evaluating the function in blocks.
+     *
+     * @param fn         the bulk function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param stepSize   the step size
+     * @param from       the first index, inclusive
+     * @param to         the last index, exclusive
+     *
+     * @return the weighted sum of the given indexes
+     */
+    private double bulkPartialSum(BulkFdx fn, double lowerLimit, double stepSize, int from, int to) {
+        double[] x = new double[BLOCK_SIZE];
+        double[] fx = new double[BLOCK_SIZE];
+
+        double summation = 0d;
+        for (int start = from; start < to; start += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, to - start);
+            for (int j = 0; j < length; j++)
+                x[j] = lowerLimit + (start + j) * stepSize;
+
+            fn.calculate(x, fx, length);
+            for (int j = 0; j < length; j++) {
+                int multiplier = (start + j) % this.composite.modulus == 0 ? this.composite.m2 : this.composite.m1;
+                summation += multiplier * fx[j];
+            }
+        }
+        return summation;
     }
 
 }
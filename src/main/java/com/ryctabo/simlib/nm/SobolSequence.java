@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+/**
+ * The <strong>SobolSequence</strong> class represents the direction
+ * numbers of the Sobol low-discrepancy sequence, with the primitive
+ * polynomials and initial numbers of Joe and Kuo, and 32 bits of
+ * precision.
+ * <p>
+ * The points are generated in Gray code order: the point {@code i + 1}
+ * is the point {@code i} with one direction number xored in each
+ * dimension.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://web.maths.unsw.edu.au/~fkuo/sobol/">Sobol sequence generator</a>
+ */
+final class SobolSequence {
+
+    /** The number of bits of the direction numbers. */
+    static final int BITS = 32;
+
+    /** The degree, coefficients and initial numbers of each dimension after the first. */
+    private static final int[][] PARAMETERS = {
+            {1, 0, 1},
+            {2, 1, 1, 3},
+            {3, 1, 1, 3, 1},
+            {3, 2, 1, 1, 1},
+            {4, 1, 1, 1, 3, 3},
+            {4, 4, 1, 3, 5, 13},
+            {5, 2, 1, 1, 5, 5, 17},
+            {5, 4, 1, 1, 5, 5, 5},
+            {5, 7, 1, 1, 7, 11, 19},
+            {5, 11, 1, 1, 5, 1, 1},
+            {5, 13, 1, 1, 1, 3, 11},
+            {5, 14, 1, 3, 5, 5, 31},
+            {6, 1, 1, 3, 3, 9, 7, 49},
+            {6, 13, 1, 1, 1, 15, 21, 21},
+            {6, 16, 1, 3, 1, 13, 27, 49}
+    };
+
+    /** The maximum number of dimensions. */
+    static final int MAX_DIMENSIONS = PARAMETERS.length + 1;
+
+    /** The direction numbers of each dimension and bit. */
+    private final int[][] directions;
+
+    /**
+     * Create an instance of {@link SobolSequence}.
+     *
+     * @param dimensions the number of dimensions
+     *
+     * @throws IllegalArgumentException if the number of dimensions is out of
+     *                                  {@code [1, MAX_DIMENSIONS]}
+     */
+    SobolSequence(int dimensions) {
+        if (dimensions < 1 || dimensions > MAX_DIMENSIONS)
+            throw new IllegalArgumentException("The number of dimensions of the Sobol sequence " +
+                    "has to be in [1, " + MAX_DIMENSIONS + "].");
+
+        this.directions = new int[dimensions][BITS];
+        for (int k = 0; k < BITS; k++)
+            directions[0][k] = 1 << (BITS - 1 - k);
+
+        for (int j = 1; j < dimensions; j++) {
+            int[] parameters = PARAMETERS[j - 1];
+            int degree = parameters[0];
+            int coefficients = parameters[1];
+            int[] v = directions[j];
+            for (int k = 0; k < Math.min(degree, BITS); k++)
+                v[k] = parameters[2 + k] << (BITS - 1 - k);
+            for (int k = degree; k < BITS; k++) {
+                v[k] = v[k - degree] ^ (v[k - degree] >>> degree);
+                for (int l = 1; l < degree; l++) {
+                    if (((coefficients >>> (degree - 1 - l)) & 1) != 0)
+                        v[k] ^= v[k - l];
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the state of the point with the given index.
+     *
+     * @param index the index of the point, less than {@code 2^32}
+     * @param state the bits of each dimension of the point
+     */
+    void seek(long index, int[] state) {
+        long gray = index ^ (index >>> 1);
+        for (int j = 0; j < directions.length; j++) {
+            int bits = 0;
+            for (int k = 0; k < BITS; k++) {
+                if (((gray >>> k) & 1L) != 0)
+                    bits ^= directions[j][k];
+            }
+            state[j] = bits;
+        }
+    }
+
+    /**
+     * Move the state of the point with the given index to the next point.
+     *
+     * @param index the index of the current point
+     * @param state the bits of each dimension of the point
+     */
+    void next(long index, int[] state) {
+        int bit = Long.numberOfTrailingZeros(~index);
+        for (int j = 0; j < directions.length; j++)
+            state[j] ^= directions[j][bit];
+    }
+
+    /**
+     * Convert the bits of a dimension to a value in {@code [0, 1)}.
+     *
+     * @param bits the bits of a dimension
+     *
+     * @return the value
+     */
+    static double toDouble(int bits) {
+        return (bits & 0xFFFFFFFFL) * 0x1.0p-32;
+    }
+
+}
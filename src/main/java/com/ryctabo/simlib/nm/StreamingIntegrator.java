@@ -0,0 +1,314 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * The <strong>StreamingIntegrator</strong> class represents an integral
+ * of samples {@code (x, y)} that arrive one by one, in order of {@code x}.
+ * <p>
+ * The running integral is kept with constant memory: the two first and the
+ * three last samples, and the partial sums of the rule. Two integrators of
+ * consecutive samples can be {@link #merge(StreamingIntegrator) merged}, so
+ * they can be used as a {@link Collector} of a parallel stream.
+ * <p>
+ * The Simpson's rule is applied to each pair of intervals, for uniform or
+ * non-uniform samples, and if the number of intervals is odd the last one
+ * is corrected with the three last samples. To merge the pairs of two
+ * integrators, the sums of the pairs that start in even and odd samples
+ * are both kept.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class StreamingIntegrator {
+
+    /**
+     * Represents the rule applied to the samples.
+     */
+    public enum Rule {
+
+        /** The trapezoidal rule. */
+        TRAPEZOIDAL,
+
+        /** The Simpson's rule. */
+        SIMPSONS
+
+    }
+
+    /** The rule applied to the samples. */
+    private final Rule rule;
+
+    /** The number of samples. */
+    private long count;
+
+    /** The abscissas of the two first samples. */
+    private final double[] firstX = new double[2];
+
+    /** The values of the two first samples. */
+    private final double[] firstY = new double[2];
+
+    /** The abscissas of the three last samples, the last one at the end. */
+    private final double[] lastX = new double[3];
+
+    /** The values of the three last samples, the last one at the end. */
+    private final double[] lastY = new double[3];
+
+    /** The trapezoidal sum, or the Simpson's sums of pairs that start in even and odd samples. */
+    private final double[] sums = new double[2];
+
+    /**
+     * Create an instance of {@link StreamingIntegrator}.
+     *
+     * @param rule the rule applied to the samples
+     */
+    public StreamingIntegrator(Rule rule) {
+        if (rule == null)
+            throw new NullPointerException("The rule can't be null");
+        this.rule = rule;
+    }
+
+    /**
+     * Returns a {@link Collector} that integrates the elements of a stream,
+     * in encounter order.
+     *
+     * @param rule the rule applied to the samples
+     * @param x    the function that gets the abscissa of an element
+     * @param y    the function that gets the value of an element
+     * @param <T>  the type of the elements
+     *
+     * @return the collector of the integral
+     */
+    public static <T> Collector<T, StreamingIntegrator, Double> collector(Rule rule,
+                                                                         ToDoubleFunction<? super T> x,
+                                                                         ToDoubleFunction<? super T> y) {
+        return Collector.of(
+                () -> new StreamingIntegrator(rule),
+                (integrator, element) -> integrator.accept(x.applyAsDouble(element), y.applyAsDouble(element)),
+                StreamingIntegrator::merge,
+                StreamingIntegrator::result);
+    }
+
+    /**
+     * Get the rule applied to the samples.
+     *
+     * @return the rule
+     */
+    public Rule getRule() {
+        return rule;
+    }
+
+    /**
+     * Get the number of samples.
+     *
+     * @return the number of samples
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Accumulate a sample.
+     *
+     * @param x the abscissa of the sample
+     * @param y the value of the function
+     */
+    public void accept(double x, double y) {
+        if (count < 2) {
+            firstX[(int) count] = x;
+            firstY[(int) count] = y;
+        }
+        push(x, y);
+
+        if (count > 0 && rule == Rule.TRAPEZOIDAL)
+            sums[0] += trapezoid(lastX[1], lastY[1], x, y);
+        else if (count > 1 && rule == Rule.SIMPSONS)
+            sums[(int) (count & 1)] += simpson(lastX[0], lastY[0], lastX[1], lastY[1], x, y);
+        count++;
+    }
+
+    /**
+     * Accumulate a batch of samples.
+     *
+     * @param x the abscissas of the samples
+     * @param y the values of the function
+     *
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public void accept(double[] x, double[] y) {
+        if (x.length != y.length)
+            throw new IllegalArgumentException("The abscissas and values have different lengths.");
+        for (int i = 0; i < x.length; i++)
+            accept(x[i], y[i]);
+    }
+
+    /**
+     * Append the samples of other integrator, that follow the samples of
+     * this one.
+     *
+     * @param other the integrator of the next samples
+     *
+     * @return this integrator
+     *
+     * @throws IllegalArgumentException if the rules are different
+     */
+    public StreamingIntegrator merge(StreamingIntegrator other) {
+        if (other.rule != this.rule)
+            throw new IllegalArgumentException("The rules of the integrators are different.");
+        if (other.count == 0)
+            return this;
+        if (this.count == 0) {
+            copy(other);
+            return this;
+        }
+
+        long m = this.count;
+        if (rule == Rule.TRAPEZOIDAL) {
+            sums[0] += other.sums[0] + trapezoid(lastX[2], lastY[2], other.firstX[0], other.firstY[0]);
+        } else {
+            double even = mergedSum(0, other);
+            double odd = mergedSum(1, other);
+            sums[0] = even;
+            sums[1] = odd;
+        }
+
+        if (m == 1) {
+            firstX[1] = other.firstX[0];
+            firstY[1] = other.firstY[0];
+        }
+        for (int i = (int) (3 - Math.min(other.count, 3)); i < 3; i++)
+            push(other.lastX[i], other.lastY[i]);
+        count += other.count;
+        return this;
+    }
+
+    /**
+     * Get the integral of the accumulated samples.
+     *
+     * @return the integral
+     */
+    public double result() {
+        if (count < 2)
+            return 0d;
+        if (rule == Rule.TRAPEZOIDAL)
+            return sums[0];
+        if (count == 2)
+            return trapezoid(lastX[1], lastY[1], lastX[2], lastY[2]);
+        if (count % 2 == 1)
+            return sums[0];
+
+        double h0 = lastX[1] - lastX[0];
+        double h1 = lastX[2] - lastX[1];
+        double alpha = (2 * h1 * h1 + 3 * h1 * h0) / (6 * (h0 + h1));
+        double beta = (h1 * h1 + 3 * h1 * h0) / (6 * h0);
+        double eta = h1 * h1 * h1 / (6 * h0 * (h0 + h1));
+        return sums[0] + alpha * lastY[2] + beta * lastY[1] - eta * lastY[0];
+    }
+
+    /**
+     * Calculate the Simpson's sum of the pairs that start in samples of the
+     * given parity, after appending the samples of other integrator. It is
+     * the sum of the pairs of both integrators plus the pair that crosses
+     * between them.
+     *
+     * @param parity the parity of the first sample of the pairs
+     * @param other  the integrator of the next samples
+     *
+     * @return the merged sum
+     */
+    private double mergedSum(int parity, StreamingIntegrator other) {
+        long m = this.count;
+        double summation = sums[parity] + other.sums[(int) ((parity + m) & 1)];
+        if ((m & 1) == parity) {
+            if (m >= 2)
+                summation += simpson(lastX[1], lastY[1], lastX[2], lastY[2], other.firstX[0], other.firstY[0]);
+        } else if (other.count >= 2) {
+            summation += simpson(lastX[2], lastY[2], other.firstX[0], other.firstY[0],
+                    other.firstX[1], other.firstY[1]);
+        }
+        return summation;
+    }
+
+    /**
+     * Shift the last samples and put the given sample at the end.
+     *
+     * @param x the abscissa of the sample
+     * @param y the value of the function
+     */
+    private void push(double x, double y) {
+        lastX[0] = lastX[1];
+        lastY[0] = lastY[1];
+        lastX[1] = lastX[2];
+        lastY[1] = lastY[2];
+        lastX[2] = x;
+        lastY[2] = y;
+    }
+
+    /**
+     * Copy the state of other integrator.
+     *
+     * @param other the other integrator
+     */
+    private void copy(StreamingIntegrator other) {
+        count = other.count;
+        System.arraycopy(other.firstX, 0, firstX, 0, 2);
+        System.arraycopy(other.firstY, 0, firstY, 0, 2);
+        System.arraycopy(other.lastX, 0, lastX, 0, 3);
+        System.arraycopy(other.lastY, 0, lastY, 0, 3);
+        System.arraycopy(other.sums, 0, sums, 0, 2);
+    }
+
+    /**
+     * Apply the trapezoidal rule to an interval.
+     *
+     * @param x0 the abscissa of the first sample
+     * @param y0 the value of the first sample
+     * @param x1 the abscissa of the second sample
+     * @param y1 the value of the second sample
+     *
+     * @return the integral of the interval
+     */
+    private static double trapezoid(double x0, double y0, double x1, double y1) {
+        return (x1 - x0) * (y0 + y1) / 2;
+    }
+
+    /**
+     * Apply the Simpson's rule to a pair of intervals, that can have
+     * different lengths.
+     *
+     * @param x0 the abscissa of the first sample
+     * @param y0 the value of the first sample
+     * @param x1 the abscissa of the second sample
+     * @param y1 the value of the second sample
+     * @param x2 the abscissa of the third sample
+     * @param y2 the value of the third sample
+     *
+     * @return the integral of the pair of intervals
+     */
+    private static double simpson(double x0, double y0, double x1, double y1, double x2, double y2) {
+        double h0 = x1 - x0;
+        double h1 = x2 - x1;
+        return (h0 + h1) / 6 * ((2 - h1 / h0) * y0
+                + (h0 + h1) * (h0 + h1) / (h0 * h1) * y1
+                + (2 - h0 / h1) * y2);
+    }
+
+}
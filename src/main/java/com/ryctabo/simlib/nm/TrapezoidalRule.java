@@ -39,24 +39,144 @@ public class TrapezoidalRule extends NumericalIntegration {
     /**
      * Implementation of {@link TrapezoidalRule} method.
      *
-     * @param di definite integral
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     * @param iterations number of iterations
+     * @param stepSize   step size
      *
      * @return {@code double} value, result of applying the implementation
      * of trapezoidal rule.
      */
     @Override
-    protected double solveImplementation(DefiniteIntegral di) {
-        Fdx fn = di.getFunction();
+    protected double solveImplementation(Fdx fn, double lowerLimit, double upperLimit,
+                                         int iterations, double stepSize) {
+        double fdx0 = fn.calculate(lowerLimit);
+        double fdxN = fn.calculate(upperLimit);
+        return solveImplementation(fn, lowerLimit, upperLimit, fdx0, fdxN, iterations, stepSize);
+    }
+
+    @Override
+    protected double solveImplementation(Fdx fn, double lowerLimit, double upperLimit,
+                                         double fdx0, double fdxN, int iterations, double stepSize) {
+        double summation = summation(fn, lowerLimit, stepSize, 1, iterations);
+
+        return stepSize / 2 * (fdx0 + summation + fdxN);
+    }
+
+    @Override
+    protected void solveImplementation(VectorFdx fn, double lowerLimit, double upperLimit,
+                                       int iterations, double stepSize, double[] result) {
+        int components = result.length;
+        double[] summation = summation(fn, lowerLimit, stepSize, 1, iterations, components);
+
+        double[] fdx0 = new double[components];
+        double[] fdxN = new double[components];
+        fn.calculate(lowerLimit, fdx0);
+        fn.calculate(upperLimit, fdxN);
+
+        for (int j = 0; j < components; j++)
+            result[j] = stepSize / 2 * (fdx0[j] + summation[j] + fdxN[j]);
+    }
+
+    /**
+     * Refine the result of the trapezoidal rule with {@code panels} panels
+     * to the result with {@code 2 * panels} panels. Only the new midpoints
+     * are evaluated, the previous result keeps the values of the function
+     * that were already calculated.
+     *
+     * @param di       definite integral
+     * @param panels   the number of panels of the previous result
+     * @param previous the previous result
+     *
+     * @return the result of the trapezoidal rule with {@code 2 * panels} panels
+     */
+    public double refine(DefiniteIntegral di, int panels, double previous) {
+        return refine(di.getFunction(), di.getLowerLimit(), di.getUpperLimit(), panels, previous);
+    }
+
+    /**
+     * Refine the result of the trapezoidal rule of {@code f(x)} in the
+     * interval {@code [a,b]} without creating a {@link DefiniteIntegral}.
+     *
+     * @param fn         the function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param upperLimit the upper limit of an integral
+     * @param panels     the number of panels of the previous result
+     * @param previous   the previous result
+     *
+     * @return the result of the trapezoidal rule with {@code 2 * panels} panels
+     *
+     * @see #refine(DefiniteIntegral, int, double)
+     */
+    public double refine(Fdx fn, double lowerLimit, double upperLimit, int panels, double previous) {
+        double stepSize = calculateStepSize(lowerLimit, upperLimit, 2 * panels);
+        double summation = summation(fn, lowerLimit + stepSize, 2 * stepSize, 0, panels);
+        return previous / 2 + stepSize / 2 * summation;
+    }
+
+    /**
+     * The error decreases as {@code h^2}.
+     */
+    @Override
+    protected int getConvergenceOrder() {
+        return 2;
+    }
+
+    @Override
+    protected boolean evaluatesLimits() {
+        return true;
+    }
+
+    @Override
+    protected double partialSum(Fdx fn, double lowerLimit, double stepSize, int from, int to) {
+        if (fn instanceof BulkFdx)
+            return bulkPartialSum((BulkFdx) fn, lowerLimit, stepSize, from, to);
 
         double summation = 0d;
-        for (int i = 1; i <= this.iterations - 1; i++) {
-            summation += 2 * fn.calculate(di.getLowerLimit() + i * getStepSize());
+        for (int i = from; i < to; i++) {
+            summation += 2 * fn.calculate(lowerLimit + i * stepSize);
         }
+        return summation;
+    }
 
-        double fdx0 = fn.calculate(di.getLowerLimit());
-        double fdxN = fn.calculate(di.getUpperLimit());
+    @Override
+    protected void partialSum(VectorFdx fn, double lowerLimit, double stepSize, int from, int to, double[] sums) {
+        double[] fx = new double[sums.length];
+        for (int i = from; i < to; i++) {
+            fn.calculate(lowerLimit + i * stepSize, fx);
+            for (int j = 0; j < sums.length; j++)
+                sums[j] += 2 * fx[j];
+        }
+    }
 
-        return getStepSize() / 2 * (fdx0 + summation + fdxN);
+    /**
+     * Calculate the weighted sum of the indexes in {@code [from, to)}
+     * evaluating the function in blocks.
+     *
+     * @param fn         the bulk function {@code f(x)}
+     * @param lowerLimit the lower limit of an integral
+     * @param stepSize   the step size
+     * @param from       the first index, inclusive
+     * @param to         the last index, exclusive
+     *
+     * @return the weighted sum of the given indexes
+     */
+    private static double bulkPartialSum(BulkFdx fn, double lowerLimit, double stepSize, int from, int to) {
+        double[] x = new double[BLOCK_SIZE];
+        double[] fx = new double[BLOCK_SIZE];
+
+        double summation = 0d;
+        for (int start = from; start < to; start += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, to - start);
+            for (int j = 0; j < length; j++)
+                x[j] = lowerLimit + (start + j) * stepSize;
+
+            fn.calculate(x, fx, length);
+            for (int j = 0; j < length; j++)
+                summation += 2 * fx[j];
+        }
+        return summation;
     }
 
 }
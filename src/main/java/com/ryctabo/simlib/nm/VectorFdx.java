@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+/**
+ * Represents {@code k} functions {@code f1(x), ..., fk(x)} of a real
+ * variable {@code x} that are calculated together, for example the
+ * moments {@code x^j f(x)} of a density.
+ * <p>
+ * The {@link NumericalIntegration} rules of this package integrate all the
+ * functions in one pass over the grid with
+ * {@link NumericalIntegration#solve(VectorFdx, double, double, double[])},
+ * each abscissa is calculated once and the {@code k} results are written
+ * in a reused array. Other rules solve each function separately.
+ * <p>
+ * This is a <a href="package-summary.html">functional interface</a>
+ * whose functional method is {@link #calculate(double, double[])}.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @since 1.8
+ */
+@FunctionalInterface
+public interface VectorFdx {
+
+    /**
+     * Calculate the results of the functions provided and store them in
+     * {@code fx}. The array is reused between calls, so the implementations
+     * must not keep it.
+     *
+     * @param x  the {@code x} real variable
+     * @param fx the array where the {@code k} results are stored
+     */
+    void calculate(double x, double[] fx);
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.ode;
+
+/**
+ * Represents the continuous extension of the last step of an
+ * {@link OdeSolver}, that approximates the state at any time of the step
+ * without calculating new steps.
+ * <p>
+ * The dense output belongs to the solver and it is only valid during the
+ * call of {@link StepHandler#handleStep(DenseOutput)}.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public interface DenseOutput {
+
+    /**
+     * Get the time at the beginning of the step.
+     *
+     * @return the previous time
+     */
+    double getPreviousTime();
+
+    /**
+     * Get the time at the end of the step, the time of the event if an
+     * event stopped the integration in this step.
+     *
+     * @return the current time
+     */
+    double getCurrentTime();
+
+    /**
+     * Calculate the state at a time of the step and store it in {@code y}.
+     *
+     * @param t the time, between the previous and the current time
+     * @param y the array where the state is stored
+     */
+    void interpolate(double t, double[] y);
+
+}
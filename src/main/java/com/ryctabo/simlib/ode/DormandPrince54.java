@@ -0,0 +1,260 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.ode;
+
+/**
+ * The <strong>DormandPrince54</strong> class represents to the
+ * implementation of the adaptive Dormand-Prince 5(4) method.
+ * <p>
+ * Each step advances with the fifth order solution and estimates its error
+ * with the embedded fourth order one. The error is measured in the root
+ * mean square norm scaled by {@code atol + rtol * max(|y|, |y_new|)} of
+ * each component, and the step size is adapted to keep it below one. The
+ * last stage of a step is the first of the next one, so an accepted step
+ * evaluates the system six times.
+ * <p>
+ * The dense output is the fourth order continuous extension of Hairer,
+ * Norsett and Wanner, and the first step size is chosen with their
+ * heuristic from the initial derivatives.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Dormand%E2%80%93Prince_method">Dormand-Prince method</a>
+ */
+public class DormandPrince54 extends OdeSolver {
+
+    private static final double C2 = 1d / 5;
+    private static final double C3 = 3d / 10;
+    private static final double C4 = 4d / 5;
+    private static final double C5 = 8d / 9;
+
+    private static final double A21 = 1d / 5;
+    private static final double A31 = 3d / 40;
+    private static final double A32 = 9d / 40;
+    private static final double A41 = 44d / 45;
+    private static final double A42 = -56d / 15;
+    private static final double A43 = 32d / 9;
+    private static final double A51 = 19372d / 6561;
+    private static final double A52 = -25360d / 2187;
+    private static final double A53 = 64448d / 6561;
+    private static final double A54 = -212d / 729;
+    private static final double A61 = 9017d / 3168;
+    private static final double A62 = -355d / 33;
+    private static final double A63 = 46732d / 5247;
+    private static final double A64 = 49d / 176;
+    private static final double A65 = -5103d / 18656;
+
+    private static final double B1 = 35d / 384;
+    private static final double B3 = 500d / 1113;
+    private static final double B4 = 125d / 192;
+    private static final double B5 = -2187d / 6784;
+    private static final double B6 = 11d / 84;
+
+    /** The differences between the fifth and the fourth order weights. */
+    private static final double E1 = 71d / 57600;
+    private static final double E3 = -71d / 16695;
+    private static final double E4 = 71d / 1920;
+    private static final double E5 = -17253d / 339200;
+    private static final double E6 = 22d / 525;
+    private static final double E7 = -1d / 40;
+
+    /** The weights of the continuous extension. */
+    private static final double D1 = -12715105075d / 11282082432d;
+    private static final double D3 = 87487479700d / 32700410799d;
+    private static final double D4 = -10690763975d / 1880347072d;
+    private static final double D5 = 701980252875d / 199316789632d;
+    private static final double D6 = -1453857185d / 822651844d;
+    private static final double D7 = 69997945d / 29380423d;
+
+    /** The safety factor of the step size. */
+    private static final double SAFETY = 0.9;
+
+    /** The minimum factor of the step size. */
+    private static final double MIN_FACTOR = 0.2;
+
+    /** The maximum factor of the step size. */
+    private static final double MAX_FACTOR = 5;
+
+    /** The absolute tolerance of each component. */
+    private final double absoluteTolerance;
+
+    /** The relative tolerance of each component. */
+    private final double relativeTolerance;
+
+    private final double[] k2;
+
+    private final double[] k3;
+
+    private final double[] k4;
+
+    private final double[] k5;
+
+    private final double[] k6;
+
+    /** The state of the stages. */
+    private final double[] stage;
+
+    /** The last coefficients of the continuous extension. */
+    private final double[] dense;
+
+    /**
+     * Create an instance of {@link DormandPrince54}.
+     *
+     * @param dimension         the dimension of the state
+     * @param absoluteTolerance the absolute tolerance of each component
+     * @param relativeTolerance the relative tolerance of each component
+     *
+     * @throws IllegalArgumentException if the dimension is less than 1, a
+     *                                  tolerance is negative or both are zero
+     */
+    public DormandPrince54(int dimension, double absoluteTolerance, double relativeTolerance) {
+        super(dimension);
+        if (!(absoluteTolerance >= 0) || !(relativeTolerance >= 0))
+            throw new IllegalArgumentException("The tolerances can't be negative.");
+        if (absoluteTolerance == 0 && relativeTolerance == 0)
+            throw new IllegalArgumentException("One of the tolerances has to be positive.");
+
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+        this.k2 = new double[dimension];
+        this.k3 = new double[dimension];
+        this.k4 = new double[dimension];
+        this.k5 = new double[dimension];
+        this.k6 = new double[dimension];
+        this.stage = new double[dimension];
+        this.dense = new double[dimension];
+    }
+
+    /**
+     * Get the absolute tolerance of each component.
+     *
+     * @return the absolute tolerance
+     */
+    public double getAbsoluteTolerance() {
+        return absoluteTolerance;
+    }
+
+    /**
+     * Get the relative tolerance of each component.
+     *
+     * @return the relative tolerance
+     */
+    public double getRelativeTolerance() {
+        return relativeTolerance;
+    }
+
+    @Override
+    protected double initialStepSize(OdeSystem system, double t0, double t1) {
+        double span = Math.abs(t1 - t0);
+        double direction = Math.signum(t1 - t0);
+
+        double d0 = 0d;
+        double d1 = 0d;
+        for (int i = 0; i < dimension; i++) {
+            double scale = absoluteTolerance + relativeTolerance * Math.abs(state[i]);
+            d0 += (state[i] / scale) * (state[i] / scale);
+            d1 += (derivative[i] / scale) * (derivative[i] / scale);
+        }
+        d0 = Math.sqrt(d0 / dimension);
+        d1 = Math.sqrt(d1 / dimension);
+        double h0 = Math.min(span, d0 < 1e-5 || d1 < 1e-5 ? 1e-6 : 0.01 * d0 / d1);
+
+        for (int i = 0; i < dimension; i++)
+            stage[i] = state[i] + direction * h0 * derivative[i];
+        evaluate(system, t0 + direction * h0, stage, k2);
+
+        double d2 = 0d;
+        for (int i = 0; i < dimension; i++) {
+            double scale = absoluteTolerance + relativeTolerance * Math.abs(state[i]);
+            double difference = (k2[i] - derivative[i]) / scale;
+            d2 += difference * difference;
+        }
+        d2 = Math.sqrt(d2 / dimension) / h0;
+
+        double d = Math.max(d1, d2);
+        double h1 = d <= 1e-15 ? Math.max(1e-6, h0 * 1e-3) : Math.pow(0.01 / d, 1d / 5);
+        return Math.min(Math.min(100 * h0, h1), span);
+    }
+
+    @Override
+    protected double attemptStep(OdeSystem system, double t, double step) {
+        double[] k1 = derivative;
+        for (int i = 0; i < dimension; i++)
+            stage[i] = state[i] + step * A21 * k1[i];
+        evaluate(system, t + C2 * step, stage, k2);
+        for (int i = 0; i < dimension; i++)
+            stage[i] = state[i] + step * (A31 * k1[i] + A32 * k2[i]);
+        evaluate(system, t + C3 * step, stage, k3);
+        for (int i = 0; i < dimension; i++)
+            stage[i] = state[i] + step * (A41 * k1[i] + A42 * k2[i] + A43 * k3[i]);
+        evaluate(system, t + C4 * step, stage, k4);
+        for (int i = 0; i < dimension; i++)
+            stage[i] = state[i] + step * (A51 * k1[i] + A52 * k2[i] + A53 * k3[i] + A54 * k4[i]);
+        evaluate(system, t + C5 * step, stage, k5);
+        for (int i = 0; i < dimension; i++)
+            stage[i] = state[i] + step * (A61 * k1[i] + A62 * k2[i] + A63 * k3[i] + A64 * k4[i] + A65 * k5[i]);
+        evaluate(system, t + step, stage, k6);
+        for (int i = 0; i < dimension; i++)
+            nextState[i] = state[i] + step * (B1 * k1[i] + B3 * k3[i] + B4 * k4[i] + B5 * k5[i] + B6 * k6[i]);
+        double[] k7 = nextDerivative;
+        evaluate(system, t + step, nextState, k7);
+
+        double error = 0d;
+        for (int i = 0; i < dimension; i++) {
+            double estimate = step * (E1 * k1[i] + E3 * k3[i] + E4 * k4[i] + E5 * k5[i] + E6 * k6[i] + E7 * k7[i]);
+            double scale = absoluteTolerance
+                    + relativeTolerance * Math.max(Math.abs(state[i]), Math.abs(nextState[i]));
+            error += (estimate / scale) * (estimate / scale);
+        }
+        return Math.sqrt(error / dimension);
+    }
+
+    @Override
+    protected double nextStepSize(double stepSize, double errorRatio, boolean accepted) {
+        double factor = errorRatio == 0 ? MAX_FACTOR : SAFETY * Math.pow(errorRatio, -1d / 5);
+        factor = Math.max(MIN_FACTOR, Math.min(MAX_FACTOR, factor));
+        if (!accepted)
+            factor = Math.min(1d, factor);
+        return stepSize * factor;
+    }
+
+    @Override
+    protected void prepareInterpolation(double step) {
+        for (int i = 0; i < dimension; i++) {
+            dense[i] = step * (D1 * derivative[i] + D3 * k3[i] + D4 * k4[i]
+                    + D5 * k5[i] + D6 * k6[i] + D7 * nextDerivative[i]);
+        }
+    }
+
+    @Override
+    protected void interpolate(double theta, double step, double[] y) {
+        double complement = 1 - theta;
+        for (int i = 0; i < dimension; i++) {
+            double difference = nextState[i] - state[i];
+            double spline = step * derivative[i] - difference;
+            double cubic = difference - step * nextDerivative[i] - spline;
+            y[i] = state[i] + theta * (difference + complement * (spline
+                    + theta * (cubic + complement * dense[i])));
+        }
+    }
+
+    @Override
+    protected OdeSolver newSolver() {
+        return new DormandPrince54(dimension, absoluteTolerance, relativeTolerance);
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.ode;
+
+/**
+ * Represents a function {@code g(t, y)} whose roots are events of a
+ * trajectory, like a collision or a threshold crossing.
+ * <p>
+ * An {@link OdeSolver} checks the sign of the function at the end of each
+ * step. When it changes, the root is located in the step with the
+ * {@link DenseOutput}, and {@link #onEvent(double, double[])} decides if
+ * the integration stops at the event.
+ * <p>
+ * This is a <a href="package-summary.html">functional interface</a>
+ * whose functional method is {@link #calculate(double, double[])}.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @since 1.8
+ */
+@FunctionalInterface
+public interface EventFunction {
+
+    /**
+     * The action of the solver after an event.
+     */
+    enum Action {
+
+        /** Stop the integration at the time of the event. */
+        STOP,
+
+        /** Continue the integration. */
+        CONTINUE
+
+    }
+
+    /**
+     * Calculate the value of the function, whose sign changes at an event.
+     *
+     * @param t the time {@code t}
+     * @param y the state {@code y}
+     *
+     * @return the value {@code g(t, y)}
+     */
+    double calculate(double t, double[] y);
+
+    /**
+     * Called at each event. By default the integration stops.
+     *
+     * @param t the time of the event
+     * @param y the state at the event, it shouldn't be modified
+     *
+     * @return the action of the solver
+     */
+    default Action onEvent(double t, double[] y) {
+        return Action.STOP;
+    }
+
+}
@@ -0,0 +1,645 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.ode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The <strong>OdeSolver</strong> class represents a family of explicit
+ * one-step methods for integrating an {@link OdeSystem} {@code y' = f(t, y)}
+ * from an initial state.
+ * <p>
+ * A solver is created for a dimension and it preallocates all its work
+ * buffers, so a step doesn't allocate any object. The state of the
+ * integration is kept in those buffers, so an instance isn't thread-safe;
+ * each thread needs its own solver. The integration can go forward or
+ * backward in time.
+ * <p>
+ * After each accepted step the {@link StepHandler step handlers} receive
+ * its {@link DenseOutput}, and the {@link EventFunction event functions}
+ * are checked: when the sign of an event function changes in the step, its
+ * root is located on the dense output with the Illinois method, and the
+ * events of the step are notified in chronological order. An event can
+ * stop the integration.
+ * <p>
+ * A batch of independent trajectories is integrated with
+ * {@link #integrate(OdeSystem, double, double[][], double)}, in parallel
+ * when a {@link ForkJoinPool} is assigned with {@link #setPool(ForkJoinPool)}.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public abstract class OdeSolver {
+
+    /** The default maximum number of steps, accepted and rejected, of an integration. */
+    public static final int DEFAULT_MAX_STEPS = 1_000_000;
+
+    /** The maximum number of iterations of the location of an event. */
+    private static final int MAX_EVENT_ITERATIONS = 100;
+
+    /** The dimension of the state. */
+    protected final int dimension;
+
+    /** The state at the beginning of the step. */
+    protected final double[] state;
+
+    /** The derivatives at the beginning of the step. */
+    protected final double[] derivative;
+
+    /** The state at the end of the step. */
+    protected final double[] nextState;
+
+    /** The derivatives at the end of the step. */
+    protected final double[] nextDerivative;
+
+    /** The state of the location of the events. */
+    private final double[] eventState;
+
+    /** The dense output of the last step. */
+    private final Output output = new Output();
+
+    /** The step handlers. */
+    private final List<StepHandler> stepHandlers = new ArrayList<>();
+
+    /** The event functions. */
+    private final List<EventFunction> eventFunctions = new ArrayList<>();
+
+    /** The values of the event functions at the beginning of the step. */
+    private double[] eventValues = new double[0];
+
+    /** The values of the event functions at the end of the step. */
+    private double[] nextEventValues = new double[0];
+
+    /** The times of the events of the step. */
+    private double[] eventTimes = new double[0];
+
+    /** The maximum number of steps, accepted and rejected, of an integration. */
+    private int maxSteps = DEFAULT_MAX_STEPS;
+
+    /** The pool used to integrate a batch in parallel, {@code null} is sequential. */
+    private volatile ForkJoinPool pool;
+
+    /** The number of evaluations of the system of the last integration. */
+    private long evaluations;
+
+    /** The number of accepted steps of the last integration. */
+    private int steps;
+
+    /** The number of rejected steps of the last integration. */
+    private int rejectedSteps;
+
+    /**
+     * Create an instance of {@link OdeSolver} and its work buffers.
+     *
+     * @param dimension the dimension of the state
+     *
+     * @throws IllegalArgumentException if the dimension is less than 1
+     */
+    protected OdeSolver(int dimension) {
+        if (dimension < 1)
+            throw new IllegalArgumentException("The dimension can't be less than 1.");
+        this.dimension = dimension;
+        this.state = new double[dimension];
+        this.derivative = new double[dimension];
+        this.nextState = new double[dimension];
+        this.nextDerivative = new double[dimension];
+        this.eventState = new double[dimension];
+    }
+
+    /**
+     * Get the dimension of the state.
+     *
+     * @return the dimension
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Get the maximum number of steps, accepted and rejected, of an
+     * integration.
+     *
+     * @return the maximum number of steps
+     */
+    public int getMaxSteps() {
+        return maxSteps;
+    }
+
+    /**
+     * Set the maximum number of steps, accepted and rejected, of an
+     * integration.
+     *
+     * @param maxSteps the maximum number of steps
+     *
+     * @throws IllegalArgumentException if the maximum number of steps is
+     *                                  less than 1
+     */
+    public void setMaxSteps(int maxSteps) {
+        if (maxSteps < 1)
+            throw new IllegalArgumentException("The maximum number of steps can't be less than 1.");
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Get the pool used to integrate a batch in parallel.
+     *
+     * @return the pool, or {@code null} if the batch is sequential
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Set the pool used to integrate a batch in parallel.
+     *
+     * @param pool the pool, or {@code null} to integrate the batch sequentially
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Add a step handler, that receives each accepted step.
+     *
+     * @param handler the step handler
+     *
+     * @throws NullPointerException if the handler is null
+     */
+    public void addStepHandler(StepHandler handler) {
+        if (handler == null)
+            throw new NullPointerException("The step handler can't be null");
+        stepHandlers.add(handler);
+    }
+
+    /**
+     * Remove all step handlers.
+     */
+    public void clearStepHandlers() {
+        stepHandlers.clear();
+    }
+
+    /**
+     * Add an event function, whose roots are detected at each step. It has
+     * to be thread-safe if a batch is integrated in a pool.
+     *
+     * @param function the event function
+     *
+     * @throws NullPointerException if the function is null
+     */
+    public void addEventFunction(EventFunction function) {
+        if (function == null)
+            throw new NullPointerException("The event function can't be null");
+        eventFunctions.add(function);
+        int count = eventFunctions.size();
+        eventValues = new double[count];
+        nextEventValues = new double[count];
+        eventTimes = new double[count];
+    }
+
+    /**
+     * Remove all event functions.
+     */
+    public void clearEventFunctions() {
+        eventFunctions.clear();
+        eventValues = new double[0];
+        nextEventValues = new double[0];
+        eventTimes = new double[0];
+    }
+
+    /**
+     * Get the number of evaluations of the system of the last integration.
+     *
+     * @return the number of evaluations
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Get the number of accepted steps of the last integration.
+     *
+     * @return the number of accepted steps
+     */
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Get the number of rejected steps of the last integration.
+     *
+     * @return the number of rejected steps
+     */
+    public int getRejectedSteps() {
+        return rejectedSteps;
+    }
+
+    /**
+     * Integrate the system from {@code t0} to {@code t1}, the state is
+     * updated in place.
+     *
+     * @param system the system {@code y' = f(t, y)}
+     * @param t0     the initial time
+     * @param y      the initial state, replaced by the final state
+     * @param t1     the final time
+     *
+     * @return the final time, {@code t1} or the time of the event that
+     * stopped the integration
+     *
+     * @throws NullPointerException     if the system is null
+     * @throws IllegalArgumentException if the length of the state isn't the
+     *                                  dimension or the times aren't finite
+     * @throws IllegalStateException    if the maximum number of steps is
+     *                                  reached or the step size is too small
+     */
+    public double integrate(OdeSystem system, double t0, double[] y, double t1) {
+        if (system == null)
+            throw new NullPointerException("The system can't be null");
+        if (y.length != dimension)
+            throw new IllegalArgumentException("The length of the state has to be " + dimension + ".");
+        if (Double.isNaN(t0) || Double.isInfinite(t0) || Double.isNaN(t1) || Double.isInfinite(t1))
+            throw new IllegalArgumentException("The times have to be finite.");
+
+        evaluations = 0L;
+        steps = 0;
+        rejectedSteps = 0;
+        if (t0 == t1)
+            return t0;
+
+        double direction = Math.signum(t1 - t0);
+        System.arraycopy(y, 0, state, 0, dimension);
+        evaluate(system, t0, state, derivative);
+        for (int i = 0; i < eventFunctions.size(); i++)
+            eventValues[i] = eventFunctions.get(i).calculate(t0, state);
+
+        double t = t0;
+        double stepSize = initialStepSize(system, t0, t1);
+        while (true) {
+            if (steps + rejectedSteps >= maxSteps)
+                throw new IllegalStateException("The maximum number of steps was reached at t = " + t + ".");
+
+            double remaining = Math.abs(t1 - t);
+            boolean last = remaining <= stepSize * (1 + 1e-9);
+            double step = direction * (last ? remaining : stepSize);
+            double next = last ? t1 : t + step;
+            if (next == t)
+                throw new IllegalStateException("The step size is too small at t = " + t + ".");
+
+            double errorRatio = attemptStep(system, t, step);
+            if (!(errorRatio <= 1)) {
+                rejectedSteps++;
+                stepSize = nextStepSize(Math.abs(step), errorRatio, false);
+                continue;
+            }
+
+            steps++;
+            output.reset(t, next, step);
+            double stop = eventFunctions.isEmpty() ? Double.NaN : handleEvents(t, next, direction);
+            if (!Double.isNaN(stop))
+                output.current = stop;
+            for (int i = 0; i < stepHandlers.size(); i++)
+                stepHandlers.get(i).handleStep(output);
+
+            if (!Double.isNaN(stop)) {
+                output.interpolate(stop, y);
+                return stop;
+            }
+
+            System.arraycopy(nextState, 0, state, 0, dimension);
+            System.arraycopy(nextDerivative, 0, derivative, 0, dimension);
+            t = next;
+            if (last) {
+                System.arraycopy(state, 0, y, 0, dimension);
+                return t1;
+            }
+            stepSize = nextStepSize(Math.abs(step), errorRatio, true);
+        }
+    }
+
+    /**
+     * Integrate a batch of independent trajectories of the system from
+     * {@code t0} to {@code t1}, each state is updated in place.
+     * <p>
+     * When a pool is assigned the trajectories are split in chunks that are
+     * integrated in the pool, each chunk with a new solver of the same
+     * configuration. The event functions aren't copied, the same instances
+     * are shared by all the chunks, so they have to be thread-safe too. The
+     * step handlers aren't called, and the statistics of this solver aren't
+     * updated.
+     *
+     * @param system the system {@code y' = f(t, y)}, it has to be thread-safe
+     *               if a pool is assigned
+     * @param t0     the initial time
+     * @param states the initial states, replaced by the final states
+     * @param t1     the final time
+     *
+     * @return the final time of each trajectory
+     *
+     * @see #integrate(OdeSystem, double, double[], double)
+     */
+    public double[] integrate(OdeSystem system, double t0, double[][] states, double t1) {
+        double[] times = new double[states.length];
+        ForkJoinPool pool = this.pool;
+        if (pool == null || states.length < 2) {
+            OdeSolver solver = copy();
+            for (int i = 0; i < states.length; i++)
+                times[i] = solver.integrate(system, t0, states[i], t1);
+            return times;
+        }
+
+        int chunk = Math.max(1, states.length / (4 * pool.getParallelism()));
+        pool.invoke(new BatchTask(this, system, t0, t1, states, times, 0, states.length, chunk));
+        return times;
+    }
+
+    /**
+     * Calculate the derivatives of the system, counting the evaluation.
+     *
+     * @param system the system {@code y' = f(t, y)}
+     * @param t      the time
+     * @param y      the state
+     * @param dydt   the array where the derivatives are stored
+     */
+    protected final void evaluate(OdeSystem system, double t, double[] y, double[] dydt) {
+        evaluations++;
+        system.calculate(t, y, dydt);
+    }
+
+    /**
+     * Calculate the size of the first step, from the state and the
+     * derivatives at the initial time.
+     *
+     * @param system the system {@code y' = f(t, y)}
+     * @param t0     the initial time
+     * @param t1     the final time
+     *
+     * @return the positive size of the first step
+     */
+    protected abstract double initialStepSize(OdeSystem system, double t0, double t1);
+
+    /**
+     * Attempt a step from the state and derivatives at {@code t}, storing
+     * the state and the derivatives at {@code t + step} in the next buffers.
+     *
+     * @param system the system {@code y' = f(t, y)}
+     * @param t      the time at the beginning of the step
+     * @param step   the signed step size
+     *
+     * @return the ratio of the error estimate to the tolerance, the step is
+     * accepted if it isn't greater than one
+     */
+    protected abstract double attemptStep(OdeSystem system, double t, double step);
+
+    /**
+     * Calculate the size of the next step.
+     *
+     * @param stepSize   the size of the last step
+     * @param errorRatio the ratio of the error estimate of the last step to
+     *                   the tolerance
+     * @param accepted   whether the last step was accepted
+     *
+     * @return the positive size of the next step
+     */
+    protected abstract double nextStepSize(double stepSize, double errorRatio, boolean accepted);
+
+    /**
+     * Prepare the dense output of the last accepted step, called once
+     * before its first interpolation. By default it does nothing.
+     *
+     * @param step the signed step size
+     */
+    protected void prepareInterpolation(double step) {
+    }
+
+    /**
+     * Calculate the state at a fraction of the last accepted step, from the
+     * buffers of the step.
+     *
+     * @param theta the fraction of the step, between 0 and 1
+     * @param step  the signed step size
+     * @param y     the array where the state is stored
+     */
+    protected abstract void interpolate(double theta, double step, double[] y);
+
+    /**
+     * Create a solver with the same configuration, without step handlers,
+     * event functions or pool.
+     *
+     * @return the new solver
+     */
+    protected abstract OdeSolver newSolver();
+
+    /**
+     * Create a solver with the same configuration, for a chunk of a batch.
+     * The event functions are the same instances of this solver.
+     *
+     * @return the new solver
+     */
+    private OdeSolver copy() {
+        OdeSolver solver = newSolver();
+        solver.setMaxSteps(maxSteps);
+        for (EventFunction function : eventFunctions)
+            solver.addEventFunction(function);
+        return solver;
+    }
+
+    /**
+     * Locate the events of the last accepted step and notify them in
+     * chronological order.
+     *
+     * @param t         the time at the beginning of the step
+     * @param next      the time at the end of the step
+     * @param direction the sign of the direction of the integration
+     *
+     * @return the time of the event that stops the integration, or
+     * {@code NaN} if the integration continues
+     */
+    private double handleEvents(double t, double next, double direction) {
+        int count = eventFunctions.size();
+        for (int i = 0; i < count; i++) {
+            nextEventValues[i] = eventFunctions.get(i).calculate(next, nextState);
+            eventTimes[i] = crosses(eventValues[i], nextEventValues[i])
+                    ? locate(eventFunctions.get(i), t, eventValues[i], next, nextEventValues[i])
+                    : Double.NaN;
+        }
+
+        while (true) {
+            int earliest = -1;
+            for (int i = 0; i < count; i++) {
+                if (!Double.isNaN(eventTimes[i])
+                        && (earliest < 0 || (eventTimes[i] - eventTimes[earliest]) * direction < 0))
+                    earliest = i;
+            }
+            if (earliest < 0)
+                break;
+
+            double time = eventTimes[earliest];
+            eventTimes[earliest] = Double.NaN;
+            output.interpolate(time, eventState);
+            if (eventFunctions.get(earliest).onEvent(time, eventState) == EventFunction.Action.STOP)
+                return time;
+        }
+
+        double[] values = eventValues;
+        eventValues = nextEventValues;
+        nextEventValues = values;
+        return Double.NaN;
+    }
+
+    private static boolean crosses(double value, double nextValue) {
+        return (value < 0 && nextValue >= 0) || (value > 0 && nextValue <= 0);
+    }
+
+    /**
+     * Locate the root of an event function in a step with the Illinois
+     * method, on the dense output.
+     *
+     * @param function the event function
+     * @param a        the time where the function has the sign before the event
+     * @param ga       the value of the function at {@code a}
+     * @param b        the time where the function has the sign after the event
+     * @param gb       the value of the function at {@code b}
+     *
+     * @return the time of the root, where the event already happened
+     * @see <a href="https://en.wikipedia.org/wiki/Regula_falsi#The_Illinois_algorithm">Illinois algorithm</a>
+     */
+    private double locate(EventFunction function, double a, double ga, double b, double gb) {
+        int side = 0;
+        for (int iteration = 0; iteration < MAX_EVENT_ITERATIONS && gb != 0; iteration++) {
+            if (Math.abs(b - a) <= 4 * Math.ulp(Math.max(Math.abs(a), Math.abs(b))))
+                break;
+
+            double c = b - gb * (b - a) / (gb - ga);
+            if (!((c - a) * (c - b) < 0))
+                c = a + (b - a) / 2;
+            output.interpolate(c, eventState);
+            double gc = function.calculate(c, eventState);
+
+            if (gc == 0 || (gc > 0) == (gb > 0)) {
+                b = c;
+                gb = gc;
+                if (side == -1)
+                    ga /= 2;
+                side = -1;
+            } else {
+                a = c;
+                ga = gc;
+                if (side == 1)
+                    gb /= 2;
+                side = 1;
+            }
+        }
+        return b;
+    }
+
+    /**
+     * The dense output of the last accepted step.
+     */
+    private final class Output implements DenseOutput {
+
+        private double previous;
+
+        private double current;
+
+        private double step;
+
+        private boolean prepared;
+
+        void reset(double previous, double current, double step) {
+            this.previous = previous;
+            this.current = current;
+            this.step = step;
+            this.prepared = false;
+        }
+
+        @Override
+        public double getPreviousTime() {
+            return previous;
+        }
+
+        @Override
+        public double getCurrentTime() {
+            return current;
+        }
+
+        @Override
+        public void interpolate(double t, double[] y) {
+            if (!prepared) {
+                prepareInterpolation(step);
+                prepared = true;
+            }
+            OdeSolver.this.interpolate((t - previous) / step, step, y);
+        }
+
+    }
+
+    /**
+     * Task that splits a batch of trajectories in two halves until the
+     * chunks are less than the chunk size.
+     */
+    private static final class BatchTask extends RecursiveAction {
+
+        private final OdeSolver prototype;
+
+        private final OdeSystem system;
+
+        private final double t0;
+
+        private final double t1;
+
+        private final double[][] states;
+
+        private final double[] times;
+
+        private final int from;
+
+        private final int to;
+
+        private final int chunk;
+
+        BatchTask(OdeSolver prototype, OdeSystem system, double t0, double t1,
+                  double[][] states, double[] times, int from, int to, int chunk) {
+            this.prototype = prototype;
+            this.system = system;
+            this.t0 = t0;
+            this.t1 = t1;
+            this.states = states;
+            this.times = times;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                OdeSolver solver = prototype.copy();
+                for (int i = from; i < to; i++)
+                    times[i] = solver.integrate(system, t0, states[i], t1);
+                return;
+            }
+
+            int middle = from + (to - from) / 2;
+            invokeAll(new BatchTask(prototype, system, t0, t1, states, times, from, middle, chunk),
+                    new BatchTask(prototype, system, t0, t1, states, times, middle, to, chunk));
+        }
+
+    }
+
+}
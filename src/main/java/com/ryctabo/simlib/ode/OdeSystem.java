@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.ode;
+
+/**
+ * Represents a system of ordinary differential equations
+ * {@code y' = f(t, y)}, where {@code y} is a vector of real variables.
+ * <p>
+ * This is a <a href="package-summary.html">functional interface</a>
+ * whose functional method is {@link #calculate(double, double[], double[])}.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @since 1.8
+ */
+@FunctionalInterface
+public interface OdeSystem {
+
+    /**
+     * Calculate the derivatives of the state at the given time and store
+     * them in {@code dydt}. The implementations shouldn't modify {@code y}
+     * and shouldn't allocate objects, the solvers call it several times by
+     * step.
+     *
+     * @param t    the time {@code t}
+     * @param y    the state {@code y}
+     * @param dydt the array where the derivatives {@code y'} are stored
+     */
+    void calculate(double t, double[] y, double[] dydt);
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.ode;
+
+/**
+ * The <strong>RungeKutta4</strong> class represents to the implementation
+ * of the classic fourth order Runge-Kutta method with a fixed step size.
+ * <p>
+ * Each step evaluates the system four times, three stages plus the end of
+ * the step, whose derivative is reused as the first stage of the next one.
+ * The dense output is the cubic Hermite interpolation of the states and
+ * derivatives at both ends of the step. The last step is shortened to end
+ * at the final time.
+ *
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ * @see <a href="https://en.wikipedia.org/wiki/Runge%E2%80%93Kutta_methods">Runge-Kutta methods</a>
+ */
+public class RungeKutta4 extends OdeSolver {
+
+    /** The step size. */
+    private final double stepSize;
+
+    /** The derivatives of the second stage. */
+    private final double[] k2;
+
+    /** The derivatives of the third stage. */
+    private final double[] k3;
+
+    /** The derivatives of the fourth stage. */
+    private final double[] k4;
+
+    /** The state of the stages. */
+    private final double[] stage;
+
+    /**
+     * Create an instance of {@link RungeKutta4}.
+     *
+     * @param dimension the dimension of the state
+     * @param stepSize  the step size
+     *
+     * @throws IllegalArgumentException if the dimension is less than 1 or
+     *                                  the step size isn't positive and finite
+     */
+    public RungeKutta4(int dimension, double stepSize) {
+        super(dimension);
+        if (!(stepSize > 0) || Double.isInfinite(stepSize))
+            throw new IllegalArgumentException("The step size has to be positive and finite.");
+
+        this.stepSize = stepSize;
+        this.k2 = new double[dimension];
+        this.k3 = new double[dimension];
+        this.k4 = new double[dimension];
+        this.stage = new double[dimension];
+    }
+
+    /**
+     * Get the step size.
+     *
+     * @return the step size
+     */
+    public double getStepSize() {
+        return stepSize;
+    }
+
+    @Override
+    protected double initialStepSize(OdeSystem system, double t0, double t1) {
+        return stepSize;
+    }
+
+    @Override
+    protected double attemptStep(OdeSystem system, double t, double step) {
+        double half = step / 2;
+        for (int i = 0; i < dimension; i++)
+            stage[i] = state[i] + half * derivative[i];
+        evaluate(system, t + half, stage, k2);
+        for (int i = 0; i < dimension; i++)
+            stage[i] = state[i] + half * k2[i];
+        evaluate(system, t + half, stage, k3);
+        for (int i = 0; i < dimension; i++)
+            stage[i] = state[i] + step * k3[i];
+        evaluate(system, t + step, stage, k4);
+
+        double sixth = step / 6;
+        for (int i = 0; i < dimension; i++)
+            nextState[i] = state[i] + sixth * (derivative[i] + 2 * (k2[i] + k3[i]) + k4[i]);
+        evaluate(system, t + step, nextState, nextDerivative);
+        return 0d;
+    }
+
+    @Override
+    protected double nextStepSize(double stepSize, double errorRatio, boolean accepted) {
+        return this.stepSize;
+    }
+
+    @Override
+    protected void interpolate(double theta, double step, double[] y) {
+        double complement = 1 - theta;
+        double h00 = (1 + 2 * theta) * complement * complement;
+        double h10 = theta * complement * complement * step;
+        double h01 = theta * theta * (3 - 2 * theta);
+        double h11 = -theta * theta * complement * step;
+        for (int i = 0; i < dimension; i++)
+            y[i] = h00 * state[i] + h10 * derivative[i] + h01 * nextState[i] + h11 * nextDerivative[i];
+    }
+
+    @Override
+    protected OdeSolver newSolver() {
+        return new RungeKutta4(dimension, stepSize);
+    }
+
+}
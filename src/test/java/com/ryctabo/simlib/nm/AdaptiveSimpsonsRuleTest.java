@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+@RunWith(Parameterized.class)
+public class AdaptiveSimpsonsRuleTest {
+
+    private final double tolerance;
+
+    private final Fdx function;
+
+    private final double lowerLimit;
+
+    private final double upperLimit;
+
+    private final double actual;
+
+    public AdaptiveSimpsonsRuleTest(double tolerance, Fdx function, double lowerLimit,
+                                    double upperLimit, double actual) {
+        this.tolerance = tolerance;
+        this.function = function;
+        this.lowerLimit = lowerLimit;
+        this.upperLimit = upperLimit;
+        this.actual = actual;
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getData() {
+        Fdx f1 = x -> 1 / (x + 1);
+        Fdx f2 = x -> x * (x - 2) * (x - 3);
+        Fdx f3 = Math::sqrt;
+        Fdx f4 = x -> Math.exp(-100 * x * x);
+        return Arrays.asList(new Object[][]{
+                {1e-9, f1, 2d, 3d, Math.log(4d / 3d)},
+                {1e-9, f2, 0d, 5d, 22.9166666667d},
+                {1e-9, f3, 0d, 1d, 2d / 3d},
+                {1e-9, f4, -1d, 1d, Math.sqrt(Math.PI) / 10}
+        });
+    }
+
+    @Test
+    public void testSolve() {
+        AdaptiveSimpsonsRule rule = new AdaptiveSimpsonsRule(tolerance);
+        DefiniteIntegral integral = new DefiniteIntegral(function, lowerLimit, upperLimit);
+        assertEquals(rule.solve(integral), actual, 1e-8);
+    }
+
+    @Test
+    public void testPrimitiveSolve() {
+        AdaptiveSimpsonsRule rule = new AdaptiveSimpsonsRule(tolerance);
+        double expected = rule.solve(new DefiniteIntegral(function, lowerLimit, upperLimit));
+        assertEquals(rule.solve(function, lowerLimit, upperLimit), expected, 0d);
+    }
+
+    @Test
+    public void testEvaluations() {
+        AtomicLong counter = new AtomicLong();
+        Fdx fn = x -> {
+            counter.incrementAndGet();
+            return function.calculate(x);
+        };
+
+        AdaptiveSimpsonsRule rule = new AdaptiveSimpsonsRule(tolerance);
+        IntegrationResult result = rule.integrate(new DefiniteIntegral(fn, lowerLimit, upperLimit));
+        assertEquals(result.getEvaluations(), counter.get());
+        assertTrue(result.getErrorEstimate() <= tolerance);
+    }
+
+    @Test
+    public void testMaxEvaluations() {
+        AdaptiveSimpsonsRule rule = new AdaptiveSimpsonsRule(1e-15, 50, 21);
+        IntegrationResult result = rule.integrate(new DefiniteIntegral(function, lowerLimit, upperLimit));
+        assertTrue(result.getEvaluations() <= 21);
+    }
+
+    @Test
+    public void testMaxDepth() {
+        AdaptiveSimpsonsRule rule = new AdaptiveSimpsonsRule(1e-15, 2, Integer.MAX_VALUE);
+        IntegrationResult result = rule.integrate(new DefiniteIntegral(function, lowerLimit, upperLimit));
+        assertTrue(result.getEvaluations() <= 3 + 2 + 4);
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class AutoTunedRuleTest {
+
+    private static final double EXPECTED = 1 - Math.cos(2);
+
+    private static NumericalIntegration[] rules() {
+        return new NumericalIntegration[]{
+                new TrapezoidalRule(1),
+                new SimpsonsRule(2, SimpsonsRule.Composite.MAIN),
+                new SimpsonsRule(3, SimpsonsRule.Composite.THREE_EIGHTHS),
+                new GaussLegendreRule(3)
+        };
+    }
+
+    @Test
+    public void testAbsoluteTolerance() {
+        Fdx fn = Math::sin;
+        for (NumericalIntegration rule : rules()) {
+            AutoTunedRule tuned = new AutoTunedRule(rule, 1e-8, 0);
+            IntegrationResult result = tuned.integrate(fn, 0, 2);
+            assertEquals(EXPECTED, result.getValue(), 1e-8);
+            assertTrue(result.getErrorEstimate() <= 1e-8);
+            assertTrue(tuned.getCachedIterations(fn, 0, 2) > 0);
+            assertEquals(0, tuned.getCachedIterations(fn, 0, 1));
+        }
+    }
+
+    @Test
+    public void testRelativeTolerance() {
+        Fdx fn = x -> 1e6 * Math.exp(x);
+        AutoTunedRule tuned = new AutoTunedRule(new SimpsonsRule(2), 0, 1e-10);
+        double expected = 1e6 * (Math.E - 1);
+        assertEquals(expected, tuned.solve(fn, 0, 1), expected * 1e-10);
+    }
+
+    @Test
+    public void testSmallestValidIterations() {
+        Fdx fn = Math::sin;
+        for (NumericalIntegration rule : rules()) {
+            AutoTunedRule tuned = new AutoTunedRule(rule, 1e-6, 0);
+            tuned.solve(fn, 0, 2);
+            int iterations = tuned.getCachedIterations(fn, 0, 2);
+            assertEquals(0, iterations % rule.getModulus());
+
+            int smaller = iterations - rule.getModulus();
+            if (smaller >= 4 * rule.getModulus())
+                assertTrue(Math.abs(rule.solve(fn, 0, 2, smaller) - EXPECTED) > 1e-7);
+        }
+    }
+
+    @Test
+    public void testRepeatedSolveSkipsTuning() {
+        AtomicLong calls = new AtomicLong();
+        Fdx fn = x -> {
+            calls.incrementAndGet();
+            return Math.exp(-x * x);
+        };
+        AutoTunedRule tuned = new AutoTunedRule(new TrapezoidalRule(1), 1e-9, 0);
+        IntegrationResult first = tuned.integrate(fn, -1, 2);
+        assertEquals(first.getEvaluations(), calls.get());
+
+        int iterations = tuned.getCachedIterations(fn, -1, 2);
+        calls.set(0);
+        IntegrationResult second = tuned.integrate(fn, -1, 2);
+        assertEquals(iterations + 1, calls.get());
+        assertEquals(iterations + 1, second.getEvaluations());
+        assertEquals(first.getValue(), second.getValue(), 0d);
+        assertEquals(first.getErrorEstimate(), second.getErrorEstimate(), 0d);
+
+        tuned.clearCache();
+        assertEquals(0, tuned.getCachedIterations(fn, -1, 2));
+    }
+
+    @Test
+    public void testSharedRuleKeepsIterations() {
+        SimpsonsRule rule = new SimpsonsRule(4);
+        new AutoTunedRule(rule, 1e-10, 0).solve(Math::cos, 0, 3);
+        assertEquals(4, rule.getIterations());
+    }
+
+    @Test
+    public void testMaxIterations() {
+        Fdx fn = Math::sqrt;
+        AutoTunedRule tuned = new AutoTunedRule(new TrapezoidalRule(1), 1e-14, 0, 64);
+        IntegrationResult result = tuned.integrate(fn, 0, 1);
+        assertEquals(64, tuned.getCachedIterations(fn, 0, 1));
+        assertTrue(result.getErrorEstimate() > 1e-14);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroTolerances() {
+        new AutoTunedRule(new TrapezoidalRule(1), 0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTolerance() {
+        new AutoTunedRule(new TrapezoidalRule(1), -1e-6, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxIterationsBelowInitial() {
+        new AutoTunedRule(new SimpsonsRule(2), 1e-6, 0, 4);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullRule() {
+        new AutoTunedRule(null, 1e-6, 0);
+    }
+
+}
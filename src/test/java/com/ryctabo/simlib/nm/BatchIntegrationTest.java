@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class BatchIntegrationTest {
+
+    private final Fdx function = x -> Math.exp(-x * x / 2);
+
+    private final double[] breakpoints = {-4d, -2.5d, -1d, -0.25d, 0d, 0.5d, 2d, 3d};
+
+    @Test
+    public void testSameResultAsSolve() {
+        NumericalIntegration[] rules = {
+                new TrapezoidalRule(30),
+                new SimpsonsRule(30, SimpsonsRule.Composite.MAIN),
+                new SimpsonsRule(30, SimpsonsRule.Composite.THREE_EIGHTHS),
+                new GaussLegendreRule(4, 3)
+        };
+        for (NumericalIntegration rule : rules) {
+            double[] results = rule.solve(function, breakpoints);
+            assertEquals(results.length, breakpoints.length - 1);
+            for (int i = 0; i < results.length; i++)
+                assertEquals(results[i], rule.solve(function, breakpoints[i], breakpoints[i + 1]), 0d);
+        }
+    }
+
+    @Test
+    public void testSharedLimitsAreEvaluatedOnce() {
+        Set<Double> abscissas = new HashSet<>();
+        AtomicLong calls = new AtomicLong();
+        Fdx fn = x -> {
+            calls.incrementAndGet();
+            abscissas.add(x);
+            return function.calculate(x);
+        };
+
+        new SimpsonsRule(10).solve(fn, breakpoints);
+        assertEquals(calls.get(), 7L * 10L + 1L);
+        assertEquals(abscissas.size(), (int) calls.get());
+    }
+
+    @Test
+    public void testOverlappingIntervals() {
+        TrapezoidalRule rule = new TrapezoidalRule(40);
+        double[] lowerLimits = {0d, -1d, 0.5d, -1d, 2d};
+        double[] upperLimits = {1d, 2d, 1d, 0d, 2d};
+        double[] results = rule.solve(function, lowerLimits, upperLimits);
+
+        double[] segments = rule.solve(function, new double[]{-1d, 0d, 0.5d, 1d, 2d});
+        assertEquals(results[0], segments[1] + segments[2], 0d);
+        assertEquals(results[1], segments[0] + segments[1] + segments[2] + segments[3], 0d);
+        assertEquals(results[2], segments[2], 0d);
+        assertEquals(results[3], segments[0], 0d);
+        assertEquals(results[4], 0d, 0d);
+
+        double gaussian = Math.sqrt(Math.PI / 2) * 0.6826894921370859;
+        assertEquals(results[3], gaussian, 1e-4);
+    }
+
+    @Test
+    public void testSolveInParallel() {
+        double[] grid = new double[2001];
+        for (int i = 0; i < grid.length; i++)
+            grid[i] = -5d + i * 0.005d;
+
+        SimpsonsRule rule = new SimpsonsRule(20);
+        double[] sequential = rule.solve(function, grid);
+
+        rule.setPool(ForkJoinPool.commonPool());
+        rule.setThreshold(100);
+        assertArrayEquals(rule.solve(function, grid), sequential, 0d);
+    }
+
+    @Test
+    public void testListener() {
+        List<IntegrationEvent> events = new ArrayList<>();
+        TrapezoidalRule rule = new TrapezoidalRule(10);
+        rule.setListener(events::add);
+        rule.solve(function, breakpoints);
+
+        assertEquals(events.size(), 1);
+        assertEquals(events.get(0).getEvaluations(), 7L * 10L + 1L);
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        TrapezoidalRule rule = new TrapezoidalRule(10);
+        assertEquals(rule.solve(function, new double[]{1d}).length, 0);
+        assertEquals(rule.solve(function, new double[0], new double[0]).length, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedBreakpoints() {
+        new TrapezoidalRule(10).solve(function, new double[]{0d, 2d, 1d});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidInterval() {
+        new TrapezoidalRule(10).solve(function, new double[]{0d, 2d}, new double[]{1d, 1d});
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import com.ryctabo.simlib.nm.SimpsonsRule.Composite;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+@RunWith(Parameterized.class)
+public class BulkFdxTest {
+
+    private static final Fdx FUNCTION = x -> Math.exp(-x) * Math.sin(3 * x);
+
+    private final NumericalIntegration rule;
+
+    public BulkFdxTest(NumericalIntegration rule) {
+        this.rule = rule;
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getData() {
+        return Arrays.asList(new Object[][]{
+                {new TrapezoidalRule(1000)},
+                {new SimpsonsRule(1000, Composite.MAIN)},
+                {new SimpsonsRule(999, Composite.THREE_EIGHTHS)},
+                {new GaussLegendreRule(7, 100)}
+        });
+    }
+
+    @Test
+    public void testSolveIsBitIdentical() {
+        AtomicInteger blocks = new AtomicInteger();
+        BulkFdx bulk = (x, fx, length) -> {
+            assertTrue(length <= NumericalIntegration.BLOCK_SIZE);
+            blocks.incrementAndGet();
+            for (int i = 0; i < length; i++)
+                fx[i] = FUNCTION.calculate(x[i]);
+        };
+
+        double expected = rule.solve(new DefiniteIntegral(FUNCTION, 0, 4));
+        assertEquals(rule.solve(new DefiniteIntegral(bulk, 0, 4)), expected, 0d);
+        assertTrue(blocks.get() > 1);
+    }
+
+    @Test
+    public void testAdapter() {
+        BulkFdx bulk = BulkFdx.of(FUNCTION);
+        assertSame(BulkFdx.of(bulk), bulk);
+        assertEquals(bulk.calculate(0.5), FUNCTION.calculate(0.5), 0d);
+
+        double[] x = {0d, 1d, 2d};
+        double[] fx = new double[3];
+        bulk.calculate(x, fx, 2);
+        assertEquals(fx[0], FUNCTION.calculate(0d), 0d);
+        assertEquals(fx[1], FUNCTION.calculate(1d), 0d);
+        assertEquals(fx[2], 0d, 0d);
+
+        double expected = rule.solve(new DefiniteIntegral(FUNCTION, -1, 1));
+        assertEquals(rule.solve(new DefiniteIntegral(bulk, -1, 1)), expected, 0d);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testAdapterOfNull() {
+        BulkFdx.of(null);
+    }
+
+}
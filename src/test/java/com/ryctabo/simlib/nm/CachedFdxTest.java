@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class CachedFdxTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        AtomicLong calls = new AtomicLong();
+        CachedFdx fn = new CachedFdx(x -> {
+            calls.incrementAndGet();
+            return x * x;
+        }, 100);
+
+        assertEquals(fn.calculate(3d), 9d, 0d);
+        assertEquals(fn.calculate(3d), 9d, 0d);
+        assertEquals(fn.calculate(4d), 16d, 0d);
+        assertEquals(fn.getHits(), 1L);
+        assertEquals(fn.getMisses(), 2L);
+        assertEquals(calls.get(), 2L);
+        assertEquals(fn.size(), 2);
+    }
+
+    @Test
+    public void testRepeatedIntegrals() {
+        AtomicLong calls = new AtomicLong();
+        CachedFdx fn = new CachedFdx(x -> {
+            calls.incrementAndGet();
+            return Math.sin(x);
+        }, 1000);
+
+        TrapezoidalRule rule = new TrapezoidalRule(200);
+        double expected = rule.solve(new DefiniteIntegral(Math::sin, 0, Math.PI));
+        assertEquals(rule.solve(new DefiniteIntegral(fn, 0, Math.PI)), expected, 0d);
+        assertEquals(rule.solve(new DefiniteIntegral(fn, 0, Math.PI)), expected, 0d);
+        assertEquals(calls.get(), 201L);
+        assertEquals(fn.getHits(), 201L);
+    }
+
+    @Test
+    public void testBoundedSize() {
+        CachedFdx fn = new CachedFdx(x -> x, 10);
+        for (int i = 0; i < 100; i++)
+            fn.calculate(i);
+        assertEquals(fn.size(), 10);
+        assertEquals(fn.getCapacity(), 10);
+
+        fn.clear();
+        assertEquals(fn.size(), 0);
+    }
+
+    @Test
+    public void testConcurrentCache() {
+        ConcurrentCachedFdx fn = new ConcurrentCachedFdx(x -> 2 * x, 64, 8);
+        TrapezoidalRule rule = new TrapezoidalRule(1000);
+        rule.setPool(ForkJoinPool.commonPool());
+        rule.setThreshold(10);
+
+        for (int i = 0; i < 3; i++)
+            assertEquals(rule.solve(new DefiniteIntegral(fn, 0, 1)), 1d, 1e-12);
+        assertEquals(fn.getHits() + fn.getMisses(), 3 * 1001L);
+        assertTrue(fn.size() <= fn.getCapacity());
+        assertEquals(fn.getCapacity(), 64);
+    }
+
+    @Test
+    public void testConcurrentCapacity() {
+        for (int capacity : new int[]{1, 7, 10, 100, 1001})
+            assertEquals(new ConcurrentCachedFdx(x -> x, capacity, 8).getCapacity(), capacity);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullFunction() {
+        new CachedFdx(null, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSegments() {
+        new ConcurrentCachedFdx(x -> x, 10, 0);
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class ChebyshevApproximationTest {
+
+    private static void assertApproximates(Fdx expected, ChebyshevApproximation actual, double delta) {
+        double a = actual.getLowerLimit();
+        double b = actual.getUpperLimit();
+        for (int i = 0; i <= 100; i++) {
+            double x = a + (b - a) * i / 100;
+            assertEquals("at " + x, expected.calculate(x), actual.calculate(x), delta);
+        }
+    }
+
+    @Test
+    public void testFitToMachinePrecision() {
+        Fdx fn = x -> Math.exp(-x) * Math.sin(5 * x);
+        ChebyshevApproximation surrogate = ChebyshevApproximation.fit(fn, -1, 3);
+        assertTrue(surrogate.isConverged());
+        assertTrue(surrogate.getDegree() < 64);
+        assertApproximates(fn, surrogate, 1e-14);
+    }
+
+    @Test
+    public void testPolynomialIsChopped() {
+        ChebyshevApproximation surrogate = ChebyshevApproximation.fit(x -> 3 * x * x - x + 2, 0, 2);
+        assertEquals(2, surrogate.getDegree());
+        assertEquals(17, surrogate.getEvaluations());
+    }
+
+    @Test
+    public void testNestedSamplesAreReused() {
+        AtomicLong calls = new AtomicLong();
+        Fdx fn = x -> {
+            calls.incrementAndGet();
+            return Math.cos(40 * x);
+        };
+        ChebyshevApproximation surrogate = ChebyshevApproximation.fit(fn, 0, 2);
+        assertEquals(surrogate.getEvaluations(), calls.get());
+        assertTrue(surrogate.getEvaluations() > 17);
+        assertApproximates(x -> Math.cos(40 * x), surrogate, 1e-13);
+    }
+
+    @Test
+    public void testIntegrate() {
+        ChebyshevApproximation surrogate = ChebyshevApproximation.fit(Math::exp, 0, 2);
+        assertEquals(Math.exp(2) - 1, surrogate.integrate(), 1e-14);
+        assertEquals(Math.exp(1.5) - Math.exp(0.5), surrogate.integrate(0.5, 1.5), 1e-14);
+        assertEquals(surrogate.integrate(), surrogate.integrate(0, 2), 1e-14);
+
+        ChebyshevApproximation antiderivative = surrogate.antiderivative();
+        assertEquals(0d, antiderivative.calculate(0), 1e-15);
+        assertApproximates(x -> Math.exp(x) - 1, antiderivative, 1e-14);
+    }
+
+    @Test
+    public void testDerivative() {
+        ChebyshevApproximation surrogate = ChebyshevApproximation.fit(Math::sin, -2, 1);
+        assertApproximates(Math::cos, surrogate.derivative(), 1e-12);
+        assertApproximates(x -> -Math.sin(x), surrogate.derivative().derivative(), 1e-10);
+        assertApproximates(Math::sin, surrogate.antiderivative().derivative(), 1e-14);
+    }
+
+    @Test
+    public void testFromCoefficients() {
+        ChebyshevApproximation surrogate = new ChebyshevApproximation(-1, 1, new double[]{1, 2, 3});
+        assertApproximates(x -> 1 + 2 * x + 3 * (2 * x * x - 1), surrogate, 1e-15);
+        assertArrayEquals(new double[]{1, 2, 3}, surrogate.getCoefficients(), 0d);
+        assertEquals(2 - 2, surrogate.integrate(), 1e-15);
+        assertArrayEquals(new double[]{2, 12}, surrogate.derivative().getCoefficients(), 1e-15);
+    }
+
+    @Test
+    public void testSolveWithRules() {
+        ChebyshevApproximation surrogate = ChebyshevApproximation.fit(x -> Math.log(1 + x * x), 0, 4);
+        double expected = 4 * Math.log(17) - 8 + 2 * Math.atan(4);
+        assertEquals(expected, surrogate.integrate(), 1e-13);
+        assertEquals(surrogate.integrate(0, 4), new SimpsonsRule(2000).solve(surrogate, 0, 4), 0d);
+        assertEquals(surrogate.integrate(1, 3), new RombergRule(1e-6).solve(surrogate, 1, 3), 0d);
+    }
+
+    @Test
+    public void testNotConverged() {
+        ChebyshevApproximation surrogate = ChebyshevApproximation.fit(Math::abs, -1, 1, 1e-15, 64);
+        assertFalse(surrogate.isConverged());
+        assertEquals(64, surrogate.getDegree());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotFinite() {
+        ChebyshevApproximation.fit(x -> 1 / x, 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyInterval() {
+        ChebyshevApproximation.fit(Math::exp, 1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxDegree() {
+        ChebyshevApproximation.fit(Math::exp, 0, 1, 1e-15, 8);
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class ClenshawCurtisRuleTest {
+
+    @Test
+    public void testWeights() {
+        for (int n : new int[]{1, 4, 32, 256}) {
+            double[] weights = ClenshawCurtisRule.weights(n);
+            double total = 0d;
+            for (int j = 0; j <= n; j++) {
+                double expected = 0d;
+                for (int k = 0; k <= n; k += 2) {
+                    double moment = 2d / (1 - (double) k * k);
+                    double term = moment * Math.cos(Math.PI * j * k / n);
+                    expected += k == 0 || k == n ? term / 2 : term;
+                }
+                expected *= (j == 0 || j == n ? 1d : 2d) / n;
+                assertEquals(expected, weights[j], 1e-14);
+                assertEquals(weights[j], weights[n - j], 1e-15);
+                total += weights[j];
+            }
+            assertEquals(2d, total, 1e-14);
+        }
+    }
+
+    @Test
+    public void testSmoothFunctions() {
+        ClenshawCurtisRule rule = new ClenshawCurtisRule(1e-13);
+        assertEquals(Math.E - 1, rule.solve(Math::exp, 0, 1), 1e-14);
+        assertEquals(1 - Math.cos(3), rule.solve(Math::sin, 0, 3), 1e-14);
+        assertEquals(Math.atan(5) * 2, rule.solve(x -> 1 / (1 + x * x), -5, 5), 1e-12);
+        assertEquals(0d, rule.solve(Math::sin, 2, 2), 0d);
+    }
+
+    @Test
+    public void testPolynomialIsExact() {
+        ClenshawCurtisRule rule = new ClenshawCurtisRule(1e-10, 1);
+        IntegrationResult result = rule.integrate(x -> x * x * x * x * x * x * x - 2 * x * x, -1, 2);
+        assertEquals(255d / 8 - 6, result.getValue(), 1e-12);
+        assertEquals(9, result.getEvaluations());
+    }
+
+    @Test
+    public void testFewerEvaluationsThanSimpsons() {
+        Fdx fn = x -> Math.exp(-x * x) * Math.cos(4 * x);
+        IntegrationResult result = new ClenshawCurtisRule(1e-10).integrate(fn, -2, 2);
+        double simpsons = new SimpsonsRule((int) result.getEvaluations() - 1).solve(fn, -2, 2);
+        double reference = new SimpsonsRule(200_000).solve(fn, -2, 2);
+
+        assertEquals(reference, result.getValue(), 1e-10);
+        assertTrue(Math.abs(simpsons - reference) > 1e-8);
+    }
+
+    @Test
+    public void testNestedLevelsReuseEvaluations() {
+        AtomicLong calls = new AtomicLong();
+        Fdx fn = x -> {
+            calls.incrementAndGet();
+            return Math.cos(20 * x);
+        };
+        IntegrationResult result = new ClenshawCurtisRule(1e-12).integrate(fn, 0, 3);
+        assertEquals(Math.sin(60) / 20, result.getValue(), 1e-12);
+        assertEquals(result.getEvaluations(), calls.get());
+        assertTrue(result.getErrorEstimate() <= 1e-12);
+    }
+
+    @Test
+    public void testBulkSameAsScalar() {
+        Fdx fn = x -> Math.log(2 + x) * x;
+        BulkFdx bulk = (x, fx, length) -> {
+            for (int i = 0; i < length; i++)
+                fx[i] = fn.calculate(x[i]);
+        };
+        ClenshawCurtisRule rule = new ClenshawCurtisRule(1e-15, 10);
+        assertEquals(rule.solve(fn, -1, 4), rule.solve(bulk, -1, 4), 0d);
+    }
+
+    @Test
+    public void testPrimitiveSolve() {
+        ClenshawCurtisRule rule = new ClenshawCurtisRule(1e-12);
+        DefiniteIntegral integral = new DefiniteIntegral(Math::cosh, -1, 1);
+        assertEquals(rule.solve(integral), rule.solve(Math::cosh, -1, 1), 0d);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTolerance() {
+        new ClenshawCurtisRule(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxLevels() {
+        new ClenshawCurtisRule(1e-6, 25);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLimits() {
+        new ClenshawCurtisRule(1e-6).solve(Math::exp, 1, 0);
+    }
+
+}
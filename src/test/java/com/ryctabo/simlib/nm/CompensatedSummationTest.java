@@ -0,0 +1,169 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class CompensatedSummationTest {
+
+    private static NumericalIntegration[] rules() {
+        NumericalIntegration[] rules = {
+                new TrapezoidalRule(60_000),
+                new SimpsonsRule(60_000, SimpsonsRule.Composite.MAIN),
+                new SimpsonsRule(60_000, SimpsonsRule.Composite.THREE_EIGHTHS),
+                new GaussLegendreRule(3, 20_000)
+        };
+        for (NumericalIntegration rule : rules)
+            rule.setSummation(NumericalIntegration.Summation.COMPENSATED);
+        return rules;
+    }
+
+    @Test
+    public void testReproducibleInParallel() {
+        Fdx fn = x -> Math.exp(-x) * Math.cos(7 * x) + 1e3;
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (NumericalIntegration rule : rules()) {
+                double sequential = rule.solve(fn, 0, 5);
+                rule.setPool(pool);
+                for (int threshold : new int[]{1, 100, 777, 5000}) {
+                    rule.setThreshold(threshold);
+                    assertEquals(sequential, rule.solve(fn, 0, 5), 0d);
+                }
+                rule.setPool(ForkJoinPool.commonPool());
+                assertEquals(sequential, rule.solve(fn, 0, 5), 0d);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testVectorReproducibleInParallel() {
+        VectorFdx fn = (x, fx) -> {
+            fx[0] = Math.exp(-x) * Math.cos(7 * x) + 1e3;
+            fx[1] = Math.sqrt(x);
+        };
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (NumericalIntegration rule : rules()) {
+                double[] sequential = rule.solve(fn, 2, 0, 5);
+                rule.setPool(pool);
+                for (int threshold : new int[]{1, 100, 777, 5000}) {
+                    rule.setThreshold(threshold);
+                    double[] parallel = rule.solve(fn, 2, 0, 5);
+                    assertEquals(sequential[0], parallel[0], 0d);
+                    assertEquals(sequential[1], parallel[1], 0d);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testMoreAccurateThanNaive() {
+        Fdx fn = x -> 0.1;
+        TrapezoidalRule rule = new TrapezoidalRule(10_000_000);
+        double naive = Math.abs(rule.solve(fn, 0, 1) - 0.1);
+        rule.setSummation(NumericalIntegration.Summation.COMPENSATED);
+        double compensated = Math.abs(rule.solve(fn, 0, 1) - 0.1);
+        assertTrue(compensated < naive);
+        assertTrue(compensated < 1e-15);
+    }
+
+    @Test
+    public void testBulkSameAsScalar() {
+        Fdx fn = x -> x * Math.sin(x);
+        BulkFdx bulk = (x, fx, length) -> {
+            for (int i = 0; i < length; i++)
+                fx[i] = fn.calculate(x[i]);
+        };
+        for (NumericalIntegration rule : rules())
+            assertEquals(rule.solve(fn, -2, 3), rule.solve(bulk, -2, 3), 0d);
+    }
+
+    @Test
+    public void testVectorSameAsScalar() {
+        VectorFdx fn = (x, fx) -> {
+            fx[0] = Math.sin(x);
+            fx[1] = x * x;
+        };
+        for (NumericalIntegration rule : rules()) {
+            rule.setPool(ForkJoinPool.commonPool());
+            rule.setThreshold(500);
+            double[] result = rule.solve(fn, 2, 0, 4);
+            assertEquals(rule.solve(Math::sin, 0, 4), result[0], 0d);
+            assertEquals(rule.solve(x -> x * x, 0, 4), result[1], 0d);
+        }
+    }
+
+    @Test
+    public void testInlineSummationDoesNotFork() {
+        int iterations = 2 * NumericalIntegration.BLOCK_SIZE - 1;
+        TrapezoidalRule rule = new TrapezoidalRule(iterations);
+        rule.setSummation(NumericalIntegration.Summation.COMPENSATED);
+        rule.setThreshold(iterations);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ForkJoinPool caller = new ForkJoinPool(1);
+        try {
+            rule.setPool(pool);
+            int[] forked = {0};
+            Fdx fn = x -> {
+                forked[0] = Math.max(forked[0], ForkJoinTask.getQueuedTaskCount());
+                return x;
+            };
+            VectorFdx vector = (x, fx) -> {
+                forked[0] = Math.max(forked[0], ForkJoinTask.getQueuedTaskCount());
+                fx[0] = x;
+            };
+            double scalar = caller.submit(() -> rule.solve(fn, 0, 2)).join();
+            double[] result = caller.submit(() -> rule.solve(vector, 1, 0, 2)).join();
+            assertEquals(2d, scalar, 1e-12);
+            assertEquals(scalar, result[0], 0d);
+            assertEquals(0, forked[0]);
+            assertEquals(0L, pool.getStealCount());
+            assertEquals(0L, pool.getQueuedTaskCount());
+        } finally {
+            pool.shutdown();
+            caller.shutdown();
+        }
+    }
+
+    @Test
+    public void testSmallIterations() {
+        TrapezoidalRule rule = new TrapezoidalRule(1);
+        rule.setSummation(NumericalIntegration.Summation.COMPENSATED);
+        assertEquals(2d, rule.solve(x -> x, 0, 2), 0d);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullSummation() {
+        new TrapezoidalRule(10).setSummation(null);
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class CubatureTest {
+
+    @Test
+    public void testRectangle() {
+        Cubature cubature = new Cubature(new TrapezoidalRule(10), new TrapezoidalRule(20));
+        assertEquals(cubature.solve((x, y) -> x * y, 0, 1, 0, 2), 1d, 1e-14);
+
+        cubature = new Cubature(new SimpsonsRule(20), new SimpsonsRule(20));
+        double expected = (1 - Math.cos(Math.PI)) * (Math.E - 1);
+        assertEquals(cubature.solve((x, y) -> Math.sin(x) * Math.exp(y), 0, Math.PI, 0, 1), expected, 1e-4);
+    }
+
+    @Test
+    public void testTensorProduct() {
+        AtomicLong calls = new AtomicLong();
+        Cubature cubature = new Cubature(new TrapezoidalRule(10), new TrapezoidalRule(20));
+        cubature.solve((x, y) -> {
+            calls.incrementAndGet();
+            return x + y;
+        }, 0, 1, 0, 1);
+        assertEquals(calls.get(), 11L * 21L);
+    }
+
+    @Test
+    public void testBoundedRegion() {
+        Cubature cubature = new Cubature(new GaussLegendreRule(3), new GaussLegendreRule(3));
+        assertEquals(cubature.solve((x, y) -> x + y, 0, 1, x -> 0, x -> x), 0.5d, 1e-14);
+
+        cubature = new Cubature(new GaussLegendreRule(20, 4), new GaussLegendreRule(20, 4));
+        double area = cubature.solve((x, y) -> 1d, -1, 1,
+                x -> -Math.sqrt(1 - x * x), x -> Math.sqrt(1 - x * x));
+        assertEquals(area, Math.PI, 1e-4);
+    }
+
+    @Test
+    public void testBox() {
+        Cubature cubature = new Cubature(new SimpsonsRule(4), new SimpsonsRule(4));
+        assertEquals(cubature.solve((x, y, z) -> x * y * z, 0, 1, 0, 2, 0, 3), 4.5d, 1e-13);
+    }
+
+    @Test
+    public void testTetrahedron() {
+        Cubature cubature = new Cubature(new GaussLegendreRule(2), new GaussLegendreRule(2),
+                new GaussLegendreRule(2));
+        double volume = cubature.solve((x, y, z) -> 1d, 0, 1,
+                x -> 0, x -> 1 - x, (x, y) -> 0, (x, y) -> 1 - x - y);
+        assertEquals(volume, 1d / 6, 1e-14);
+    }
+
+    @Test
+    public void testAdaptiveInnerRule() {
+        Cubature cubature = new Cubature(new GaussLegendreRule(10, 4), new AdaptiveSimpsonsRule(1e-10));
+        double volume = cubature.solve((x, y) -> Math.sqrt(Math.max(0, 1 - x * x - y * y)), -1, 1,
+                x -> -Math.sqrt(1 - x * x), x -> Math.sqrt(1 - x * x));
+        assertEquals(volume, 2 * Math.PI / 3, 1e-2);
+    }
+
+    @Test
+    public void testSolveInParallel() {
+        Fdxyz fn = (x, y, z) -> Math.exp(-(x * x + y * y + z * z));
+        Cubature[] cubatures = {
+                new Cubature(new TrapezoidalRule(30), new SimpsonsRule(10)),
+                new Cubature(new SimpsonsRule(30), new TrapezoidalRule(10)),
+                new Cubature(new GaussLegendreRule(5, 8), new GaussLegendreRule(3, 4))
+        };
+        for (Cubature cubature : cubatures) {
+            double sequential = cubature.solve(fn, -2, 2, x -> -1, x -> 1, (x, y) -> x, (x, y) -> 2);
+            cubature.setPool(ForkJoinPool.commonPool());
+            assertEquals(cubature.solve(fn, -2, 2, x -> -1, x -> 1, (x, y) -> x, (x, y) -> 2), sequential, 0d);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLimits() {
+        new Cubature(new TrapezoidalRule(10), new TrapezoidalRule(10)).solve((x, y) -> 1d, 0, 1, 1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBoundedLimits() {
+        new Cubature(new TrapezoidalRule(10), new TrapezoidalRule(10))
+                .solve((x, y) -> 1d, 0, 1, x -> x, x -> 0.5);
+    }
+
+}
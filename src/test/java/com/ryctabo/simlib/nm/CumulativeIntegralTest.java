@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class CumulativeIntegralTest {
+
+    private CumulativeIntegral table;
+
+    @Before
+    public void setUp() {
+        this.table = new CumulativeIntegral(new DefiniteIntegral(Math::sin, 0, Math.PI), 10_000);
+    }
+
+    @Test
+    public void testIntegrate() {
+        assertEquals(table.integrate(0, Math.PI), 2d, 1e-7);
+        assertEquals(table.integrate(0.5, 1.25), Math.cos(0.5) - Math.cos(1.25), 1e-7);
+        assertEquals(table.integrate(1d, 1d), 0d, 0d);
+        assertEquals(table.valueAt(0d), 0d, 0d);
+    }
+
+    @Test
+    public void testIntegrateAtGridPoints() {
+        DefiniteIntegral integral = new DefiniteIntegral(Math::sin, 0, Math.PI / 2);
+        assertEquals(table.valueAt(Math.PI / 2), new TrapezoidalRule(5_000).solve(integral), 1e-12);
+    }
+
+    @Test
+    public void testIntegrateLinearFunctionIsExact() {
+        CumulativeIntegral linear = new CumulativeIntegral(new DefiniteIntegral(x -> 2 * x + 1, -1, 3), 7);
+        assertEquals(linear.integrate(-0.3, 2.71), (2.71 * 2.71 + 2.71) - (0.09 - 0.3), 1e-12);
+    }
+
+    @Test
+    public void testParallelBuild() {
+        DefiniteIntegral integral = new DefiniteIntegral(x -> Math.exp(-x * x), -3, 3);
+        CumulativeIntegral sequential = new CumulativeIntegral(integral, 100_000);
+        CumulativeIntegral parallel = new CumulativeIntegral(integral, 100_000, ForkJoinPool.commonPool());
+
+        for (double x = -3; x <= 3; x += 0.37)
+            assertEquals(parallel.valueAt(x), sequential.valueAt(x), 1e-12);
+        assertEquals(parallel.integrate(-3, 3), Math.sqrt(Math.PI) * 0.999977909503001, 1e-8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfInterval() {
+        table.integrate(-1d, 1d);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSubinterval() {
+        table.integrate(2d, 1d);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidIterations() {
+        new CumulativeIntegral(new DefiniteIntegral(Math::sin, 0, 1), 0);
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class DoubleCacheTest {
+
+    @Test
+    public void testPutAndFind() {
+        DoubleCache cache = new DoubleCache(4);
+        cache.put(10L, 1d);
+        cache.put(20L, 2d);
+        assertEquals(cache.size(), 2);
+        assertEquals(cache.value(cache.find(10L)), 1d, 0d);
+        assertEquals(cache.value(cache.find(20L)), 2d, 0d);
+        assertEquals(cache.find(30L), -1);
+    }
+
+    @Test
+    public void testClockEviction() {
+        DoubleCache cache = new DoubleCache(3);
+        cache.put(1L, 1d);
+        cache.put(2L, 2d);
+        cache.put(3L, 3d);
+        cache.value(cache.find(1L));
+
+        cache.put(4L, 4d);
+        assertEquals(cache.size(), 3);
+        assertTrue(cache.find(1L) >= 0);
+        assertEquals(cache.find(2L), -1);
+        assertTrue(cache.find(3L) >= 0);
+        assertTrue(cache.find(4L) >= 0);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        DoubleCache cache = new DoubleCache(64);
+        Map<Long, Double> values = new LinkedHashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(200);
+            int slot = cache.find(key);
+            if (slot >= 0) {
+                assertEquals(cache.value(slot), values.get(key), 0d);
+            } else {
+                double value = random.nextDouble();
+                values.put(key, value);
+                cache.put(key, value);
+            }
+            assertTrue(cache.size() <= 64);
+        }
+
+        int found = 0;
+        for (long key = 0; key < 200; key++) {
+            int slot = cache.find(key);
+            if (slot >= 0) {
+                found++;
+                assertEquals(cache.value(slot), values.get(key), 0d);
+            }
+        }
+        assertEquals(found, 64);
+    }
+
+    @Test
+    public void testClear() {
+        DoubleCache cache = new DoubleCache(2);
+        cache.put(1L, 1d);
+        cache.clear();
+        assertEquals(cache.size(), 0);
+        assertEquals(cache.find(1L), -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new DoubleCache(0);
+    }
+
+}
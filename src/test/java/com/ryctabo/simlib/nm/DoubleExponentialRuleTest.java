@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+@RunWith(Parameterized.class)
+public class DoubleExponentialRuleTest {
+
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    private final Fdx function;
+
+    private final double lowerLimit;
+
+    private final double upperLimit;
+
+    private final double actual;
+
+    private final long maxEvaluations;
+
+    public DoubleExponentialRuleTest(Fdx function, double lowerLimit, double upperLimit,
+                                     double actual, long maxEvaluations) {
+        this.function = function;
+        this.lowerLimit = lowerLimit;
+        this.upperLimit = upperLimit;
+        this.actual = actual;
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getData() {
+        return Arrays.asList(new Object[][]{
+                {(Fdx) Math::sin, 0d, Math.PI, 2d, 100L},
+                {(Fdx) x -> 1 / Math.sqrt(x), 0d, 1d, 2d, 200L},
+                {(Fdx) Math::log, 0d, 1d, -1d, 200L},
+                {(Fdx) x -> Math.exp(-x), 0d, INF, 1d, 200L},
+                {(Fdx) x -> 1 / (1 + x * x), 0d, INF, Math.PI / 2, 300L},
+                {(Fdx) Math::exp, -INF, 0d, 1d, 200L},
+                {(Fdx) x -> Math.exp(-x * x), -INF, INF, Math.sqrt(Math.PI), 200L},
+                {(Fdx) x -> Math.exp(-x) / Math.sqrt(x), 0d, INF, Math.sqrt(Math.PI), 300L}
+        });
+    }
+
+    @Test
+    public void testSolve() {
+        DoubleExponentialRule rule = new DoubleExponentialRule(1e-10);
+        assertEquals(rule.solve(new DefiniteIntegral(function, lowerLimit, upperLimit)), actual, 1e-9);
+    }
+
+    @Test
+    public void testEvaluations() {
+        DoubleExponentialRule rule = new DoubleExponentialRule(1e-10);
+        IntegrationResult result = rule.integrate(function, lowerLimit, upperLimit);
+        assertTrue(result.getEvaluations() + " evaluations", result.getEvaluations() <= maxEvaluations);
+        assertTrue(result.getErrorEstimate() <= 1e-10);
+    }
+
+    @Test
+    public void testEmptyInterval() {
+        IntegrationResult result = new DoubleExponentialRule(1e-10).integrate(function, 1d, 1d);
+        assertEquals(result.getValue(), 0d, 0d);
+        assertEquals(result.getEvaluations(), 0L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTolerance() {
+        new DoubleExponentialRule(0d);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLimits() {
+        new DoubleExponentialRule(1e-10).solve(function, Double.NaN, 1d);
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class ExpressionTest {
+
+    private static final double[] POINTS = {-2.5, -1, -0.3, 0, 0.25, 1, 1.7, 3};
+
+    private static void assertSameFunction(String text, Fdx expected) {
+        Expression expression = Expression.compile(text);
+        for (double x : POINTS)
+            assertEquals(text + " at " + x, expected.calculate(x), expression.calculate(x), 0d);
+    }
+
+    @Test
+    public void testOperators() {
+        assertSameFunction("1 + 2 * x", x -> 1 + 2 * x);
+        assertSameFunction("x - 3 - x / 2", x -> x - 3 - x / 2);
+        assertSameFunction("(1 + x) * (1 - x)", x -> (1 + x) * (1 - x));
+        assertSameFunction("2 ^ x", x -> Math.pow(2, x));
+        assertSameFunction("2 ^ 3 ^ x", x -> Math.pow(2, Math.pow(3, x)));
+        assertSameFunction("-x ^ 2", x -> -(x * x));
+        assertSameFunction("--x", x -> x);
+        assertSameFunction("x ^ -1.5", x -> Math.pow(x, -1.5));
+        assertSameFunction("x^3 + 1.5e-1 * x", x -> x * x * x + 0.15 * x);
+    }
+
+    @Test
+    public void testFunctionsAndConstants() {
+        assertSameFunction("exp(-x^2) * sin(3*x)", x -> Math.exp(-(x * x)) * Math.sin(3 * x));
+        assertSameFunction("sqrt(abs(x)) + ln(1 + x*x)", x -> Math.sqrt(Math.abs(x)) + Math.log(1 + x * x));
+        assertSameFunction("atan2(x, 2) + hypot(x, 1) - max(x, 0) * min(x, 1)",
+                x -> Math.atan2(x, 2) + Math.hypot(x, 1) - Math.max(x, 0) * Math.min(x, 1));
+        assertSameFunction("pow(e, x) * cos(pi * x)", x -> Math.pow(Math.E, x) * Math.cos(Math.PI * x));
+        assertSameFunction("floor(x) + ceil(x) + cbrt(x) + tanh(x)",
+                x -> Math.floor(x) + Math.ceil(x) + Math.cbrt(x) + Math.tanh(x));
+    }
+
+    @Test
+    public void testConstantFolding() {
+        assertEquals(1, Expression.compile("2 * pi / 4 + sqrt(16)").size());
+        assertEquals(Math.PI / 2 + 4, Expression.compile("2 * pi / 4 + sqrt(16)").calculate(7), 0d);
+        assertEquals(3, Expression.compile("(1 + 2) * x").size());
+    }
+
+    @Test
+    public void testCache() {
+        Expression expression = Expression.compile("x * exp(-x)");
+        assertSame(expression, Expression.compile("x * exp(-x)"));
+        assertEquals("x * exp(-x)", expression.getText());
+    }
+
+    @Test
+    public void testBulkSameAsScalar() {
+        Expression expression = Expression.compile("exp(-x^2) * sin(3*x) + x^3 / (1 + abs(x))");
+        int length = 3 * NumericalIntegration.BLOCK_SIZE + 17;
+        double[] x = new double[length];
+        double[] fx = new double[length];
+        for (int i = 0; i < length; i++)
+            x[i] = -4 + 8d * i / length;
+        expression.calculate(x, fx, length);
+        for (int i = 0; i < length; i++)
+            assertEquals(expression.calculate(x[i]), fx[i], 0d);
+    }
+
+    @Test
+    public void testIntegrate() {
+        Fdx lambda = x -> Math.exp(-(x * x)) * Math.sin(3 * x) + 2;
+        Expression expression = Expression.compile("exp(-x^2) * sin(3*x) + 2");
+        NumericalIntegration[] rules = {
+                new TrapezoidalRule(1000),
+                new SimpsonsRule(1000, SimpsonsRule.Composite.MAIN),
+                new GaussLegendreRule(4, 100)
+        };
+        for (NumericalIntegration rule : rules) {
+            assertEquals(rule.solve(lambda, -1, 2), rule.solve(expression, -1, 2), 0d);
+            rule.setPool(ForkJoinPool.commonPool());
+            rule.setThreshold(100);
+            assertEquals(rule.solve(lambda, -1, 2), rule.solve(expression, -1, 2), 0d);
+        }
+    }
+
+    @Test
+    public void testInvalidExpressions() {
+        String[] invalid = {"", "1 +", "2 * (x + 1", "x y", "sin x", "foo(x)", "y + 1", "pow(x)", "3 $ x", "1..2"};
+        for (String text : invalid) {
+            try {
+                Expression.compile(text);
+                fail("Expected an exception for \"" + text + "\"");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("position"));
+            }
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullExpression() {
+        Expression.compile(null);
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class FastFourierTransformTest {
+
+    private static double[] random(int n, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++)
+            values[i] = random.nextDouble() - 0.5;
+        return values;
+    }
+
+    @Test
+    public void testSameAsDirectTransform() {
+        for (int n : new int[]{1, 2, 8, 64, 256}) {
+            double[] real = random(n, n);
+            double[] imaginary = random(n, -n);
+            double[] expectedReal = new double[n];
+            double[] expectedImaginary = new double[n];
+            for (int k = 0; k < n; k++) {
+                for (int j = 0; j < n; j++) {
+                    double angle = -2 * Math.PI * ((long) j * k % n) / n;
+                    expectedReal[k] += real[j] * Math.cos(angle) - imaginary[j] * Math.sin(angle);
+                    expectedImaginary[k] += real[j] * Math.sin(angle) + imaginary[j] * Math.cos(angle);
+                }
+            }
+
+            FastFourierTransform.transform(real, imaginary);
+            assertArrayEquals(expectedReal, real, 1e-12);
+            assertArrayEquals(expectedImaginary, imaginary, 1e-12);
+        }
+    }
+
+    @Test
+    public void testInverseTransform() {
+        double[] real = random(1024, 1);
+        double[] imaginary = random(1024, 2);
+        double[] originalReal = real.clone();
+        double[] originalImaginary = imaginary.clone();
+
+        FastFourierTransform.transform(real, imaginary);
+        FastFourierTransform.inverseTransform(real, imaginary);
+        assertArrayEquals(originalReal, real, 1e-14);
+        assertArrayEquals(originalImaginary, imaginary, 1e-14);
+    }
+
+    @Test
+    public void testCosineTransform() {
+        for (int n : new int[]{1, 2, 16, 128}) {
+            double[] values = random(n + 1, n);
+            double[] expected = new double[n + 1];
+            for (int k = 0; k <= n; k++) {
+                expected[k] = (values[0] + (k % 2 == 0 ? 1 : -1) * values[n]) / 2;
+                for (int j = 1; j < n; j++)
+                    expected[k] += values[j] * Math.cos(Math.PI * j * k / n);
+            }
+
+            double[] result = FastFourierTransform.cosineTransform(values);
+            assertArrayEquals(expected, result, 1e-12);
+
+            double[] inverse = FastFourierTransform.cosineTransform(result);
+            for (int j = 0; j <= n; j++)
+                assertEquals(values[j], inverse[j] * 2 / n, 1e-13);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLengthNotPowerOfTwo() {
+        FastFourierTransform.transform(new double[12], new double[12]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDifferentLengths() {
+        FastFourierTransform.transform(new double[8], new double[4]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCosineTransformLength() {
+        FastFourierTransform.cosineTransform(new double[8]);
+    }
+
+}
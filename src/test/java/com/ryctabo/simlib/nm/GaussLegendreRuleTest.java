@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+@RunWith(Parameterized.class)
+public class GaussLegendreRuleTest {
+
+    private final int order;
+
+    private final int panels;
+
+    private final DefiniteIntegral integral;
+
+    private final double actual;
+
+    private GaussLegendreRule rule;
+
+    public GaussLegendreRuleTest(int order, int panels, DefiniteIntegral integral, double actual) {
+        this.order = order;
+        this.panels = panels;
+        this.integral = integral;
+        this.actual = actual;
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getData() {
+        return Arrays.asList(new Object[][]{
+                {1, 1, new DefiniteIntegral(x -> 3 * x + 1, 0, 2), 8d},
+                {2, 1, new DefiniteIntegral(x -> x * (x - 2) * (x - 3), 0, 5), 22.9166666666667d},
+                {5, 1, new DefiniteIntegral(x -> Math.pow(x, 9), -1, 2), 102.3d},
+                {8, 4, new DefiniteIntegral(x -> 1 / (x + 1), 2, 3), Math.log(4d / 3d)},
+                {20, 1, new DefiniteIntegral(Math::sin, 0, Math.PI), 2d},
+                {6, 20, new DefiniteIntegral(x -> Math.exp(-x * x), -6, 6), Math.sqrt(Math.PI)}
+        });
+    }
+
+    @Before
+    public void setUp() {
+        this.rule = new GaussLegendreRule(order, panels);
+    }
+
+    @Test
+    public void testSolve() {
+        assertEquals(this.rule.solve(integral), actual, 1e-12);
+    }
+
+    @Test
+    public void testSolveInParallel() {
+        this.rule.setPool(ForkJoinPool.commonPool());
+        this.rule.setThreshold(1);
+        assertEquals(this.rule.solve(integral), actual, 1e-12);
+    }
+
+    @Test
+    public void testPrimitiveSolve() {
+        double expected = this.rule.solve(integral);
+        double solved = this.rule.solve(integral.getFunction(), integral.getLowerLimit(), integral.getUpperLimit());
+        assertEquals(solved, expected, 0d);
+    }
+
+    @Test
+    public void testGetOrder() {
+        assertEquals(this.rule.getOrder(), order);
+        assertEquals(this.rule.getIterations(), panels);
+    }
+
+    @Test
+    public void testCachedNodes() {
+        assertSame(GaussLegendreRule.nodes(order), GaussLegendreRule.nodes(order));
+        assertEquals(Arrays.stream(GaussLegendreRule.nodes(order).weights).sum(), 2d, 1e-14);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidOrder() {
+        new GaussLegendreRule(0, panels);
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class IntegrationMetricsTest {
+
+    private final DefiniteIntegral integral = new DefiniteIntegral(Math::sin, 0, Math.PI);
+
+    @Test
+    public void testDisabledByDefault() {
+        TrapezoidalRule rule = new TrapezoidalRule(100);
+        assertNull(rule.getListener());
+        assertNull(new RombergRule(1e-8).getListener());
+        assertNull(new AdaptiveSimpsonsRule(1e-8).getListener());
+    }
+
+    @Test
+    public void testNumericalIntegrationEvent() {
+        List<IntegrationEvent> events = new ArrayList<>();
+        SimpsonsRule rule = new SimpsonsRule(100);
+        rule.setListener(events::add);
+
+        double value = rule.solve(integral);
+        assertEquals(value, new SimpsonsRule(100).solve(integral), 0d);
+        assertEquals(events.size(), 1);
+
+        IntegrationEvent event = events.get(0);
+        assertTrue(event.getRule() == rule);
+        assertEquals(event.getIterations(), 100);
+        assertEquals(event.getStepSize(), Math.PI / 100, 0d);
+        assertEquals(event.getEvaluations(), 101L);
+        assertTrue(event.getNanos() >= 0L);
+        assertTrue(Double.isNaN(event.getErrorEstimate()));
+    }
+
+    @Test
+    public void testGaussLegendreEvaluations() {
+        List<IntegrationEvent> events = new ArrayList<>();
+        GaussLegendreRule rule = new GaussLegendreRule(5, 10);
+        rule.setListener(events::add);
+        rule.solve(integral);
+        assertEquals(events.get(0).getEvaluations(), 50L);
+    }
+
+    @Test
+    public void testAdaptiveEvents() {
+        List<IntegrationEvent> events = new ArrayList<>();
+        AdaptiveSimpsonsRule adaptive = new AdaptiveSimpsonsRule(1e-10);
+        RombergRule romberg = new RombergRule(1e-10);
+        adaptive.setListener(events::add);
+        romberg.setListener(events::add);
+
+        IntegrationResult first = adaptive.integrate(integral);
+        IntegrationResult second = romberg.integrate(integral);
+        assertEquals(events.size(), 2);
+
+        assertEquals(events.get(0).getEvaluations(), first.getEvaluations());
+        assertEquals(events.get(0).getErrorEstimate(), first.getErrorEstimate(), 0d);
+        assertEquals(events.get(0).getIterations(), 0);
+        assertTrue(Double.isNaN(events.get(0).getStepSize()));
+        assertEquals(events.get(1).getEvaluations(), second.getEvaluations());
+        assertEquals(events.get(1).getErrorEstimate(), second.getErrorEstimate(), 0d);
+    }
+
+    @Test
+    public void testMetrics() {
+        IntegrationMetrics metrics = new IntegrationMetrics();
+        assertNull(metrics.getSlowest());
+        assertEquals(metrics.getQuantileNanos(0.5), 0L);
+
+        TrapezoidalRule trapezoidal = new TrapezoidalRule(10);
+        SimpsonsRule simpsons = new SimpsonsRule(10);
+        metrics.onSolve(new IntegrationEvent(trapezoidal, 10, 0.1, 11L, 100L, Double.NaN));
+        metrics.onSolve(new IntegrationEvent(trapezoidal, 10, 0.1, 11L, 300L, Double.NaN));
+        metrics.onSolve(new IntegrationEvent(simpsons, 10, 0.1, 11L, 5000L, Double.NaN));
+
+        assertEquals(metrics.getSolves(), 3L);
+        assertEquals(metrics.getEvaluations(), 33L);
+        assertEquals(metrics.getTotalNanos(), 5400L);
+        assertEquals(metrics.getSlowest().getNanos(), 5000L);
+        assertTrue(metrics.getSlowest().getRule() == simpsons);
+        assertEquals((long) metrics.getSolvesByRule().get(TrapezoidalRule.class), 2L);
+        assertEquals((long) metrics.getSolvesByRule().get(SimpsonsRule.class), 1L);
+
+        long[] histogram = metrics.getHistogram();
+        assertEquals(histogram[IntegrationMetrics.bucket(100L)], 1L);
+        assertEquals(histogram[IntegrationMetrics.bucket(300L)], 1L);
+        assertEquals(histogram[IntegrationMetrics.bucket(5000L)], 1L);
+        assertEquals(metrics.getQuantileNanos(0.5), 512L);
+        assertEquals(metrics.getQuantileNanos(1d), 8192L);
+    }
+
+    @Test
+    public void testBucket() {
+        assertEquals(IntegrationMetrics.bucket(0L), 0);
+        assertEquals(IntegrationMetrics.bucket(1L), 1);
+        assertEquals(IntegrationMetrics.bucket(1023L), 10);
+        assertEquals(IntegrationMetrics.bucket(1024L), 11);
+        assertEquals(IntegrationMetrics.bucket(Long.MAX_VALUE), IntegrationMetrics.BUCKETS - 1);
+    }
+
+    @Test
+    public void testConcurrentSolves() throws InterruptedException {
+        IntegrationMetrics metrics = new IntegrationMetrics();
+        TrapezoidalRule rule = new TrapezoidalRule(1000);
+        rule.setListener(metrics);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 400; i++)
+            executor.execute(() -> rule.solve(integral));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(metrics.getSolves(), 400L);
+        assertEquals(metrics.getEvaluations(), 400L * 1001L);
+        assertNotNull(metrics.getSlowest());
+
+        long total = 0L;
+        for (long count : metrics.getHistogram())
+            total += count;
+        assertEquals(total, 400L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQuantile() {
+        new IntegrationMetrics().getQuantileNanos(1.5);
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import com.ryctabo.simlib.nm.MonteCarloIntegration.Sequence;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class MonteCarloIntegrationTest {
+
+    private final MultivariateFdx product = x -> {
+        double result = 1d;
+        for (double value : x)
+            result *= 2 * value;
+        return result;
+    };
+
+    @Test
+    public void testPseudoRandom() {
+        MonteCarloIntegration rule = new MonteCarloIntegration(Sequence.PSEUDO_RANDOM, 200_000);
+        MonteCarloResult result = rule.integrate(Math::sin, 0, Math.PI);
+        assertEquals(result.getSamples(), 200_000L);
+        assertEquals(result.getValue(), 2d, 3 * result.getHalfWidth());
+        assertEquals(result.getStandardError(), Math.sqrt(result.getVariance() / 200_000), 0d);
+        assertFalse(result.isConverged());
+    }
+
+    @Test
+    public void testReproducibleForAnyNumberOfThreads() {
+        for (Sequence sequence : Sequence.values()) {
+            MonteCarloIntegration rule = new MonteCarloIntegration(sequence, 300_000);
+            rule.setSeed(7L);
+            rule.setBlocksPerRound(8);
+            MonteCarloResult sequential = rule.integrate(product, new double[]{0, 0, 0}, new double[]{1, 1, 1});
+
+            rule.setPool(ForkJoinPool.commonPool());
+            MonteCarloResult common = rule.integrate(product, new double[]{0, 0, 0}, new double[]{1, 1, 1});
+            ForkJoinPool pool = new ForkJoinPool(3);
+            rule.setPool(pool);
+            MonteCarloResult three = rule.integrate(product, new double[]{0, 0, 0}, new double[]{1, 1, 1});
+            pool.shutdown();
+
+            assertEquals(common.getValue(), sequential.getValue(), 0d);
+            assertEquals(three.getValue(), sequential.getValue(), 0d);
+            assertEquals(three.getVariance(), sequential.getVariance(), 0d);
+        }
+    }
+
+    @Test
+    public void testSeed() {
+        MonteCarloIntegration rule = new MonteCarloIntegration(Sequence.PSEUDO_RANDOM, 10_000);
+        double first = rule.solve(Math::exp, 0, 1);
+        assertEquals(rule.solve(Math::exp, 0, 1), first, 0d);
+        rule.setSeed(1L);
+        assertTrue(rule.solve(Math::exp, 0, 1) != first);
+    }
+
+    @Test
+    public void testQuasiRandomIsMoreAccurate() {
+        double[] lower = {0, 0, 0, 0, 0};
+        double[] upper = {1, 1, 1, 1, 1};
+        double random = new MonteCarloIntegration(Sequence.PSEUDO_RANDOM, 1 << 16)
+                .integrate(product, lower, upper).getValue();
+        double halton = new MonteCarloIntegration(Sequence.HALTON, 1 << 16)
+                .integrate(product, lower, upper).getValue();
+        double sobol = new MonteCarloIntegration(Sequence.SOBOL, 1 << 16)
+                .integrate(product, lower, upper).getValue();
+
+        assertEquals(halton, 1d, 5e-3);
+        assertEquals(sobol, 1d, 5e-3);
+        assertTrue(Math.abs(sobol - 1) < Math.abs(random - 1));
+    }
+
+    @Test
+    public void testEarlyStopping() {
+        MonteCarloIntegration rule = new MonteCarloIntegration(Sequence.PSEUDO_RANDOM, 100_000_000);
+        rule.setTolerance(1e-2);
+        rule.setBlocksPerRound(4);
+        MonteCarloResult result = rule.integrate(Math::sin, 0, Math.PI);
+
+        assertTrue(result.isConverged());
+        assertTrue(result.getHalfWidth() <= 1e-2);
+        assertTrue(result.getSamples() < 1_000_000);
+        assertEquals(result.getSamples() % (4 * MonteCarloIntegration.SAMPLES_PER_BLOCK), 0L);
+        assertEquals(result.getValue(), 2d, 3e-2);
+    }
+
+    @Test
+    public void testBox() {
+        MonteCarloIntegration rule = new MonteCarloIntegration(Sequence.SOBOL, 1 << 14);
+        double value = rule.integrate(x -> x[0] + x[1], new double[]{1, -1}, new double[]{3, 0}).getValue();
+        assertEquals(value, 3d, 1e-3);
+    }
+
+    @Test
+    public void testSobolSequence() {
+        SobolSequence sobol = new SobolSequence(2);
+        double[] first = new double[7];
+        double[] second = new double[7];
+        int[] state = new int[2];
+        sobol.seek(1, state);
+        for (int i = 0; i < 7; i++) {
+            first[i] = SobolSequence.toDouble(state[0]);
+            second[i] = SobolSequence.toDouble(state[1]);
+            sobol.next(i + 1, state);
+        }
+        assertArrayEquals(first, new double[]{0.5, 0.75, 0.25, 0.375, 0.875, 0.625, 0.125}, 0d);
+        assertArrayEquals(second, new double[]{0.5, 0.25, 0.75, 0.375, 0.875, 0.125, 0.625}, 0d);
+
+        int[] seeked = new int[2];
+        sobol.seek(8, seeked);
+        assertArrayEquals(seeked, state);
+    }
+
+    @Test
+    public void testNormalQuantile() {
+        assertEquals(MonteCarloIntegration.normalQuantile(0.975), 1.959963984540054, 1e-8);
+        assertEquals(MonteCarloIntegration.normalQuantile(0.5), 0d, 1e-12);
+        assertEquals(MonteCarloIntegration.normalQuantile(0.001), -3.090232306167813, 1e-8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManySobolDimensions() {
+        new MonteCarloIntegration(Sequence.SOBOL, 100).integrate(product, new double[17], new double[17]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxSamples() {
+        new MonteCarloIntegration(Sequence.HALTON, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConfidence() {
+        new MonteCarloIntegration(Sequence.HALTON, 100).setConfidence(1d);
+    }
+
+}
@@ -64,7 +64,13 @@ public class NumericalIntegrationTest {
     public void setUp() {
         this.ni = new NumericalIntegration(this.iterations) {
             @Override
-            protected double solveImplementation(DefiniteIntegral di) {
+            protected double solveImplementation(Fdx fn, double lowerLimit, double upperLimit,
+                                                 int iterations, double stepSize) {
+                return stepSize;
+            }
+
+            @Override
+            protected double partialSum(Fdx fn, double lowerLimit, double stepSize, int from, int to) {
                 return 0d;
             }
         };
@@ -77,7 +83,35 @@ public class NumericalIntegrationTest {
 
     @Test
     public void testCalculateStepSize() {
-        this.ni.solve(new DefiniteIntegral(null, lowerLimit, upperLimit));
-        assertEquals(ni.getStepSize(), actual, 1e-7);
+        double stepSize = this.ni.solve(new DefiniteIntegral(null, lowerLimit, upperLimit));
+        assertEquals(stepSize, actual, 1e-7);
+    }
+
+    @Test
+    public void testPrimitiveSolve() {
+        assertEquals(this.ni.solve(null, lowerLimit, upperLimit), actual, 1e-7);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrimitiveSolveInvalidLimits() {
+        this.ni.solve(null, upperLimit, lowerLimit);
+    }
+
+    @Test
+    public void testDefaultPrimitiveSolve() {
+        RuleX rule = integral -> integral.getUpperLimit() - integral.getLowerLimit();
+        assertEquals(rule.solve(null, lowerLimit, upperLimit), upperLimit - lowerLimit, 0d);
+    }
+
+    @Test
+    public void testSetThreshold() {
+        assertEquals(this.ni.getThreshold(), NumericalIntegration.DEFAULT_THRESHOLD);
+        this.ni.setThreshold(iterations);
+        assertEquals(this.ni.getThreshold(), iterations);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetInvalidThreshold() {
+        this.ni.setThreshold(0);
     }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class PiecewisePolynomialTest {
+
+    /** {@code |x|} in {@code [-1, 0]} and {@code x^2} in {@code [0, 2]}. */
+    private final PiecewisePolynomial piecewise = new PiecewisePolynomial(
+            new double[]{-1, 0, 2}, 2, new double[]{1, -1, 0, 0, 0, 1});
+
+    @Test
+    public void testCalculate() {
+        assertEquals(1d, piecewise.calculate(-1), 0d);
+        assertEquals(0.5, piecewise.calculate(-0.5), 0d);
+        assertEquals(0d, piecewise.calculate(0), 0d);
+        assertEquals(2.25, piecewise.calculate(1.5), 0d);
+        assertEquals(4d, piecewise.calculate(2), 0d);
+        assertEquals(9d, piecewise.calculate(3), 0d);
+        assertEquals(2d, piecewise.calculate(-2), 0d);
+    }
+
+    @Test
+    public void testSegment() {
+        assertEquals(0, piecewise.segment(-5));
+        assertEquals(0, piecewise.segment(-1));
+        assertEquals(1, piecewise.segment(0));
+        assertEquals(1, piecewise.segment(2));
+        assertEquals(1, piecewise.segment(7));
+    }
+
+    @Test
+    public void testIntegrate() {
+        assertEquals(0.5 + 8d / 3, piecewise.integrate(-1, 2), 1e-15);
+        assertEquals(0.125 + 1d / 3, piecewise.integrate(-0.5, 1), 1e-15);
+        assertEquals((27d - 8) / 3, piecewise.integrate(2, 3), 1e-14);
+        assertEquals(piecewise.integrate(-1, 2), new SimpsonsRule(2).solve(piecewise, -1, 2), 0d);
+    }
+
+    @Test
+    public void testCubicSpline() {
+        int n = 41;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = Math.PI * i / (n - 1);
+            y[i] = Math.sin(x[i]);
+        }
+        PiecewisePolynomial spline = PiecewisePolynomial.cubicSpline(x, y);
+        assertEquals(n - 1, spline.getSegments());
+        assertEquals(3, spline.getDegree());
+        for (int i = 0; i < n; i++)
+            assertEquals(y[i], spline.calculate(x[i]), 1e-15);
+        for (double t = 0; t <= Math.PI; t += 0.01)
+            assertEquals(Math.sin(t), spline.calculate(t), 1e-5);
+        assertEquals(2d, spline.integrate(0, Math.PI), 1e-5);
+        assertEquals(new SimpsonsRule(40_000).solve(x2 -> spline.calculate(x2), 0.3, 2.9),
+                new SimpsonsRule(2).solve(spline, 0.3, 2.9), 1e-12);
+    }
+
+    @Test
+    public void testCubicSplineOfCubicIsExact() {
+        double[] x = {0, 1, 2};
+        double[] y = {0, 1, 0};
+        PiecewisePolynomial spline = PiecewisePolynomial.cubicSpline(x, y);
+        assertEquals(0.6875, spline.calculate(0.5), 1e-15);
+        assertEquals(0d, spline.calculate(2), 1e-15);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedBreakpoints() {
+        new PiecewisePolynomial(new double[]{0, 2, 1}, 0, new double[]{1, 1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongNumberOfCoefficients() {
+        new PiecewisePolynomial(new double[]{0, 1, 2}, 1, new double[]{1, 1, 1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSplineDifferentLengths() {
+        PiecewisePolynomial.cubicSpline(new double[]{0, 1, 2}, new double[]{0, 1});
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class PolynomialTest {
+
+    private final Polynomial polynomial = new Polynomial(1, -2, 0, 3);
+
+    @Test
+    public void testCalculate() {
+        for (double x = -2; x <= 2; x += 0.25)
+            assertEquals(1 - 2 * x + 3 * x * x * x, polynomial.calculate(x), 1e-14);
+        assertEquals(0d, new Polynomial().calculate(5), 0d);
+        assertEquals(3, polynomial.getDegree());
+    }
+
+    @Test
+    public void testIntegrate() {
+        assertEquals(3 - 9 + 60.75 - (-1 - 1 + 0.75), polynomial.integrate(-1, 3), 1e-13);
+        assertEquals(-polynomial.integrate(-1, 3), polynomial.integrate(3, -1), 1e-13);
+    }
+
+    @Test
+    public void testDerivativeAndAntiderivative() {
+        assertArrayEquals(new double[]{-2, 0, 9}, polynomial.derivative().getCoefficients(), 0d);
+        assertArrayEquals(new double[]{0, 1, -1, 0, 0.75}, polynomial.antiderivative().getCoefficients(), 0d);
+        assertArrayEquals(new double[]{0}, new Polynomial(7).derivative().getCoefficients(), 0d);
+        assertEquals(polynomial, polynomial.antiderivative().derivative());
+        assertFalse(polynomial.equals(polynomial.derivative()));
+    }
+
+    @Test
+    public void testRulesReturnExactIntegral() {
+        AtomicLong calls = new AtomicLong();
+        IntegrableFdx fn = new IntegrableFdx() {
+            @Override
+            public double calculate(double x) {
+                calls.incrementAndGet();
+                return polynomial.calculate(x);
+            }
+
+            @Override
+            public double integrate(double lowerLimit, double upperLimit) {
+                return polynomial.integrate(lowerLimit, upperLimit);
+            }
+        };
+        double expected = polynomial.integrate(-1, 3);
+        RuleX[] rules = {
+                new TrapezoidalRule(1000),
+                new SimpsonsRule(1000),
+                new GaussLegendreRule(3, 10),
+                new RombergRule(1e-10),
+                new AdaptiveSimpsonsRule(1e-10),
+                new ClenshawCurtisRule(1e-10),
+                new DoubleExponentialRule(1e-10),
+                new AutoTunedRule(new SimpsonsRule(2), 1e-10, 0)
+        };
+        for (RuleX rule : rules) {
+            assertEquals(expected, rule.solve(fn, -1, 3), 0d);
+            assertEquals(expected, rule.solve(new DefiniteIntegral(fn, -1, 3)), 0d);
+        }
+        assertEquals(0, calls.get());
+
+        double[] batch = new TrapezoidalRule(10).solve(fn, new double[]{-1, 0, 3});
+        assertArrayEquals(new double[]{polynomial.integrate(-1, 0), polynomial.integrate(0, 3)}, batch, 0d);
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void testListenerOfExactSolve() {
+        IntegrationMetrics metrics = new IntegrationMetrics();
+        TrapezoidalRule rule = new TrapezoidalRule(100);
+        rule.setListener(metrics);
+        assertEquals(polynomial.integrate(0, 1), rule.solve(polynomial, 0, 1), 0d);
+        assertEquals(1, metrics.getSolves());
+        assertEquals(0, metrics.getEvaluations());
+    }
+
+}
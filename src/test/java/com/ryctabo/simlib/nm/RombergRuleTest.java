@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+@RunWith(Parameterized.class)
+public class RombergRuleTest {
+
+    private final Fdx function;
+
+    private final double lowerLimit;
+
+    private final double upperLimit;
+
+    private final double actual;
+
+    public RombergRuleTest(Fdx function, double lowerLimit, double upperLimit, double actual) {
+        this.function = function;
+        this.lowerLimit = lowerLimit;
+        this.upperLimit = upperLimit;
+        this.actual = actual;
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getData() {
+        Fdx f1 = x -> 1 / (x + 1);
+        Fdx f2 = x -> x * (x - 2) * (x - 3);
+        Fdx f3 = Math::sin;
+        Fdx f4 = x -> Math.exp(-x * x);
+        return Arrays.asList(new Object[][]{
+                {f1, 2d, 3d, Math.log(4d / 3d)},
+                {f2, 0d, 5d, 22.9166666666667d},
+                {f3, 0d, Math.PI, 2d},
+                {f4, 0d, 1d, 0.746824132812427d}
+        });
+    }
+
+    @Test
+    public void testSolve() {
+        RombergRule rule = new RombergRule(1e-12);
+        assertEquals(rule.solve(new DefiniteIntegral(function, lowerLimit, upperLimit)), actual, 1e-11);
+    }
+
+    @Test
+    public void testPrimitiveSolve() {
+        RombergRule rule = new RombergRule(1e-12);
+        double expected = rule.solve(new DefiniteIntegral(function, lowerLimit, upperLimit));
+        assertEquals(rule.solve(function, lowerLimit, upperLimit), expected, 0d);
+    }
+
+    @Test
+    public void testEvaluationsAreNotRepeated() {
+        Set<Double> abscissas = new HashSet<>();
+        Fdx fn = x -> {
+            assertTrue(abscissas.add(x));
+            return function.calculate(x);
+        };
+
+        RombergRule rule = new RombergRule(1e-12, 10, 3);
+        IntegrationResult result = rule.integrate(new DefiniteIntegral(fn, lowerLimit, upperLimit));
+        assertEquals(result.getEvaluations(), abscissas.size());
+        assertEquals(result.getValue(), actual, 1e-11);
+    }
+
+    @Test
+    public void testMaxLevels() {
+        RombergRule rule = new RombergRule(1e-300, 4, 1);
+        IntegrationResult result = rule.integrate(new DefiniteIntegral(function, lowerLimit, upperLimit));
+        assertTrue(result.getEvaluations() <= 17L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTolerance() {
+        new RombergRule(-1d);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyLevels() {
+        new RombergRule(1e-6, 30, 4);
+    }
+
+}
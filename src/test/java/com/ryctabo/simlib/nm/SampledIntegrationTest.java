@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class SampledIntegrationTest {
+
+    private static double[] sample(Fdx fn, double[] x) {
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; i++)
+            y[i] = fn.calculate(x[i]);
+        return y;
+    }
+
+    private static double[] uniform(double a, double b, int n) {
+        double[] x = new double[n + 1];
+        for (int i = 0; i <= n; i++)
+            x[i] = a + i * (b - a) / n;
+        return x;
+    }
+
+    @Test
+    public void testUniformSamples() {
+        double[] x = uniform(0, Math.PI, 100);
+        double[] y = sample(Math::sin, x);
+        double stepSize = Math.PI / 100;
+
+        assertEquals(SampledIntegration.trapezoidal(y, stepSize),
+                new TrapezoidalRule(100).solve(new DefiniteIntegral(Math::sin, 0, Math.PI)), 1e-12);
+        assertEquals(SampledIntegration.simpsons(y, stepSize),
+                new SimpsonsRule(100).solve(new DefiniteIntegral(Math::sin, 0, Math.PI)), 1e-12);
+    }
+
+    @Test
+    public void testNonUniformSamples() {
+        double[] x = {0d, 0.1d, 0.35d, 0.5d, 0.9d, 1.4d, 1.5d, 2d};
+        Fdx quadratic = t -> 3 * t * t - 2 * t + 1;
+        double[] y = sample(quadratic, x);
+
+        assertEquals(SampledIntegration.simpsons(x, y), 8d - 4d + 2d, 1e-12);
+        assertEquals(SampledIntegration.simpsons(
+                new double[]{0d, 0.1d, 0.35d, 0.5d, 0.9d, 1.4d, 2d},
+                new double[]{1d, 0.83d, 0.6675d, 0.75d, 1.63d, 4.08d, 9d}), 6d, 1e-12);
+        assertEquals(SampledIntegration.trapezoidal(new double[]{0d, 1d, 3d}, new double[]{0d, 1d, 3d}), 4.5d, 1e-12);
+    }
+
+    @Test
+    public void testFewSamples() {
+        assertEquals(SampledIntegration.simpsons(new double[]{2d}, 1d), 0d, 0d);
+        assertEquals(SampledIntegration.simpsons(new double[]{2d, 4d}, 0.5d), 1.5d, 0d);
+        assertEquals(SampledIntegration.trapezoidal(new double[0], 1d), 0d, 0d);
+    }
+
+    @Test
+    public void testBufferPositionIsNotModified() {
+        DoubleBuffer buffer = DoubleBuffer.wrap(new double[]{100d, 1d, 1d, 1d, 1d});
+        buffer.position(1);
+        assertEquals(SampledIntegration.trapezoidal(buffer, 2d), 6d, 0d);
+        assertEquals(SampledIntegration.simpsons(buffer, 2d), 6d, 1e-12);
+        assertEquals(buffer.position(), 1);
+    }
+
+    @Test
+    public void testMappedFiles() throws IOException {
+        double[] x = uniform(-2, 3, 1001);
+        for (int i = 1; i < x.length - 1; i += 3)
+            x[i] += 0.001;
+        double[] y = sample(t -> Math.exp(-t * t), x);
+
+        Path xFile = write(x);
+        Path yFile = write(y);
+        try (FileChannel xChannel = FileChannel.open(xFile, StandardOpenOption.READ);
+             FileChannel yChannel = FileChannel.open(yFile, StandardOpenOption.READ)) {
+            assertEquals(SampledIntegration.simpsons(xChannel, yChannel, ByteOrder.LITTLE_ENDIAN, 8 * 37),
+                    SampledIntegration.simpsons(x, y), 1e-12);
+            assertEquals(SampledIntegration.simpsons(xChannel, yChannel, ByteOrder.LITTLE_ENDIAN),
+                    SampledIntegration.simpsons(x, y), 1e-12);
+            assertEquals(SampledIntegration.trapezoidal(yChannel, ByteOrder.LITTLE_ENDIAN, 0.005d, 8 * 64),
+                    SampledIntegration.trapezoidal(y, 0.005d), 1e-12);
+            assertEquals(SampledIntegration.trapezoidal(xChannel, yChannel, ByteOrder.LITTLE_ENDIAN),
+                    SampledIntegration.trapezoidal(x, y), 1e-12);
+        } finally {
+            Files.delete(xFile);
+            Files.delete(yFile);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDifferentLengths() {
+        SampledIntegration.trapezoidal(new double[3], new double[4]);
+    }
+
+    private static Path write(double[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asDoubleBuffer().put(values);
+        Path file = Files.createTempFile("simlib", ".bin");
+        Files.write(file, buffer.array());
+        return file;
+    }
+
+}
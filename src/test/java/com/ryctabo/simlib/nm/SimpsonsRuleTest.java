@@ -24,6 +24,7 @@ import org.junit.runners.Parameterized;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.Assert.assertEquals;
 
@@ -76,8 +77,24 @@ public class SimpsonsRuleTest {
         assertEquals(this.rule.solve(integral), actual, 1e-7);
     }
 
+    @Test
+    public void testPrimitiveSolve() {
+        double expected = this.rule.solve(integral);
+        double solved = this.rule.solve(integral.getFunction(), integral.getLowerLimit(), integral.getUpperLimit());
+        assertEquals(solved, expected, 0d);
+    }
+
     @Test
     public void testGetComposite() {
         assertEquals(this.rule.getComposite(), composite);
     }
+
+    @Test
+    public void testSolveInParallel() {
+        double sequential = this.rule.solve(integral);
+
+        this.rule.setPool(ForkJoinPool.commonPool());
+        this.rule.setThreshold(2);
+        assertEquals(this.rule.solve(integral), sequential, 1e-12);
+    }
 }
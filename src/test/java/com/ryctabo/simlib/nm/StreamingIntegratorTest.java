@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import com.ryctabo.simlib.nm.StreamingIntegrator.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+@RunWith(Parameterized.class)
+public class StreamingIntegratorTest {
+
+    private static final Fdx FUNCTION = x -> Math.exp(-x) * Math.cos(2 * x);
+
+    private final Rule rule;
+
+    public StreamingIntegratorTest(Rule rule) {
+        this.rule = rule;
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getData() {
+        return Arrays.asList(new Object[][]{
+                {Rule.TRAPEZOIDAL},
+                {Rule.SIMPSONS}
+        });
+    }
+
+    private static double abscissa(int i) {
+        return 0.1 * i + 0.01 * (i % 3);
+    }
+
+    private StreamingIntegrator integrate(int from, int to) {
+        StreamingIntegrator integrator = new StreamingIntegrator(rule);
+        for (int i = from; i < to; i++)
+            integrator.accept(abscissa(i), FUNCTION.calculate(abscissa(i)));
+        return integrator;
+    }
+
+    @Test
+    public void testAcceptMatchesRules() {
+        StreamingIntegrator integrator = new StreamingIntegrator(rule);
+        for (int i = 0; i <= 100; i++)
+            integrator.accept(i / 100d, FUNCTION.calculate(i / 100d));
+
+        NumericalIntegration expected = rule == Rule.TRAPEZOIDAL ? new TrapezoidalRule(100) : new SimpsonsRule(100);
+        assertEquals(integrator.result(), expected.solve(new DefiniteIntegral(FUNCTION, 0, 1)), 1e-12);
+        assertEquals(integrator.getCount(), 101L);
+    }
+
+    @Test
+    public void testMerge() {
+        for (int n = 0; n < 10; n++) {
+            double expected = integrate(0, n).result();
+            for (int split = 0; split <= n; split++) {
+                StreamingIntegrator left = integrate(0, split);
+                assertEquals(left.merge(integrate(split, n)).result(), expected, 1e-12);
+
+                for (int second = split; second <= n; second++) {
+                    StreamingIntegrator first = integrate(0, split);
+                    StreamingIntegrator middle = integrate(split, second).merge(integrate(second, n));
+                    assertEquals(first.merge(middle).result(), expected, 1e-12);
+                    assertEquals(first.getCount(), (long) n);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCollector() {
+        double expected = integrate(0, 100_001).result();
+        double result = IntStream.range(0, 100_001).parallel().boxed()
+                .collect(StreamingIntegrator.collector(rule,
+                        StreamingIntegratorTest::abscissa,
+                        i -> FUNCTION.calculate(abscissa(i))));
+        assertEquals(result, expected, 1e-12);
+    }
+
+    @Test
+    public void testAcceptBatch() {
+        double[] x = {0d, 0.5d, 1d, 2d};
+        double[] y = {1d, 1d, 1d, 1d};
+        StreamingIntegrator integrator = new StreamingIntegrator(rule);
+        integrator.accept(x, y);
+        assertEquals(integrator.result(), 2d, 1e-12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentRules() {
+        Rule other = rule == Rule.TRAPEZOIDAL ? Rule.SIMPSONS : Rule.TRAPEZOIDAL;
+        new StreamingIntegrator(rule).merge(new StreamingIntegrator(other));
+    }
+
+}
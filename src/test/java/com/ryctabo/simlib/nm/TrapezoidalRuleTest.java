@@ -23,7 +23,10 @@ import org.junit.runners.Parameterized;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -65,4 +68,48 @@ public class TrapezoidalRuleTest {
         double expected = this.trapezoidalRule.solve(integral);
         assertEquals(expected, actual, 1e-5);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPrimitiveSolve() {
+        double expected = this.trapezoidalRule.solve(integral);
+        Fdx fn = integral.getFunction();
+        double a = integral.getLowerLimit();
+        double b = integral.getUpperLimit();
+        assertEquals(this.trapezoidalRule.solve(fn, a, b), expected, 0d);
+        assertEquals(this.trapezoidalRule.refine(fn, a, b, iterations, expected),
+                this.trapezoidalRule.refine(integral, iterations, expected), 0d);
+    }
+
+    @Test
+    public void testSolveInParallel() {
+        double sequential = this.trapezoidalRule.solve(integral);
+
+        this.trapezoidalRule.setPool(ForkJoinPool.commonPool());
+        this.trapezoidalRule.setThreshold(2);
+        assertEquals(this.trapezoidalRule.solve(integral), sequential, 1e-12);
+    }
+
+    @Test
+    public void testRefine() {
+        double previous = this.trapezoidalRule.solve(integral);
+        double expected = new TrapezoidalRule(2 * iterations).solve(integral);
+        assertEquals(this.trapezoidalRule.refine(integral, iterations, previous), expected, 1e-12);
+    }
+
+    @Test
+    public void testSolveConcurrently() {
+        TrapezoidalRule sequentialRule = new TrapezoidalRule(iterations);
+        double[] expected = IntStream.range(0, 1000)
+                .mapToDouble(i -> sequentialRule.solve(shift(i)))
+                .toArray();
+        double[] results = IntStream.range(0, 1000).parallel()
+                .mapToDouble(i -> this.trapezoidalRule.solve(shift(i)))
+                .toArray();
+        assertArrayEquals(results, expected, 0d);
+    }
+
+    private DefiniteIntegral shift(int i) {
+        return new DefiniteIntegral(integral.getFunction(),
+                integral.getLowerLimit() + i, integral.getUpperLimit() + 2 * i);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.nm;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class VectorFdxTest {
+
+    private static final int MOMENTS = 6;
+
+    private final VectorFdx moments = (x, fx) -> {
+        double density = Math.exp(-x);
+        for (int j = 0; j < fx.length; j++) {
+            fx[j] = density;
+            density *= x;
+        }
+    };
+
+    private static Fdx moment(int j) {
+        return x -> {
+            double density = Math.exp(-x);
+            for (int i = 0; i < j; i++)
+                density *= x;
+            return density;
+        };
+    }
+
+    private static NumericalIntegration[] rules() {
+        return new NumericalIntegration[]{
+                new TrapezoidalRule(600),
+                new SimpsonsRule(600, SimpsonsRule.Composite.MAIN),
+                new SimpsonsRule(600, SimpsonsRule.Composite.THREE_EIGHTHS),
+                new GaussLegendreRule(5, 40)
+        };
+    }
+
+    @Test
+    public void testSameResultAsScalarSolve() {
+        for (NumericalIntegration rule : rules()) {
+            double[] result = rule.solve(moments, MOMENTS, 0, 3);
+            for (int j = 0; j < MOMENTS; j++)
+                assertEquals(result[j], rule.solve(moment(j), 0, 3), 0d);
+        }
+    }
+
+    @Test
+    public void testSolveInParallel() {
+        for (NumericalIntegration rule : rules()) {
+            double[] sequential = rule.solve(moments, MOMENTS, 0, 3);
+            rule.setPool(ForkJoinPool.commonPool());
+            rule.setThreshold(12);
+            double[] parallel = rule.solve(moments, MOMENTS, 0, 3);
+            assertArrayEquals(parallel, sequential, 1e-12);
+            for (int j = 0; j < MOMENTS; j++)
+                assertEquals(parallel[j], rule.solve(moment(j), 0, 3), 0d);
+        }
+    }
+
+    @Test
+    public void testOnePassOverTheGrid() {
+        AtomicLong calls = new AtomicLong();
+        double[] result = new double[MOMENTS];
+        new SimpsonsRule(100).solve((x, fx) -> {
+            calls.incrementAndGet();
+            moments.calculate(x, fx);
+        }, 0, 20, result);
+
+        assertEquals(calls.get(), 101L);
+        double factorial = 1d;
+        for (int j = 0; j < MOMENTS; j++) {
+            assertEquals(result[j], factorial, 1e-2 * factorial);
+            factorial *= j + 1;
+        }
+    }
+
+    @Test
+    public void testDefaultImplementation() {
+        NumericalIntegration rule = new NumericalIntegration(1000) {
+            @Override
+            protected double solveImplementation(Fdx fn, double lowerLimit, double upperLimit,
+                                                 int iterations, double stepSize) {
+                return stepSize * summation(fn, lowerLimit, stepSize, 0, iterations);
+            }
+
+            @Override
+            protected double partialSum(Fdx fn, double lowerLimit, double stepSize, int from, int to) {
+                double summation = 0d;
+                for (int i = from; i < to; i++)
+                    summation += fn.calculate(lowerLimit + (i + 0.5) * stepSize);
+                return summation;
+            }
+        };
+
+        double[] sequential = rule.solve(moments, MOMENTS, 0, 1);
+        rule.setPool(ForkJoinPool.commonPool());
+        rule.setThreshold(100);
+        double[] parallel = rule.solve(moments, MOMENTS, 0, 1);
+        for (int j = 0; j < MOMENTS; j++) {
+            final int k = j;
+            rule.setPool(null);
+            double expected = rule.solve(x -> Math.exp(-x) * Math.pow(x, k), 0, 1);
+            assertEquals(expected, sequential[j], 1e-15);
+            assertEquals(sequential[j], parallel[j], 1e-15);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLimits() {
+        new TrapezoidalRule(10).solve(moments, MOMENTS, 1, 0);
+    }
+
+}
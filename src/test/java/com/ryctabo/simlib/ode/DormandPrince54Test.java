@@ -0,0 +1,190 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.ode;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class DormandPrince54Test {
+
+    private static final OdeSystem OSCILLATOR = (t, y, dydt) -> {
+        dydt[0] = y[1];
+        dydt[1] = -y[0];
+    };
+
+    private static final OdeSystem FALL = (t, y, dydt) -> {
+        dydt[0] = y[1];
+        dydt[1] = -9.81;
+    };
+
+    @Test
+    public void testOscillator() {
+        DormandPrince54 solver = new DormandPrince54(2, 1e-12, 1e-12);
+        double[] y = {0d, 1d};
+        solver.integrate(OSCILLATOR, 0, y, 10);
+        assertEquals(Math.sin(10), y[0], 1e-9);
+        assertEquals(Math.cos(10), y[1], 1e-9);
+        assertEquals(1 + 6L * (solver.getSteps() + solver.getRejectedSteps()) + 1, solver.getEvaluations());
+    }
+
+    @Test
+    public void testStepSizeAdapts() {
+        DormandPrince54 loose = new DormandPrince54(2, 1e-4, 1e-4);
+        DormandPrince54 tight = new DormandPrince54(2, 1e-10, 1e-10);
+        loose.integrate(OSCILLATOR, 0, new double[]{0d, 1d}, 10);
+        tight.integrate(OSCILLATOR, 0, new double[]{0d, 1d}, 10);
+        assertTrue(loose.getSteps() < tight.getSteps());
+    }
+
+    @Test
+    public void testStiffTransient() {
+        OdeSystem system = (t, y, dydt) -> dydt[0] = -50 * (y[0] - Math.cos(t));
+        double[] y = {0d};
+        DormandPrince54 solver = new DormandPrince54(1, 1e-8, 1e-8);
+        solver.integrate(system, 0, y, 2);
+        double expected = (2500 * Math.cos(2) + 50 * Math.sin(2) - 2500 * Math.exp(-100)) / 2501;
+        assertEquals(expected, y[0], 1e-6);
+    }
+
+    @Test
+    public void testBackward() {
+        double[] y = {Math.sin(-3), Math.cos(-3)};
+        new DormandPrince54(2, 1e-11, 1e-11).integrate(OSCILLATOR, -3, y, 0);
+        assertEquals(0d, y[0], 1e-8);
+        assertEquals(1d, y[1], 1e-8);
+    }
+
+    @Test
+    public void testDenseOutput() {
+        DormandPrince54 solver = new DormandPrince54(2, 1e-10, 1e-10);
+        double[] interpolated = new double[2];
+        double[] maximum = {0d};
+        solver.addStepHandler(output -> {
+            double t0 = output.getPreviousTime();
+            double t1 = output.getCurrentTime();
+            for (int k = 0; k <= 8; k++) {
+                double t = t0 + k * (t1 - t0) / 8;
+                output.interpolate(t, interpolated);
+                maximum[0] = Math.max(maximum[0], Math.abs(interpolated[0] - Math.sin(t)));
+            }
+        });
+        solver.integrate(OSCILLATOR, 0, new double[]{0d, 1d}, 6);
+        assertEquals(0d, maximum[0], 1e-7);
+    }
+
+    @Test
+    public void testStopEvent() {
+        DormandPrince54 solver = new DormandPrince54(2, 1e-10, 1e-10);
+        solver.addEventFunction((t, y) -> y[0]);
+        double[] y = {10d, 0d};
+        double time = solver.integrate(FALL, 0, y, 5);
+        assertEquals(Math.sqrt(20 / 9.81), time, 1e-9);
+        assertEquals(0d, y[0], 1e-9);
+        assertEquals(-Math.sqrt(2 * 9.81 * 10), y[1], 1e-7);
+    }
+
+    @Test
+    public void testContinueEvent() {
+        int[] crossings = {0};
+        double[] times = new double[4];
+        DormandPrince54 solver = new DormandPrince54(2, 1e-10, 1e-10);
+        solver.addEventFunction(new EventFunction() {
+            @Override
+            public double calculate(double t, double[] y) {
+                return y[0];
+            }
+
+            @Override
+            public Action onEvent(double t, double[] y) {
+                times[crossings[0]++] = t;
+                return Action.CONTINUE;
+            }
+        });
+        double[] y = {0d, 1d};
+        assertEquals(11d, solver.integrate(OSCILLATOR, 0, y, 11), 0d);
+        assertEquals(3, crossings[0]);
+        for (int k = 0; k < 3; k++)
+            assertEquals((k + 1) * Math.PI, times[k], 1e-8);
+    }
+
+    @Test
+    public void testBatch() {
+        double[][] sequential = new double[100][];
+        double[][] parallel = new double[100][];
+        for (int i = 0; i < sequential.length; i++) {
+            sequential[i] = new double[]{1 + i, 0d};
+            parallel[i] = sequential[i].clone();
+        }
+
+        DormandPrince54 solver = new DormandPrince54(2, 1e-9, 1e-9);
+        solver.addEventFunction((t, y) -> y[0]);
+        double[] expected = solver.integrate(FALL, 0, sequential, 100);
+        solver.setPool(new ForkJoinPool(4));
+        double[] times = solver.integrate(FALL, 0, parallel, 100);
+        assertArrayEquals(expected, times, 0d);
+        for (int i = 0; i < sequential.length; i++) {
+            assertArrayEquals(sequential[i], parallel[i], 0d);
+            assertEquals(Math.sqrt(2 * (1 + i) / 9.81), times[i], 1e-8);
+        }
+    }
+
+    @Test
+    public void testLargeSystemDoesNotAllocate() {
+        int n = 2000;
+        OdeSystem system = (t, y, dydt) -> {
+            for (int i = 0; i < y.length; i++)
+                dydt[i] = -(1 + i % 7) * y[i];
+        };
+        DormandPrince54 solver = new DormandPrince54(n, 1e-8, 1e-8);
+        double[] y = new double[n];
+        java.util.Arrays.fill(y, 1d);
+        solver.integrate(system, 0, y, 1);
+        for (int i = 0; i < n; i += 97)
+            assertEquals(Math.exp(-(1 + i % 7)), y[i], 1e-6);
+
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean))
+            return;
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        java.util.Arrays.fill(y, 1d);
+        long before = bean.getThreadAllocatedBytes(thread);
+        solver.integrate(system, 0, y, 1);
+        long allocated = bean.getThreadAllocatedBytes(thread) - before;
+        assertTrue("allocated " + allocated + " bytes", allocated < 8L * n);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTolerances() {
+        new DormandPrince54(1, 0, 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullSystem() {
+        new DormandPrince54(1, 1e-6, 1e-6).integrate(null, 0, new double[1], 1);
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 Gustavo Pacheco.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ryctabo.simlib.ode;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Gustavo Pacheco (ryctabo at gmail.com)
+ * @version 1.0-SNAPSHOT
+ */
+public class RungeKutta4Test {
+
+    private static final OdeSystem DECAY = (t, y, dydt) -> dydt[0] = -y[0];
+
+    private static final OdeSystem OSCILLATOR = (t, y, dydt) -> {
+        dydt[0] = y[1];
+        dydt[1] = -y[0];
+    };
+
+    @Test
+    public void testDecay() {
+        RungeKutta4 solver = new RungeKutta4(1, 0.01);
+        double[] y = {1d};
+        assertEquals(2d, solver.integrate(DECAY, 0, y, 2), 0d);
+        assertEquals(Math.exp(-2), y[0], 1e-10);
+        assertEquals(200, solver.getSteps());
+        assertEquals(0, solver.getRejectedSteps());
+        assertEquals(1 + 4 * 200, solver.getEvaluations());
+    }
+
+    @Test
+    public void testLastStepIsShortened() {
+        RungeKutta4 solver = new RungeKutta4(2, 0.3);
+        double[] y = {0d, 1d};
+        solver.integrate(OSCILLATOR, 0, y, 1);
+        assertEquals(4, solver.getSteps());
+        assertEquals(Math.sin(1), y[0], 1e-3);
+        assertEquals(Math.cos(1), y[1], 1e-3);
+    }
+
+    @Test
+    public void testFourthOrder() {
+        double[] coarse = {0d, 1d};
+        double[] fine = {0d, 1d};
+        new RungeKutta4(2, 0.1).integrate(OSCILLATOR, 0, coarse, 5);
+        new RungeKutta4(2, 0.05).integrate(OSCILLATOR, 0, fine, 5);
+        double ratio = Math.hypot(coarse[0] - Math.sin(5), coarse[1] - Math.cos(5))
+                / Math.hypot(fine[0] - Math.sin(5), fine[1] - Math.cos(5));
+        assertEquals(16d, ratio, 2d);
+    }
+
+    @Test
+    public void testBackward() {
+        double[] y = {Math.exp(-1)};
+        new RungeKutta4(1, 0.01).integrate(DECAY, 1, y, 0);
+        assertEquals(1d, y[0], 1e-10);
+    }
+
+    @Test
+    public void testDenseOutput() {
+        RungeKutta4 solver = new RungeKutta4(1, 0.1);
+        double[] interpolated = new double[1];
+        double[] maximum = {0d};
+        solver.addStepHandler(output -> {
+            double t0 = output.getPreviousTime();
+            double t1 = output.getCurrentTime();
+            for (int k = 0; k <= 4; k++) {
+                double t = t0 + k * (t1 - t0) / 4;
+                output.interpolate(t, interpolated);
+                maximum[0] = Math.max(maximum[0], Math.abs(interpolated[0] - Math.exp(-t)));
+            }
+        });
+        solver.integrate(DECAY, 0, new double[]{1d}, 1);
+        assertEquals(0d, maximum[0], 1e-6);
+    }
+
+    @Test
+    public void testBatch() {
+        double[][] sequential = new double[64][];
+        double[][] parallel = new double[64][];
+        for (int i = 0; i < sequential.length; i++) {
+            sequential[i] = new double[]{i / 64d, 1d};
+            parallel[i] = sequential[i].clone();
+        }
+
+        RungeKutta4 solver = new RungeKutta4(2, 0.01);
+        solver.integrate(OSCILLATOR, 0, sequential, 3);
+        solver.setPool(new ForkJoinPool(4));
+        double[] times = solver.integrate(OSCILLATOR, 0, parallel, 3);
+        for (int i = 0; i < sequential.length; i++) {
+            assertArrayEquals(sequential[i], parallel[i], 0d);
+            assertEquals(3d, times[i], 0d);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidStepSize() {
+        new RungeKutta4(1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDimension() {
+        new RungeKutta4(0, 0.1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidState() {
+        new RungeKutta4(2, 0.1).integrate(DECAY, 0, new double[1], 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMaxSteps() {
+        RungeKutta4 solver = new RungeKutta4(1, 0.01);
+        solver.setMaxSteps(10);
+        solver.integrate(DECAY, 0, new double[]{1d}, 1);
+    }
+
+}